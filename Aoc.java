@@ -1,60 +1,48 @@
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+
+import common.Input;
+import common.Line;
+import common.Result;
+import common.Solver;
+import harness.Runner;
 
 /**
  * Advent of Code 2025 - Day X
  * @author Brian Dahlem
- * 
+ *
  * Brief description of the puzzle.
  */
-public class Aoc {
-    public static void main(String[] args) throws FileNotFoundException {
-        // Load the data
-        File inputFile = new File("sampleX.txt");
-        Scanner scan = new Scanner(inputFile);
-       
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-        String data = scan.next();
-        scan.close();
-
+public class Aoc implements Solver<Line[]> {
+    public static void main(String[] args) throws IOException {
         // Solve the two parts of the puzzle
-        long start = System.nanoTime();
-        prepare(data);
-        long prepped = System.nanoTime();
-        partOne();
-        long first = System.nanoTime();
-        partTwo();
-        long sec = System.nanoTime();
-
-        System.out.println("Preparation duration: " + (prepped - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 1 duration: " + (first - prepped) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+        Runner.solve(new Aoc(), "sampleX.txt");
     }
 
     /**
-     * @param data raw input data
+     * @param input raw input data
      */
-    public static void prepare(String data) {
-
+    @Override
+    public Line[] prepare(Input input) {
+        return input.lines().toArray(new Line[0]);
     }
 
     /**
-     * 
+     *
      */
-    public static void partOne() {
+    @Override
+    public Result partOne(Line[] input) {
         long total = 0;
 
-        System.out.println("Part 1: {" + total + "}");
+        return Result.of(total);
     }
 
     /**
-     * 
+     *
      */
-    public static void partTwo() {
+    @Override
+    public Result partTwo(Line[] input) {
         long total = 0;
 
-        System.out.println("Part 2: {" + total + "}");
+        return Result.of(total);
     }
 }
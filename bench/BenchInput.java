@@ -0,0 +1,45 @@
+package bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import common.Input;
+import gen.Generators;
+import harness.Solvers;
+
+/**
+ * Build benchmark inputs of a chosen size.
+ * @author Brian Dahlem
+ *
+ * A positive size generates a synthetic input with that many records (see
+ * each day's generator in the gen package for what a record is) from a fixed
+ * seed, so every run measures the same input. A size of 0 uses the real puzzle
+ * input, memory mapped from the directory named by the aoc.inputs system property or
+ * the working directory if it is not set.
+ */
+public final class BenchInput {
+    /** The seed for generated inputs, overridable with -Daoc.seed */
+    private static final long SEED = Long.getLong("aoc.seed", Generators.DEFAULT_SEED);
+
+    private BenchInput() {}
+
+    /**
+     * Get an input for a day
+     * @param day the day number
+     * @param size the number of records to generate, or 0 for the puzzle input
+     * @return the input data
+     */
+    public static Input of(int day, int size) {
+        if (size > 0) {
+            return Input.of(Generators.generate(day, size, SEED));
+        }
+
+        Path file = Path.of(System.getProperty("aoc.inputs", "."), Solvers.defaultInput(day));
+        try {
+            return Input.map(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read benchmark input " + file, e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package bench;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks of day 10, sized by the number of machines
+ * @author Brian Dahlem
+ *
+ * Also measures Aoc10.minPresses on a single machine, by solving part one
+ * for just that machine.
+ */
+public class Day10Benchmark extends DayBenchmark {
+    @Param({"10", "50", "200"})
+    public int size;
+
+    /** The index of the machine to solve in the minPresses benchmark */
+    @Param({"0"})
+    public int machine;
+
+    /** The prepared input holding only the chosen machine */
+    private Object single;
+
+    @Override
+    protected int day() {
+        return 10;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+
+    @Override
+    @Setup
+    public void setUp() {
+        super.setUp();
+
+        // Keep the array's component type so that the solver accepts it
+        single = Arrays.copyOfRange((Object[]) prepared, machine, machine + 1);
+    }
+
+    @Benchmark
+    public long minPresses() {
+        return solver.partOne(single).answer();
+    }
+}
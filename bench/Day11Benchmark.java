@@ -0,0 +1,25 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of day 11, sized by the number of devices
+ * @author Brian Dahlem
+ *
+ * The recursive Tarjan pass in part two overflows the default thread stack
+ * a few thousand devices in, so larger networks need a bigger -Xss.
+ */
+public class Day11Benchmark extends DayBenchmark {
+    @Param({"100", "1000", "2000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 11;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
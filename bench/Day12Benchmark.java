@@ -0,0 +1,22 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of day 12, sized by the number of regions
+ * @author Brian Dahlem
+ */
+public class Day12Benchmark extends DayBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 12;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,22 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of day 1, sized by the number of dial rotations
+ * @author Brian Dahlem
+ */
+public class Day1Benchmark extends DayBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 1;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
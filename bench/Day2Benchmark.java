@@ -0,0 +1,22 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of day 2, sized by the number of product id ranges
+ * @author Brian Dahlem
+ */
+public class Day2Benchmark extends DayBenchmark {
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 2;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,22 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of day 3, sized by the number of battery banks
+ * @author Brian Dahlem
+ */
+public class Day3Benchmark extends DayBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 3;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,22 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of day 4, sized by the number of warehouse rows and columns
+ * @author Brian Dahlem
+ */
+public class Day4Benchmark extends DayBenchmark {
+    @Param({"100", "300", "1000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 4;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,22 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of day 5, sized by the number of fresh ranges and of ingredients
+ * @author Brian Dahlem
+ */
+public class Day5Benchmark extends DayBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 5;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
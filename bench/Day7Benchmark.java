@@ -0,0 +1,22 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of day 7, sized by the number of grid rows and columns
+ * @author Brian Dahlem
+ */
+public class Day7Benchmark extends DayBenchmark {
+    @Param({"142", "500", "2000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 7;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,42 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import common.Solver;
+import day8.Aoc8;
+
+/**
+ * Benchmarks of day 8, sized by the number of junction boxes
+ * @author Brian Dahlem
+ *
+ * Part one connects as many pairs as there are boxes (the same ratio as the
+ * puzzle), or the puzzle's 1000 pairs for the whole puzzle input. Both parts
+ * use up the prepared pair queue, so the input is prepared again before every
+ * invocation.
+ */
+public class Day8Benchmark extends DayBenchmark {
+    @Param({"250", "1000", "2000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 8;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+
+    @Override
+    protected Solver<?> createSolver() {
+        return size > 0 ? new Aoc8(size) : new Aoc8();
+    }
+
+    @Setup(Level.Invocation)
+    public void refresh() {
+        prepared = solver.prepare(data);
+    }
+}
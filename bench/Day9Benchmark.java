@@ -0,0 +1,22 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of day 9, sized by the number of red tiles
+ * @author Brian Dahlem
+ */
+public class Day9Benchmark extends DayBenchmark {
+    @Param({"100", "300", "1000"})
+    public int size;
+
+    @Override
+    protected int day() {
+        return 9;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,86 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import common.Input;
+import common.Solver;
+import harness.Solvers;
+
+/**
+ * Benchmarks of the prepare, part one and part two phases of a day's solver.
+ * @author Brian Dahlem
+ *
+ * Each day extends this with its day number and the input sizes to measure
+ * (see {@link BenchInput} for what a size means for each day). The prepared
+ * input types are private to each day's package, so they are handled here as
+ * plain Objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class DayBenchmark {
+    /** The day's solver */
+    protected Solver<Object> solver;
+    /** The raw input data */
+    protected Input data;
+    /** The input as prepared by the solver */
+    protected Object prepared;
+
+    /**
+     * Get the day being benchmarked
+     * @return the day number
+     */
+    protected abstract int day();
+
+    /**
+     * Get the size of input to benchmark
+     * @return the number of input records
+     */
+    protected abstract int size();
+
+    /**
+     * Create the day's solver
+     * @return the solver to benchmark
+     */
+    protected Solver<?> createSolver() {
+        return Solvers.forDay(day());
+    }
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        solver = (Solver<Object>) createSolver();
+        data = BenchInput.of(day(), size());
+        prepared = solver.prepare(data);
+    }
+
+    @Benchmark
+    public Object prepare() {
+        return solver.prepare(data);
+    }
+
+    @Benchmark
+    public long partOne() {
+        return solver.partOne(prepared).answer();
+    }
+
+    @Benchmark
+    public long partTwo() {
+        return solver.partTwo(prepared).answer();
+    }
+}
@@ -0,0 +1,16 @@
+package common;
+
+import java.util.List;
+
+/**
+ * A solver that chooses between engines for parts of its solve depending on
+ * the size of the input.
+ * @author Brian Dahlem
+ */
+public interface Adaptive {
+    /**
+     * Get the choices the solver makes
+     * @return each tradeoff between a brute-force and a scalable engine
+     */
+    List<Tradeoff<?, ?>> tradeoffs();
+}
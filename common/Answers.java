@@ -0,0 +1,10 @@
+package common;
+
+/**
+ * Both answers to a day's puzzle
+ * @author Brian Dahlem
+ *
+ * @param partOne the answer to part one
+ * @param partTwo the answer to part two
+ */
+public record Answers(long partOne, long partTwo) {}
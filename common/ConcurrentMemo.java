@@ -0,0 +1,140 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * A memo table from long keys to long values that many fork/join tasks can
+ * share, computing each value only once.
+ * @author Brian Dahlem
+ *
+ * The keys are spread over lock stripes, each a LongTable of finished values
+ * guarded by its own lock, so tasks working on different keys rarely wait on
+ * each other. Nothing ever blocks waiting for a value: a task asking for a key
+ * that is not known yet leaves a callback, which is called with the value
+ * once it is completed. Only the first task to ask for a key starts its
+ * computation, so every other task asking meanwhile shares that one result.
+ *
+ * Blocking would not be safe: a fork/join thread waiting to join one task
+ * runs other queued tasks meanwhile, and if one of those waited for a value
+ * that the thread itself was computing further down its stack, neither could
+ * ever finish. Like LongTable, ABSENT cannot be stored as a value, and keys
+ * pack with {@link LongTable#pack(int, int)}.
+ */
+public final class ConcurrentMemo {
+    /** What request returns for a key whose value is not known yet */
+    public static final long ABSENT = LongTable.ABSENT;
+
+    /** The number of lock stripes, a power of two */
+    private static final int STRIPES = 64;
+
+    /** The stripes holding the keys */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Create a memo table
+     * @param expected the number of keys expected, so the stripes rarely have to grow
+     */
+    public ConcurrentMemo(int expected) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(expected / STRIPES);
+        }
+    }
+
+    /**
+     * Ask for the value of a key. If it is not known yet, the callback is
+     * called with it once some task completes the key, and if no task has
+     * asked for the key before, its computation is started.
+     * @param key the key
+     * @param then called with the value, unless it is returned straight away
+     * @param compute starts the computation of a new key, which must end by
+     *                completing the key (usually by forking a task)
+     * @return the value, or ABSENT if it will be passed to the callback
+     */
+    public long request(long key, LongConsumer then, LongConsumer compute) {
+        Stripe stripe = stripe(key);
+        boolean first = false;
+
+        synchronized (stripe) {
+            long known = stripe.values.get(key);
+            if (known != ABSENT) {
+                return known;
+            }
+            List<LongConsumer> waiting = stripe.pending.get(key);
+            if (waiting == null) {
+                waiting = new ArrayList<>(2);
+                stripe.pending.put(key, waiting);
+                first = true;
+            }
+            waiting.add(then);
+        }
+
+        // Start outside the lock, so other keys of the stripe stay available
+        if (first) {
+            compute.accept(key);
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Store the value of a key, passing it to every task waiting for it
+     * @param key the key
+     * @param value the value
+     */
+    public void complete(long key, long value) {
+        Stripe stripe = stripe(key);
+        List<LongConsumer> waiting;
+        synchronized (stripe) {
+            stripe.values.put(key, value);
+            waiting = stripe.pending.remove(key);
+        }
+
+        if (waiting != null) {
+            for (LongConsumer then : waiting) {
+                then.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Count the values that have been completed
+     * @return the number of keys with a known value
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.values.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Find the stripe holding a key
+     * @param key the key
+     * @return the stripe
+     */
+    private Stripe stripe(long key) {
+        // Use the top bits of the hash, as LongTable uses the bottom ones within the stripe
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 58) & (STRIPES - 1)];
+    }
+
+    /**
+     * The keys of one stripe, guarded by the stripe's lock
+     */
+    private static final class Stripe {
+        /** The values that have been completed */
+        final LongTable values;
+        /** The callbacks waiting for each key that has been asked for but not completed */
+        final Map<Long, List<LongConsumer>> pending = new HashMap<>();
+
+        Stripe(int expected) {
+            values = new LongTable(expected);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package common;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * What the two engines of a {@link Tradeoff} cost, in nanoseconds per unit of
+ * the work each one does.
+ * @author Brian Dahlem
+ *
+ * The brute-force engine is modelled as costing the same for every unit of
+ * its work, the scalable engine as a fixed setup cost (building its index)
+ * plus a cost per unit. The figures are measured by java harness.Calibrate,
+ * which writes them to costs.properties; the file named by the aoc.costs
+ * system property is read instead if it is set. Tradeoffs missing from the
+ * file use the defaults built into them.
+ *
+ * @param bruteNanos the brute-force engine's cost per unit of its work
+ * @param scalableNanos the scalable engine's cost per unit of its work
+ * @param setupNanos the scalable engine's fixed cost
+ */
+public record CostModel(double bruteNanos, double scalableNanos, double setupNanos) {
+    /** The file of measured costs read when aoc.costs is not set */
+    public static final String DEFAULT_FILE = "costs.properties";
+
+    /**
+     * Decide whether the scalable engine is expected to be faster
+     * @param bruteWork the units of work the brute-force engine would do
+     * @param scalableWork the units of work the scalable engine would do
+     * @return true if the scalable engine is predicted to take less time
+     */
+    public boolean preferScalable(double bruteWork, double scalableWork) {
+        return bruteNanos * bruteWork > setupNanos + scalableNanos * scalableWork;
+    }
+
+    /**
+     * Get the measured costs of a tradeoff, if they have been measured
+     * @param name the name of the tradeoff
+     * @param defaults the costs to use if it has not been measured
+     * @return the measured costs, or the defaults
+     */
+    public static CostModel load(String name, CostModel defaults) {
+        Properties costs = Measured.COSTS;
+        String brute = costs.getProperty(name + ".brute");
+        String scalable = costs.getProperty(name + ".scalable");
+        String setup = costs.getProperty(name + ".setup");
+        if (brute == null || scalable == null || setup == null) {
+            return defaults;
+        }
+
+        try {
+            return new CostModel(Double.parseDouble(brute), Double.parseDouble(scalable), Double.parseDouble(setup));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Bad costs for " + name + " in " + Measured.file(), e);
+        }
+    }
+
+    /**
+     * The measured costs, read the first time a tradeoff needs them
+     */
+    private static final class Measured {
+        /** The costs of every measured tradeoff */
+        static final Properties COSTS = read();
+
+        /**
+         * Find the file of measured costs
+         * @return the file named by aoc.costs, or costs.properties
+         */
+        static Path file() {
+            return Path.of(System.getProperty("aoc.costs", DEFAULT_FILE));
+        }
+
+        /**
+         * Read the file of measured costs
+         * @return the costs, or none if the file does not exist
+         */
+        private static Properties read() {
+            Properties costs = new Properties();
+            if (Files.isRegularFile(file())) {
+                try (Reader reader = Files.newBufferedReader(file())) {
+                    costs.load(reader);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unable to read " + file(), e);
+                }
+            }
+            return costs;
+        }
+    }
+}
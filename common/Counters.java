@@ -0,0 +1,108 @@
+package common;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named counts of what the solvers do on their hot paths (memo hits, queue
+ * pushes, edges tested and so on), to explain the timings.
+ * @author Brian Dahlem
+ *
+ * Counting is switched on with the aoc.counters system property (e.g.
+ * -Daoc.counters=on). Solvers only touch a counter inside
+ * {@code if (Counters.ENABLED)}; since that is a constant, the JIT removes
+ * the counting entirely when it is off. Counters can be updated from any
+ * number of threads, and inner loops should count into a local variable and
+ * add it once, rather than updating the counter for every step.
+ */
+public final class Counters {
+    /** Whether counting is switched on, fixed when the JVM starts */
+    public static final boolean ENABLED = isEnabled(System.getProperty("aoc.counters"));
+
+    /** Every counter, in order of name */
+    private static final Map<String, Counter> REGISTRY = new ConcurrentSkipListMap<>();
+
+    private Counters() {}
+
+    /**
+     * Get a counter, registering it if it is new
+     * @param name the name of the counter, starting with its day, e.g. day3.memo.hits
+     * @return the counter
+     */
+    public static Counter counter(String name) {
+        return REGISTRY.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Read every counter
+     * @return the count of each counter, in order of name
+     */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Counter> counter : REGISTRY.entrySet()) {
+            counts.put(counter.getKey(), counter.getValue().sum());
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Set every counter back to zero
+     */
+    public static void reset() {
+        for (Counter counter : REGISTRY.values()) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Decide whether a value of the aoc.counters property switches counting on
+     * @param value the value, or null if the property is not set
+     * @return true for "on" or "true"
+     */
+    private static boolean isEnabled(String value) {
+        return value != null && (value.equalsIgnoreCase("on") || value.equalsIgnoreCase("true"));
+    }
+
+    /**
+     * One count, which many threads can add to at once
+     */
+    public static final class Counter {
+        /** The count, spread over cells so that threads do not contend */
+        private final LongAdder count = new LongAdder();
+
+        private Counter() {}
+
+        /**
+         * Count one more
+         */
+        public void increment() {
+            count.increment();
+        }
+
+        /**
+         * Count several more
+         * @param n how many more
+         */
+        public void add(long n) {
+            count.add(n);
+        }
+
+        /**
+         * Get the count
+         * @return the count so far
+         */
+        public long sum() {
+            return count.sum();
+        }
+
+        /**
+         * Set the count back to zero
+         */
+        void reset() {
+            count.reset();
+        }
+    }
+}
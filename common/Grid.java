@@ -0,0 +1,233 @@
+package common;
+
+/**
+ * A rectangle of single-byte cells, such as a map drawn in the puzzle input,
+ * stored in one flat array.
+ * @author Brian Dahlem
+ *
+ * The cells are kept row after row in a byte[], with a border of BORDER cells
+ * all the way around. A cell is addressed by its index in the array: the cell
+ * below is index + stride, the one to the right index + 1. Because of the
+ * border every in-grid cell has all eight neighbors, so walking to a neighbor
+ * with the offsets from {@link #neighbors()} never needs a bounds check; a
+ * step off the edge lands on a BORDER cell instead.
+ */
+public final class Grid {
+    /** The value of the cells around the outside of the grid */
+    public static final byte BORDER = 0;
+
+    /** The cells, row by row, including the border */
+    private final byte[] cells;
+    /** The number of columns inside the border */
+    private final int width;
+    /** The number of rows inside the border */
+    private final int height;
+    /** The distance in the array from a cell to the cell below it */
+    private final int stride;
+
+    private Grid(byte[] cells, int width, int height) {
+        this.cells = cells;
+        this.width = width;
+        this.height = height;
+        this.stride = width + 2;
+    }
+
+    /**
+     * Read a grid from the lines of an input up to the first blank line
+     * @param input the input to read
+     * @return the grid
+     */
+    public static Grid of(Input input) {
+        Tokenizer tokens = Tokenizer.of(input);
+        return read(tokens, tokens.countLines());
+    }
+
+    /**
+     * Read a grid from the next lines of a tokenizer, leaving the cursor on
+     * the line after it. The grid is as wide as its first line; shorter lines
+     * are filled out with BORDER cells.
+     * @param tokens the tokenizer at the start of the grid's first line
+     * @param rows the number of lines in the grid
+     * @return the grid
+     */
+    public static Grid read(Tokenizer tokens, int rows) {
+        int width = rows > 0 ? tokens.lineLength() : 0;
+        int stride = width + 2;
+        byte[] cells = new byte[stride * (rows + 2)];
+
+        for (int row = 0; row < rows; row++) {
+            tokens.copyLine(cells, (row + 1) * stride + 1, width);
+            tokens.nextLine();
+        }
+
+        return new Grid(cells, width, rows);
+    }
+
+    /**
+     * Make an independent copy of the grid
+     * @return a grid holding the same cells
+     */
+    public Grid copy() {
+        return new Grid(cells.clone(), width, height);
+    }
+
+    /**
+     * Copy the grid's cells into another grid, so that repeated copies can
+     * reuse the same array
+     * @param into a grid to overwrite, or null
+     * @return into, holding the same cells as this grid, or a new copy if into
+     *         is null or a different size
+     */
+    public Grid copy(Grid into) {
+        if (into == null || into.width != width || into.height != height) {
+            return copy();
+        }
+        System.arraycopy(cells, 0, into.cells, 0, cells.length);
+        return into;
+    }
+
+    /**
+     * Get the number of columns in the grid
+     * @return the width, not counting the border
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Get the number of rows in the grid
+     * @return the height, not counting the border
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Get the distance between vertically adjacent cells
+     * @return the number of array slots in one row, including the border
+     */
+    public int stride() {
+        return stride;
+    }
+
+    /**
+     * Find the index of a cell. Rows and columns from -1 to height and width
+     * address the border.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the cell's index
+     */
+    public int index(int row, int col) {
+        return (row + 1) * stride + col + 1;
+    }
+
+    /**
+     * Find the row a cell is in
+     * @param index the cell's index
+     * @return the row, or -1 or height for the border
+     */
+    public int row(int index) {
+        return index / stride - 1;
+    }
+
+    /**
+     * Find the column a cell is in
+     * @param index the cell's index
+     * @return the column, or -1 or width for the border
+     */
+    public int col(int index) {
+        return index % stride - 1;
+    }
+
+    /**
+     * Get the value of a cell
+     * @param index the cell's index
+     * @return the cell's value
+     */
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Get the value of a cell
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the cell's value
+     */
+    public byte get(int row, int col) {
+        return cells[index(row, col)];
+    }
+
+    /**
+     * Change the value of a cell
+     * @param index the cell's index
+     * @param value the new value
+     */
+    public void set(int index, byte value) {
+        cells[index] = value;
+    }
+
+    /**
+     * Find the first cell holding a value, reading row by row
+     * @param value the value to look for
+     * @return the cell's index, or -1 if no cell holds the value
+     */
+    public int find(byte value) {
+        for (int i = stride; i < cells.length - stride; i++) {
+            if (cells[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Count the cells holding a value
+     * @param value the value to count
+     * @return the number of cells inside the border holding the value
+     */
+    public int count(byte value) {
+        int count = 0;
+        for (int i = stride; i < cells.length - stride; i++) {
+            if (cells[i] == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count the neighbors of a cell holding a value
+     * @param index the cell's index
+     * @param offsets the offsets of the neighbors to check
+     * @param value the value to count
+     * @return the number of neighbors holding the value
+     */
+    public int count(int index, int[] offsets, byte value) {
+        int count = 0;
+        for (int offset : offsets) {
+            if (cells[index + offset] == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the offsets from a cell to its eight neighbors
+     * @return the offsets, clockwise from the cell above and to the left
+     */
+    public int[] neighbors() {
+        return new int[] {
+            -stride - 1, -stride, -stride + 1, 1, stride + 1, stride, stride - 1, -1
+        };
+    }
+
+    /**
+     * Get the offsets from a cell to the four cells beside it
+     * @return the offsets, clockwise from the cell above
+     */
+    public int[] sides() {
+        return new int[] { -stride, 1, stride, -1 };
+    }
+}
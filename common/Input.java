@@ -0,0 +1,234 @@
+package common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Raw puzzle input held as bytes, either memory mapped straight from a file or
+ * wrapped around an array, with zero-copy views of its lines.
+ * @author Brian Dahlem
+ *
+ * Files are mapped rather than read so that even inputs of several gigabytes
+ * never have to be copied onto the heap. A single mapping is limited to 2GB,
+ * so larger files are mapped in chunks that each end on a line boundary; no
+ * line ever spans two chunks.
+ */
+public final class Input {
+    /** The largest chunk of a file mapped at once */
+    static final long MAX_CHUNK = Integer.MAX_VALUE;
+
+    /** The bytes of the input, each chunk ending at the end of a line */
+    private final ByteBuffer[] chunks;
+
+    private Input(ByteBuffer[] chunks) {
+        this.chunks = chunks;
+    }
+
+    /**
+     * Memory map an input file
+     * @param file the file to map
+     * @return the file's contents
+     */
+    public static Input map(Path file) throws IOException {
+        return map(file, MAX_CHUNK);
+    }
+
+    /**
+     * Memory map an input file in chunks of at most a given size
+     * @param file the file to map
+     * @param maxChunk the most bytes to map at once
+     * @return the file's contents
+     */
+    static Input map(Path file, long maxChunk) throws IOException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long pos = 0;
+            while (pos < size) {
+                long length = Math.min(maxChunk, size - pos);
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, pos, length);
+
+                // Cut all but the last chunk after its last complete line
+                if (pos + length < size) {
+                    int end = (int) length - 1;
+                    while (end >= 0 && chunk.get(end) != '\n') {
+                        end--;
+                    }
+                    if (end < 0) {
+                        throw new IOException("Line longer than " + maxChunk + " bytes in " + file);
+                    }
+                    length = end + 1;
+                    chunk.limit((int) length);
+                }
+
+                chunks.add(chunk);
+                pos += length;
+            }
+        }
+
+        return new Input(chunks.toArray(new ByteBuffer[0]));
+    }
+
+    /**
+     * Wrap input data that is already in memory
+     * @param data the input data
+     * @return the input
+     */
+    public static Input of(byte[] data) {
+        return new Input(new ByteBuffer[] { ByteBuffer.wrap(data) });
+    }
+
+    /**
+     * Wrap input data that is already in memory
+     * @param data the input data
+     * @return the input
+     */
+    public static Input of(String data) {
+        return of(data.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Get the chunks holding the input, each ending at the end of a line
+     * @return the chunks of the input
+     */
+    ByteBuffer[] chunks() {
+        return chunks;
+    }
+
+    /**
+     * Split the input into pieces of about the same size, each ending at the
+     * end of a line, without copying any bytes
+     * @param parts the number of pieces wanted
+     * @return views of consecutive runs of whole lines, in order; fewer than
+     *         parts if the lines are too long or too few to go round
+     */
+    public List<Input> split(int parts) {
+        long target = Math.max(1, (size() + parts - 1) / parts);
+        List<Input> pieces = new ArrayList<>();
+
+        for (ByteBuffer chunk : chunks) {
+            int limit = chunk.limit();
+            int start = 0;
+            while (start < limit) {
+                // Carry the piece on to just past the end of the line it stops in
+                int end = (int) Math.min(limit, start + target) - 1;
+                while (end < limit - 1 && chunk.get(end) != '\n') {
+                    end++;
+                }
+                pieces.add(new Input(new ByteBuffer[] { chunk.slice(start, end + 1 - start) }));
+                start = end + 1;
+            }
+        }
+
+        return pieces;
+    }
+
+    /**
+     * Get the size of the input
+     * @return the number of bytes in the input
+     */
+    public long size() {
+        long size = 0;
+        for (ByteBuffer chunk : chunks) {
+            size += chunk.limit();
+        }
+        return size;
+    }
+
+    /**
+     * Hash the bytes of the input
+     * @return the SHA-256 digest of the input as lowercase hex
+     */
+    public String sha256() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ByteBuffer chunk : chunks) {
+                digest.update(chunk.duplicate().rewind());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Break the input into lines, ignoring a final line terminator the way
+     * String.split does
+     * @return views of each line, without their terminators
+     */
+    public List<Line> lines() {
+        List<Line> lines = new ArrayList<>();
+
+        for (ByteBuffer chunk : chunks) {
+            int start = 0;
+            int limit = chunk.limit();
+            for (int i = 0; i < limit; i++) {
+                if (chunk.get(i) == '\n') {
+                    lines.add(Line.of(chunk, start, i));
+                    start = i + 1;
+                }
+            }
+            if (start < limit) {
+                lines.add(Line.of(chunk, start, limit));
+            }
+        }
+
+        // Trailing empty lines are dropped, just like String.split
+        while (!lines.isEmpty() && lines.get(lines.size() - 1).isEmpty()) {
+            lines.remove(lines.size() - 1);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Break the input into sections separated by blank lines
+     * @return the lines of each section
+     */
+    public List<List<Line>> sections() {
+        List<List<Line>> sections = new ArrayList<>();
+        List<Line> section = new ArrayList<>();
+
+        for (Line line : lines()) {
+            if (line.isEmpty()) {
+                if (!section.isEmpty()) {
+                    sections.add(section);
+                    section = new ArrayList<>();
+                }
+            }
+            else {
+                section.add(line);
+            }
+        }
+        if (!section.isEmpty()) {
+            sections.add(section);
+        }
+
+        return sections;
+    }
+
+    /**
+     * Copy the whole input into a string
+     * @return the input as text
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (ByteBuffer chunk : chunks) {
+            byte[] bytes = new byte[chunk.limit()];
+            chunk.get(0, bytes);
+            text.append(new String(bytes, StandardCharsets.US_ASCII));
+        }
+        return text.toString();
+    }
+}
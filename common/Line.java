@@ -0,0 +1,199 @@
+package common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A view of part of one line of an {@link Input}, without copying its bytes.
+ * @author Brian Dahlem
+ *
+ * Puzzle inputs are plain ASCII so each byte is one character. A line (or any
+ * field cut from it) is only copied into a String when toString is called.
+ */
+public final class Line implements CharSequence {
+    /** The bytes holding the line */
+    private final ByteBuffer buffer;
+    /** The index of the first byte of the line in the buffer */
+    private final int start;
+    /** The index just past the last byte of the line in the buffer */
+    private final int end;
+
+    private Line(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Create a view of a line, dropping the carriage return of a CRLF ending
+     * @param buffer the bytes holding the line
+     * @param start the index of the first byte of the line
+     * @param end the index of the line's terminator (or the end of the data)
+     * @return the line
+     */
+    static Line of(ByteBuffer buffer, int start, int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        return new Line(buffer, start, end);
+    }
+
+    /** @return the bytes holding the line */
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /** @return the index of the first byte of the line in the buffer */
+    int start() {
+        return start;
+    }
+
+    /** @return the index just past the last byte of the line in the buffer */
+    int end() {
+        return end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * Get a byte of the line
+     * @param index the position in the line
+     * @return the byte at that position
+     * @throws IndexOutOfBoundsException if the position is not within the line
+     */
+    public byte byteAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length());
+        }
+        return buffer.get(start + index);
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) byteAt(index);
+    }
+
+    @Override
+    public Line subSequence(int from, int to) {
+        if (from < 0 || to > length() || from > to) {
+            throw new IndexOutOfBoundsException("[" + from + ", " + to + ") of " + length());
+        }
+        return new Line(buffer, start + from, start + to);
+    }
+
+    /**
+     * Get the rest of the line from a position
+     * @param from the position of the first character to keep
+     * @return a view of the rest of the line
+     */
+    public Line subSequence(int from) {
+        return subSequence(from, length());
+    }
+
+    /**
+     * Find the first occurrence of a character
+     * @param c the character to find
+     * @return its position in the line, or -1 if it does not appear
+     */
+    public int indexOf(char c) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == c) {
+                return i - start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Remove leading and trailing spaces and tabs
+     * @return a view of the line without surrounding blanks
+     */
+    public Line strip() {
+        int from = start;
+        int to = end;
+        while (from < to && isBlank(buffer.get(from))) {
+            from++;
+        }
+        while (to > from && isBlank(buffer.get(to - 1))) {
+            to--;
+        }
+        return new Line(buffer, from, to);
+    }
+
+    /**
+     * Break the line into fields at every occurrence of a delimiter
+     * @param delimiter the character separating the fields
+     * @return views of each field (empty fields are kept)
+     */
+    public List<Line> split(char delimiter) {
+        List<Line> fields = new ArrayList<>();
+        int from = start;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == delimiter) {
+                fields.add(new Line(buffer, from, i));
+                from = i + 1;
+            }
+        }
+        fields.add(new Line(buffer, from, end));
+        return fields;
+    }
+
+    /**
+     * Break the line into words separated by runs of spaces and tabs
+     * @return views of each word (never empty)
+     */
+    public List<Line> words() {
+        List<Line> words = new ArrayList<>();
+        int i = start;
+        while (i < end) {
+            while (i < end && isBlank(buffer.get(i))) {
+                i++;
+            }
+            int from = i;
+            while (i < end && !isBlank(buffer.get(i))) {
+                i++;
+            }
+            if (i > from) {
+                words.add(new Line(buffer, from, i));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Check whether the line holds exactly the given text
+     * @param text the text to compare with
+     * @return true if every character matches
+     */
+    public boolean contentEquals(String text) {
+        if (text.length() != length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer.get(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy the line into a String
+     * @return the text of the line
+     */
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length()];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
@@ -0,0 +1,183 @@
+package common;
+
+import java.util.Arrays;
+
+/**
+ * A hash table from long keys to long values, stored in primitive arrays.
+ * @author Brian Dahlem
+ *
+ * Made for memoizing the recursive solvers: a lookup or an insert never
+ * allocates, unlike a HashMap whose every lookup needs a key object and whose
+ * every value is a boxed Long. Keys are found by open addressing with linear
+ * probing in a power-of-two table that doubles when it is half full.
+ *
+ * Small states pack into a single key with {@link #pack(int, int)}, e.g. a
+ * grid cell's row and column or a node and a bit set of what has been seen.
+ * get returns ABSENT for a missing key, so ABSENT cannot be stored as a value.
+ */
+public final class LongTable {
+    /** What get returns for a key that is not in the table */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    /** Marks an empty slot; a key equal to it is stored outside the arrays */
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    /** The key in each slot, or EMPTY */
+    private long[] keys;
+    /** The value in each slot */
+    private long[] values;
+    /** The number of slots minus one, for wrapping an index */
+    private int mask;
+    /** The number of keys stored in the arrays */
+    private int size;
+    /** The value stored for the EMPTY key, or ABSENT */
+    private long emptyKeyValue = ABSENT;
+
+    /**
+     * Create a table
+     * @param expected the number of keys expected, so the table rarely has to grow
+     */
+    public LongTable(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(8, expected) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Combine two ints into one key
+     * @param high the int stored in the upper half of the key
+     * @param low the int stored in the lower half of the key
+     * @return the key
+     */
+    public static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the upper int of a packed key
+     * @param key the key
+     * @return the high int passed to pack
+     */
+    public static int high(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Get the lower int of a packed key
+     * @param key the key
+     * @return the low int passed to pack
+     */
+    public static int low(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Look up the value of a key
+     * @param key the key
+     * @return the value, or ABSENT if the key is not in the table
+     */
+    public long get(long key) {
+        if (key == EMPTY) {
+            return emptyKeyValue;
+        }
+
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == EMPTY) {
+                return ABSENT;
+            }
+        }
+    }
+
+    /**
+     * Store the value of a key, replacing any value it already had
+     * @param key the key
+     * @param value the value
+     */
+    public void put(long key, long value) {
+        if (value == ABSENT) {
+            throw new IllegalArgumentException("ABSENT cannot be stored in a LongTable");
+        }
+        if (key == EMPTY) {
+            if (emptyKeyValue == ABSENT) {
+                size++;
+            }
+            emptyKeyValue = value;
+            return;
+        }
+
+        int i = slot(key);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        values[i] = value;
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            if (++size > keys.length / 2) {
+                grow();
+            }
+        }
+    }
+
+    /**
+     * Count the keys in the table
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove every key, keeping the table's capacity so it can be reused
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        emptyKeyValue = ABSENT;
+        size = 0;
+    }
+
+    /**
+     * Find the slot where the search for a key starts
+     * @param key the key
+     * @return the slot index
+     */
+    private int slot(long key) {
+        // Fibonacci hashing spreads packed keys, whose halves are small, over the table
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Create empty arrays
+     * @param capacity the number of slots, a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Double the number of slots and put every key back
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key != EMPTY) {
+                int i = slot(key);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
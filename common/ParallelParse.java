@@ -0,0 +1,100 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Parse an input of one record per line on several cores at once.
+ * @author Brian Dahlem
+ *
+ * The input is split into pieces of whole lines, each piece is parsed into
+ * its own array by a fork/join task, and the arrays are stitched together in
+ * the order of the pieces, so the records come out exactly as a single
+ * tokenizer would have read them. Like Tokenizer.countLines, the records stop
+ * at the first blank line; pieces after the one holding it are ignored.
+ *
+ * The tasks run in the fork/join pool of the calling thread if it has one (so
+ * a day scheduled on a pool shares that pool's workers), otherwise in the
+ * common pool. Inputs smaller than PARALLEL_SIZE are not worth the tasks and
+ * are parsed on the calling thread.
+ */
+public final class ParallelParse {
+    /** The smallest input, in bytes, that is split across tasks */
+    static final long PARALLEL_SIZE = 1 << 20;
+    /** The pieces to split an input into for each thread of the pool, so that uneven pieces balance out */
+    private static final int PIECES_PER_THREAD = 4;
+
+    private ParallelParse() {}
+
+    /**
+     * Parse every line of an input, up to the first blank line, into a record
+     * @param input the input, one record per line
+     * @param parser reads one record from the line under the tokenizer's cursor
+     * @param newArray creates an array of records of a given length
+     * @return the records, in the order of their lines
+     */
+    public static <T> T[] lines(Input input, Function<Tokenizer, T> parser, IntFunction<T[]> newArray) {
+        if (input.size() < PARALLEL_SIZE) {
+            return parse(input, parser, newArray).records();
+        }
+
+        int threads = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism()
+                                                    : ForkJoinPool.getCommonPoolParallelism();
+        List<ForkJoinTask<Piece<T>>> tasks = new ArrayList<>();
+        for (Input piece : input.split(threads * PIECES_PER_THREAD)) {
+            tasks.add(ForkJoinTask.adapt(() -> parse(piece, parser, newArray)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        // Keep the pieces up to the one that ended at a blank line
+        List<Piece<T>> pieces = new ArrayList<>();
+        int total = 0;
+        for (ForkJoinTask<Piece<T>> task : tasks) {
+            Piece<T> piece = task.join();
+            pieces.add(piece);
+            total += piece.records().length;
+            if (piece.stopped()) {
+                break;
+            }
+        }
+
+        // Stitch the records together in order
+        T[] records = newArray.apply(total);
+        int at = 0;
+        for (Piece<T> piece : pieces) {
+            System.arraycopy(piece.records(), 0, records, at, piece.records().length);
+            at += piece.records().length;
+        }
+
+        return records;
+    }
+
+    /**
+     * Parse every line of one piece of an input, up to the first blank line
+     * @param piece the piece of the input
+     * @param parser reads one record from the line under the tokenizer's cursor
+     * @param newArray creates an array of records of a given length
+     * @return the records of the piece
+     */
+    private static <T> Piece<T> parse(Input piece, Function<Tokenizer, T> parser, IntFunction<T[]> newArray) {
+        Tokenizer tokens = Tokenizer.of(piece);
+        T[] records = newArray.apply(tokens.countLines());
+        for (int i = 0; i < records.length; i++) {
+            records[i] = parser.apply(tokens);
+            tokens.nextLine();
+        }
+
+        return new Piece<>(records, !tokens.atEnd());
+    }
+
+    /**
+     * The records parsed from one piece of an input
+     * @param records the records, in the order of their lines
+     * @param stopped whether the piece ended at a blank line before its end
+     */
+    private record Piece<T>(T[] records, boolean stopped) {}
+}
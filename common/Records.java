@@ -0,0 +1,122 @@
+package common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Read a stream of records in blocks, each block ending at the end of a
+ * record, so the records can be processed as they arrive.
+ * @author Brian Dahlem
+ *
+ * Records end at a newline or at an extra separator (such as the commas
+ * between day 2's ranges, which are all on one line). Each call to next reads
+ * whatever the stream has available, cuts it after the last complete record
+ * and returns a tokenizer over those records; the unfinished record after the
+ * cut is carried over into the next block. The same buffer is reused for
+ * every block, so memory stays fixed at the size of the largest block no
+ * matter how long the stream is, and a block's tokenizer must be finished
+ * with before the next block is read.
+ *
+ * A block only ever holds whole records. When the separator is a newline a
+ * block holds whole lines, so nextLine and atEnd work as they do over an
+ * Input. When it is something else, a line may be cut between records and
+ * carried on in the next block.
+ */
+public final class Records {
+    /** The size of the buffer to start with */
+    static final int BLOCK_SIZE = 1 << 16;
+
+    /** Where the records come from */
+    private final InputStream in;
+    /** The byte ending a record, in addition to a newline */
+    private final byte separator;
+    /** The bytes read but not yet returned in a block */
+    private byte[] buffer;
+    /** A view of the buffer that tokenizers read blocks through */
+    private ByteBuffer view;
+    /** The number of bytes held in the buffer */
+    private int filled;
+    /** The number of bytes at the front of the buffer that were returned by the last block */
+    private int used;
+    /** Whether the stream has been read to its end */
+    private boolean ended;
+
+    private Records(InputStream in, byte separator, int blockSize) {
+        this.in = in;
+        this.separator = separator;
+        this.buffer = new byte[blockSize];
+        this.view = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Read records that are one per line
+     * @param in the stream of records
+     * @return the record reader
+     */
+    public static Records of(InputStream in) {
+        return of(in, '\n');
+    }
+
+    /**
+     * Read records that end at a separator or a newline
+     * @param in the stream of records
+     * @param separator the byte ending a record
+     * @return the record reader
+     */
+    public static Records of(InputStream in, char separator) {
+        return new Records(in, (byte) separator, BLOCK_SIZE);
+    }
+
+    /**
+     * Read the next block of records
+     * @return a tokenizer over the block, or null once every record has been read
+     */
+    public Tokenizer next() throws IOException {
+        // Move the unfinished record left by the last block to the front
+        System.arraycopy(buffer, used, buffer, 0, filled - used);
+        filled -= used;
+        used = 0;
+
+        int searched = 0;
+        while (!ended) {
+            // A record longer than the buffer makes it grow
+            if (filled == buffer.length) {
+                byte[] larger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, larger, 0, filled);
+                buffer = larger;
+                view = ByteBuffer.wrap(buffer);
+            }
+
+            int read = in.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                ended = true;
+                break;
+            }
+            filled += read;
+
+            // Cut after the last record that is complete
+            for (int i = filled - 1; i >= searched; i--) {
+                if (buffer[i] == '\n' || buffer[i] == separator) {
+                    used = i + 1;
+                    break;
+                }
+            }
+            if (used > 0) {
+                break;
+            }
+            searched = filled;
+        }
+
+        // At the end of the stream whatever is left is the last record
+        if (ended) {
+            used = filled;
+        }
+        if (used == 0) {
+            return null;
+        }
+
+        view.clear().limit(used);
+        return Tokenizer.of(view);
+    }
+}
@@ -0,0 +1,16 @@
+package common;
+
+/**
+ * A solver whose engines replaced an earlier, simpler implementation, which
+ * is kept as a reference to check the new engines against and to measure
+ * how much faster they are.
+ * @author Brian Dahlem
+ */
+public interface Referenced {
+    /**
+     * Get the earlier implementation
+     * @return a solver running the reference code, which must give the same
+     *         answers as this solver for every input
+     */
+    Solver<?> reference();
+}
@@ -0,0 +1,56 @@
+package common;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The answer to one part of a puzzle, along with any figures the solver
+ * reports about how it got there.
+ * @author Brian Dahlem
+ *
+ * Diagnostics are named counts such as the number of passes a simulation
+ * took; they are shown next to the answer but never change it. Solvers
+ * return results rather than printing them, so the caller decides what (if
+ * anything) to print and when.
+ *
+ * @param answer the answer
+ * @param diagnostics named figures about the solve, in the order they were added
+ */
+public record Result(long answer, Map<String, Long> diagnostics) {
+    /**
+     * Get a result with no diagnostics
+     * @param answer the answer
+     * @return the result
+     */
+    public static Result of(long answer) {
+        return new Result(answer, Map.of());
+    }
+
+    /**
+     * Add a diagnostic to the result
+     * @param name the name of the figure
+     * @param value the figure
+     * @return a result with the same answer and the added diagnostic
+     */
+    public Result with(String name, long value) {
+        Map<String, Long> more = new LinkedHashMap<>(diagnostics);
+        more.put(name, value);
+        return new Result(answer, Collections.unmodifiableMap(more));
+    }
+
+    /**
+     * Describe the result the way the solvers have always printed it
+     * @return the answer in braces, followed by any diagnostics
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{" + answer + "}");
+        String separator = " (";
+        for (Map.Entry<String, Long> diagnostic : diagnostics.entrySet()) {
+            text.append(separator).append(diagnostic.getKey()).append('=').append(diagnostic.getValue());
+            separator = ", ";
+        }
+        return diagnostics.isEmpty() ? text.toString() : text.append(')').toString();
+    }
+}
@@ -0,0 +1,46 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A solver whose answers are sums over independent units of its input (such
+ * as lines or ranges), so that an input can be split into shards that are
+ * solved separately, even in different processes, and their answers added.
+ * @author Brian Dahlem
+ */
+public interface Shardable {
+    /**
+     * Split an input into shards
+     * @param input the whole input
+     * @param shards the most shards to make
+     * @return the shards, each a complete input in the same format; the
+     *         answers to the whole input are the sums of the shards' answers
+     */
+    List<String> shard(Input input, int shards);
+
+    /**
+     * Split units into shards of nearly equal numbers of units, keeping them
+     * in order
+     * @param header text every shard starts with, such as shapes the units refer to
+     * @param units the units
+     * @param separator what goes between units in a shard
+     * @param shards the most shards to make
+     * @return the shards, each ending with a newline; none if there are no units
+     */
+    static List<String> split(String header, List<? extends CharSequence> units, String separator, int shards) {
+        List<String> split = new ArrayList<>();
+        int count = Math.min(shards, units.size());
+        for (int s = 0; s < count; s++) {
+            int from = (int) ((long) units.size() * s / count);
+            int to = (int) ((long) units.size() * (s + 1) / count);
+
+            StringBuilder shard = new StringBuilder(header);
+            for (int u = from; u < to; u++) {
+                shard.append(u == from ? "" : separator).append(units.get(u));
+            }
+            split.add(shard.append('\n').toString());
+        }
+        return split;
+    }
+}
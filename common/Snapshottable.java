@@ -0,0 +1,91 @@
+package common;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A solver whose prepared data can be written to a compact binary snapshot
+ * and read back without parsing the text input again, so later runs of the
+ * same input can memory map the snapshot and skip straight to the solve.
+ * @author Brian Dahlem
+ *
+ * Snapshots are written with {@link DataOutput} and read from a big-endian
+ * {@link ByteBuffer}, so numbers come back in the order they were written.
+ * Arrays are stored as their length followed by their elements.
+ *
+ * @param <T> the type of the prepared input data
+ */
+public interface Snapshottable<T> extends Solver<T> {
+    /**
+     * Write prepared data to a snapshot
+     * @param prepared data just returned by prepare, before either part has run
+     * @param out where to write the snapshot
+     * @throws IllegalArgumentException if the data cannot be stored this way
+     */
+    void save(T prepared, DataOutput out) throws IOException;
+
+    /**
+     * Read prepared data back from a snapshot, as prepare would have made it
+     * @param in the snapshot, positioned where save started writing
+     * @return the prepared input
+     */
+    T load(ByteBuffer in);
+
+    /**
+     * Get the version of the snapshot layout. Snapshots are only read back by
+     * a solver with the same snapshot version, so it must change whenever
+     * save starts writing something different.
+     * @return the version of the layout
+     */
+    default int snapshotVersion() {
+        return 1;
+    }
+
+    /**
+     * Write an array of ints
+     * @param out where to write it
+     * @param values the array
+     */
+    static void writeInts(DataOutput out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Read an array of ints
+     * @param in the snapshot, positioned at the array
+     * @return the array
+     */
+    static int[] readInts(ByteBuffer in) {
+        int[] values = new int[in.getInt()];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + 4 * values.length);
+        return values;
+    }
+
+    /**
+     * Write a string as UTF-8
+     * @param out where to write it
+     * @param value the string
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string
+     * @param in the snapshot, positioned at the string
+     * @return the string
+     */
+    static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
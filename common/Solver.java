@@ -0,0 +1,49 @@
+package common;
+
+/**
+ * A solution to one day of Advent of Code.
+ * @author Brian Dahlem
+ *
+ * The raw input is converted into a prepared structure once, then each part
+ * of the puzzle is solved from that structure. Some days consume their prepared
+ * data while solving (and part two may continue from where part one left off),
+ * so callers that repeat a solve should prepare fresh data for every run.
+ * The parts return their answers without printing them, so they can be timed
+ * and called from other code without console output getting in the way.
+ *
+ * @param <T> the type of the prepared input data
+ */
+public interface Solver<T> {
+    /**
+     * Parse the raw input data into useful structures
+     * @param input raw input data
+     * @return the prepared input
+     */
+    T prepare(Input input);
+
+    /**
+     * Solve the first part of the puzzle
+     * @param input the prepared input
+     * @return the answer to part one
+     */
+    Result partOne(T input);
+
+    /**
+     * Solve the second part of the puzzle
+     * @param input the prepared input
+     * @return the answer to part two
+     */
+    Result partTwo(T input);
+
+    /**
+     * Get the version of the solver's answers. Cached answers are only reused
+     * by a solver with the same version and the same compiled code (its
+     * package's classes and the common ones), so a change to the code is
+     * noticed without touching the version. Bump it when a solver's answers
+     * change for any other reason, or to mark a change to its answers.
+     * @return the version of the solver
+     */
+    default int version() {
+        return 1;
+    }
+}
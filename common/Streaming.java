@@ -0,0 +1,23 @@
+package common;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A solver that can work through its input as it arrives rather than
+ * loading all of it first.
+ * @author Brian Dahlem
+ *
+ * Streaming solvers read their records with {@link Records} and keep only the
+ * state the puzzle needs (a running total, a set of ranges, a graph), so an
+ * input of any size can be piped through them without being stored on disk
+ * or on the heap. Both parts are answered in the one pass.
+ */
+public interface Streaming {
+    /**
+     * Solve both parts of the puzzle reading the input from a stream
+     * @param in the puzzle input
+     * @return the answers to both parts
+     */
+    Answers stream(InputStream in) throws IOException;
+}
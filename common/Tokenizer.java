@@ -0,0 +1,423 @@
+package common;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read numbers, words and delimiters straight from the bytes of an input.
+ * @author Brian Dahlem
+ *
+ * A tokenizer is a cursor that moves forward through the input one line at a
+ * time. Numbers are accumulated digit by digit from the bytes under the cursor,
+ * so reading them never creates a String, a split array or a view object; the
+ * only allocations are the arrays a caller asks for. Reading stops at the end
+ * of the current line; nextLine moves on to the next one.
+ *
+ * The readers skip whatever separates one token from the next, so "12-34",
+ * "12,34" and "12 x 34" all read as two numbers. nextLong treats a '-' right
+ * before a digit as a sign; nextUnsigned treats it as a delimiter, as it is in
+ * ranges like "12-34".
+ */
+public final class Tokenizer {
+    /** The bytes of the input, each chunk ending at the end of a line */
+    private final ByteBuffer[] chunks;
+    /** The index of the chunk under the cursor */
+    private int chunk;
+    /** The chunk under the cursor */
+    private ByteBuffer buffer;
+    /** The position of the cursor in the chunk */
+    private int pos;
+    /** The index just past the last readable byte of the chunk */
+    private int limit;
+
+    private Tokenizer(ByteBuffer[] chunks, int pos, int limit) {
+        this.chunks = chunks;
+        this.chunk = 0;
+        this.buffer = chunks[0];
+        this.pos = pos;
+        this.limit = limit;
+    }
+
+    /**
+     * Read a whole input from its first line
+     * @param input the input to read
+     * @return a tokenizer at the start of the input
+     */
+    public static Tokenizer of(Input input) {
+        ByteBuffer[] chunks = input.chunks();
+        if (chunks.length == 0) {
+            chunks = new ByteBuffer[] { ByteBuffer.allocate(0) };
+        }
+        return new Tokenizer(chunks, 0, chunks[0].limit());
+    }
+
+    /**
+     * Read a single line
+     * @param line the line to read
+     * @return a tokenizer at the start of the line
+     */
+    public static Tokenizer of(Line line) {
+        return new Tokenizer(new ByteBuffer[] { line.buffer() }, line.start(), line.end());
+    }
+
+    /**
+     * Read a block of whole lines held in a buffer
+     * @param buffer the buffer holding the block, starting at index 0
+     * @return a tokenizer at the start of the block
+     */
+    static Tokenizer of(ByteBuffer buffer) {
+        return new Tokenizer(new ByteBuffer[] { buffer }, 0, buffer.limit());
+    }
+
+    /**
+     * Check whether the cursor has reached the end of the current line
+     * @return true if there is nothing left to read on the line
+     */
+    public boolean atLineEnd() {
+        return pos >= limit || isLineEnd(buffer.get(pos));
+    }
+
+    /**
+     * Check whether the cursor has reached the end of the input
+     * @return true if there is nothing left to read at all
+     */
+    public boolean atEnd() {
+        return pos >= limit && chunk == chunks.length - 1;
+    }
+
+    /**
+     * Move the cursor to the start of the next line, skipping whatever is
+     * left of the current one
+     */
+    public void nextLine() {
+        while (pos < limit && buffer.get(pos) != '\n') {
+            pos++;
+        }
+        if (pos < limit) {
+            pos++;
+        }
+
+        // Lines never span chunks, so the next line starts the next chunk
+        if (pos >= limit && chunk < chunks.length - 1) {
+            buffer = chunks[++chunk];
+            pos = 0;
+            limit = buffer.limit();
+        }
+    }
+
+    /**
+     * Count the lines from the cursor up to the next blank line (or the end of
+     * the input) without moving the cursor
+     * @return the number of lines in the current section
+     */
+    public int countLines() {
+        int count = 0;
+        int length = 0;
+
+        for (int c = chunk; c < chunks.length; c++) {
+            ByteBuffer bytes = chunks[c];
+            int end = c == chunk ? limit : bytes.limit();
+            for (int i = c == chunk ? pos : 0; i < end; i++) {
+                byte b = bytes.get(i);
+                if (b == '\n') {
+                    if (length == 0) {
+                        return count;
+                    }
+                    count++;
+                    length = 0;
+                }
+                else if (b != '\r') {
+                    length++;
+                }
+            }
+        }
+
+        return length > 0 ? count + 1 : count;
+    }
+
+    /**
+     * Count the bytes left on the current line without moving the cursor
+     * @return the number of bytes before the end of the line
+     */
+    public int lineLength() {
+        return lengthUntil('\n');
+    }
+
+    /**
+     * Count the bytes before a delimiter (or the end of the line) without
+     * moving the cursor
+     * @param delimiter the delimiter to stop at
+     * @return the number of bytes before the delimiter
+     */
+    public int lengthUntil(char delimiter) {
+        int i = pos;
+        while (i < limit && buffer.get(i) != delimiter && !isLineEnd(buffer.get(i))) {
+            i++;
+        }
+        return i - pos;
+    }
+
+    /**
+     * Look at the byte under the cursor without moving past it
+     * @return the next byte, or 0 at the end of the line
+     */
+    public byte peek() {
+        return atLineEnd() ? 0 : buffer.get(pos);
+    }
+
+    /**
+     * Read a single byte
+     * @return the next byte on the line
+     */
+    public byte next() {
+        if (atLineEnd()) {
+            throw new IllegalArgumentException("Unexpected end of line");
+        }
+        return buffer.get(pos++);
+    }
+
+    /**
+     * Copy the bytes left on the line into an array
+     * @param into the array to copy into
+     * @param offset where in the array to put the first byte
+     * @param max the most bytes to copy
+     * @return the number of bytes copied
+     */
+    public int copyLine(byte[] into, int offset, int max) {
+        int length = Math.min(lineLength(), max);
+        buffer.get(pos, into, offset, length);
+        pos += length;
+        return length;
+    }
+
+    /**
+     * Skip spaces and tabs
+     */
+    public void skipBlanks() {
+        while (pos < limit && isBlank(buffer.get(pos))) {
+            pos++;
+        }
+    }
+
+    /**
+     * Move the cursor just past the next occurrence of a delimiter on the line
+     * @param delimiter the delimiter to find
+     */
+    public void skipPast(char delimiter) {
+        while (!atLineEnd()) {
+            if (buffer.get(pos++) == delimiter) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Expected '" + delimiter + "'");
+    }
+
+    /**
+     * Count the occurrences of a byte on the rest of the line without moving
+     * the cursor
+     * @param c the byte to count
+     * @return the number of times it appears before the end of the line
+     */
+    public int count(char c) {
+        int count = 0;
+        for (int i = pos; i < limit && !isLineEnd(buffer.get(i)); i++) {
+            if (buffer.get(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count the numbers before a closing delimiter (or the end of the line)
+     * without moving the cursor
+     * @param close the delimiter ending the numbers
+     * @return the number of runs of digits before the delimiter
+     */
+    public int countNumbers(char close) {
+        int count = 0;
+        boolean inNumber = false;
+        for (int i = pos; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == close || isLineEnd(b)) {
+                break;
+            }
+            boolean digit = isDigit(b);
+            if (digit && !inNumber) {
+                count++;
+            }
+            inNumber = digit;
+        }
+        return count;
+    }
+
+    /**
+     * Count the words of letters and digits left on the line without moving
+     * the cursor
+     * @return the number of words before the end of the line
+     */
+    public int countWords() {
+        int count = 0;
+        boolean inWord = false;
+        for (int i = pos; i < limit && !isLineEnd(buffer.get(i)); i++) {
+            boolean word = isWord(buffer.get(i));
+            if (word && !inWord) {
+                count++;
+            }
+            inWord = word;
+        }
+        return count;
+    }
+
+    /**
+     * Move the cursor to the next digit on the line
+     * @return true if the cursor is on a digit, false if there are no more
+     *         digits on the line and the cursor is at its end
+     */
+    public boolean skipToDigit() {
+        while (!atLineEnd() && !isDigit(buffer.get(pos))) {
+            pos++;
+        }
+        return !atLineEnd();
+    }
+
+    /**
+     * Read the next unsigned number on the line, skipping anything before it
+     * (including a '-')
+     * @return the value of the number
+     */
+    public long nextUnsigned() {
+        while (!atLineEnd() && !isDigit(buffer.get(pos))) {
+            pos++;
+        }
+        return digits(false);
+    }
+
+    /**
+     * Read the next signed number on the line, skipping anything before it.
+     * A '-' or '+' immediately before the digits is its sign.
+     * @return the value of the number
+     */
+    public long nextLong() {
+        while (!atLineEnd()) {
+            byte b = buffer.get(pos);
+            if (isDigit(b)) {
+                return digits(false);
+            }
+            if ((b == '-' || b == '+') && pos + 1 < limit && isDigit(buffer.get(pos + 1))) {
+                pos++;
+                return digits(b == '-');
+            }
+            pos++;
+        }
+        throw new NumberFormatException("Expected a number before the end of the line");
+    }
+
+    /**
+     * Read the next signed number on the line that fits in an int
+     * @return the value of the number
+     */
+    public int nextInt() {
+        long value = nextLong();
+        if (value != (int) value) {
+            throw new NumberFormatException("Value out of range for an int: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Read the numbers left on the line
+     * @return the numbers, in order
+     */
+    public int[] nextInts() {
+        int[] values = new int[countNumbers('\n')];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = nextInt();
+        }
+        return values;
+    }
+
+    /**
+     * Read a bracketed list of numbers, such as (1,3) or {3,5,4,7}
+     * @param open the delimiter starting the list
+     * @param close the delimiter ending the list
+     * @return the numbers in the list, in order
+     */
+    public int[] nextList(char open, char close) {
+        skipPast(open);
+        int[] values = new int[countNumbers(close)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = nextInt();
+        }
+        skipPast(close);
+        return values;
+    }
+
+    /**
+     * Read the next word of letters and digits on the line, skipping anything
+     * before it
+     * @return the word
+     */
+    public String nextWord() {
+        while (!atLineEnd() && !isWord(buffer.get(pos))) {
+            pos++;
+        }
+        int from = pos;
+        while (pos < limit && isWord(buffer.get(pos))) {
+            pos++;
+        }
+        if (from == pos) {
+            throw new IllegalArgumentException("Expected a word before the end of the line");
+        }
+
+        char[] word = new char[pos - from];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) buffer.get(from + i);
+        }
+        return new String(word);
+    }
+
+    /**
+     * Accumulate the run of digits under the cursor
+     * @param negative whether the number had a leading '-'
+     * @return the value of the digits
+     */
+    private long digits(boolean negative) {
+        if (atLineEnd() || !isDigit(buffer.get(pos))) {
+            throw new NumberFormatException("Expected a number before the end of the line");
+        }
+
+        // Accumulate negatively so that Long.MIN_VALUE can be read too
+        long limitValue = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (!isDigit(b)) {
+                break;
+            }
+            int digit = b - '0';
+            if (value < (limitValue + digit) / 10) {
+                throw new NumberFormatException("Value out of range for a long");
+            }
+            value = value * 10 - digit;
+            pos++;
+        }
+
+        return negative ? value : -value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWord(byte b) {
+        return isDigit(b) || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static boolean isLineEnd(byte b) {
+        return b == '\n' || b == '\r';
+    }
+}
@@ -0,0 +1,105 @@
+package common;
+
+import java.util.Random;
+
+/**
+ * Two ways of doing the same piece of a solve: a brute-force engine that is
+ * quickest on small inputs, and a scalable engine that costs more to set up
+ * but grows more slowly. Each input goes to whichever engine the tradeoff's
+ * {@link CostModel} predicts will be faster, judged from cheap statistics of
+ * the input.
+ * @author Brian Dahlem
+ *
+ * Both engines must give the same answer for every input. A tradeoff also
+ * makes synthetic inputs of any size, which java harness.Calibrate times
+ * both engines on to measure the costs.
+ *
+ * @param <W> the work both engines are given
+ * @param <R> the answer both engines give
+ */
+public abstract class Tradeoff<W, R> {
+    /** The name of the tradeoff, which its measured costs are stored under */
+    private final String name;
+    /** The costs of the two engines */
+    private final CostModel costs;
+
+    /**
+     * Create a tradeoff, using its measured costs if there are any
+     * @param name the name of the tradeoff, e.g. day5.lookup
+     * @param defaults the costs to use if the tradeoff has not been measured
+     */
+    protected Tradeoff(String name, CostModel defaults) {
+        this.name = name;
+        this.costs = CostModel.load(name, defaults);
+    }
+
+    /**
+     * Get the name of the tradeoff
+     * @return the name its costs are stored under
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Get the costs the engines are chosen by
+     * @return the measured or default costs
+     */
+    public CostModel costs() {
+        return costs;
+    }
+
+    /**
+     * Do the work with whichever engine is expected to be faster
+     * @param work the work to do
+     * @return the answer
+     */
+    public R solve(W work) {
+        return prefersScalable(work) ? scalable(work) : brute(work);
+    }
+
+    /**
+     * Decide which engine to use
+     * @param work the work to do
+     * @return true if the scalable engine is expected to be faster
+     */
+    public boolean prefersScalable(W work) {
+        return costs.preferScalable(bruteWork(work), scalableWork(work));
+    }
+
+    /**
+     * Make a synthetic piece of work, for measuring the engines
+     * @param size how large to make the work, from 1 up
+     * @param random the source of random values
+     * @return the work
+     */
+    public abstract W sample(int size, Random random);
+
+    /**
+     * Estimate the work the brute-force engine does
+     * @param work the work to do
+     * @return the units of work, in the same units as the costs
+     */
+    public abstract double bruteWork(W work);
+
+    /**
+     * Estimate the work the scalable engine does
+     * @param work the work to do
+     * @return the units of work, in the same units as the costs
+     */
+    public abstract double scalableWork(W work);
+
+    /**
+     * Do the work with the brute-force engine
+     * @param work the work to do
+     * @return the answer
+     */
+    public abstract R brute(W work);
+
+    /**
+     * Do the work with the scalable engine
+     * @param work the work to do
+     * @return the answer
+     */
+    public abstract R scalable(W work);
+}
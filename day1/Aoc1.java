@@ -1,7 +1,15 @@
 package day1;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
+
+import common.Answers;
+import common.Input;
+import common.Records;
+import common.Result;
+import common.Solver;
+import common.Streaming;
+import common.Tokenizer;
+import harness.Runner;
 
 /**
  * Advent of Code 2025 - Day 1
@@ -10,36 +18,41 @@ import java.util.Scanner;
  * Simulate a combination lock dial and count how many times it hits zero
  * based on a series of left/right turns and click counts.
  */
-public class Aoc1 {
-    public static void main(String[] args) throws FileNotFoundException {
-        File dataFile = new File("day1.txt");
-        
-        long now = System.nanoTime();
-        partOne(new Scanner(dataFile));
-        long first = System.nanoTime();
-        partTwo(new Scanner(dataFile));
-        long sec = System.nanoTime();
-
-        System.out.println("Part 1 duration: " + (first - now) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+public class Aoc1 implements Solver<int[]>, Streaming {
+    public static void main(String[] args) throws IOException {
+        Runner.solve(new Aoc1(), "day1.txt");
+    }
+
+    /**
+     * Read the dial rotations, one per line, as click counts that are
+     * negative for turns to the left
+     * @param input raw input data
+     */
+    @Override
+    public int[] prepare(Input input) {
+        Tokenizer tokens = Tokenizer.of(input);
+        int[] rotations = new int[tokens.countLines()];
+
+        for (int i = 0; i < rotations.length; i++) {
+            // break the line into a direction and click count
+            byte dir = tokens.next();
+            int clicks = (int) tokens.nextUnsigned();
+            rotations[i] = dir == 'L' ? -clicks : clicks;
+            tokens.nextLine();
+        }
+
+        return rotations;
     }
-    
-    public static void partOne(Scanner scan) {
+
+    @Override
+    public Result partOne(int[] rotations) {
         int dial = 50;
         int count = 0;
 
-        // process each line of input data
-        while (scan.hasNextLine()) {
-            String line = scan.nextLine();
-
-            // break the line into a direction and click count
-            String dir = line.substring(0, 1);
-            int clicks = Integer.parseInt(line.substring(1));
+        // process each rotation
+        for (int clicks : rotations) {
 
             // turn the dial the specified number of clicks
-            if (dir.equals("L")) {
-                clicks = -clicks;
-            }             
             dial = Math.floorMod(dial + clicks, 100);
 
             // count the times the dial hits 0
@@ -48,24 +61,24 @@ public class Aoc1 {
             }
         }
         
-        System.out.println("Part 1: {" + count + "}");
+        return Result.of(count);
     }
 
-    public static void partTwo(Scanner scan) {
+    @Override
+    public Result partTwo(int[] rotations) {
         int dial = 50;
         int count = 0;
 
-        // process each line of input data
-        while (scan.hasNextLine()) {
-            String line = scan.nextLine();
+        // process each rotation
+        for (int rotation : rotations) {
 
-            // break the line into a direction and click count
-            String dir = line.substring(0, 1);
-            int clicks = Integer.parseInt(line.substring(1));
+            // break the rotation into a direction and click count
+            boolean left = rotation < 0;
+            int clicks = Math.abs(rotation);
 
             // Go through the clicks
             for (int i = 0; i < clicks; i++) {
-                if (dir.equals("L")) {
+                if (left) {
                     dial--;
                 }
                 else {
@@ -94,7 +107,7 @@ public class Aoc1 {
             // count += spins;
             // int was = dial;
 
-            // if (dir.equals("L")) {
+            // if (left) {
             //     dial = dial - rem;
             //     if (was > 0 && dial <= 0) {
             //         count++;
@@ -109,8 +122,52 @@ public class Aoc1 {
 
             // dial = Math.floorMod(dial, 100);
 
-            // System.out.println("{" + line + "}" + dir + ": " + clicks + "=" + dial + "| " + count);
+            // System.out.println("{" + rotation + "}: " + clicks + "=" + dial + "| " + count);
         }
-        System.out.println("Part 2: {" + count + "}");
+        return Result.of(count);
+    }
+
+    /**
+     * Follow the rotations as they arrive, turning a dial for each part
+     * @param in the rotations, one per line
+     * @return the number of times the dial stops on 0 and the number of
+     *         times it passes 0
+     */
+    @Override
+    public Answers stream(InputStream in) throws IOException {
+        int stopDial = 50;
+        int stops = 0;
+        int clickDial = 50;
+        int passes = 0;
+
+        Records records = Records.of(in);
+        for (Tokenizer tokens = records.next(); tokens != null; tokens = records.next()) {
+            while (!tokens.atEnd()) {
+                if (tokens.atLineEnd()) {
+                    tokens.nextLine();
+                    continue;
+                }
+
+                byte dir = tokens.next();
+                int clicks = (int) tokens.nextUnsigned();
+                tokens.nextLine();
+
+                // Part one only looks at where the dial stops
+                stopDial = Math.floorMod(stopDial + (dir == 'L' ? -clicks : clicks), 100);
+                if (stopDial == 0) {
+                    stops++;
+                }
+
+                // Part two counts every click that lands on 0
+                for (int i = 0; i < clicks; i++) {
+                    clickDial = Math.floorMod(clickDial + (dir == 'L' ? -1 : 1), 100);
+                    if (clickDial == 0) {
+                        passes++;
+                    }
+                }
+            }
+        }
+
+        return new Answers(stops, passes);
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,10 @@
 package day10;
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
-import java.util.Scanner;
 
 import com.microsoft.z3.ArithExpr;
 import com.microsoft.z3.BoolExpr;
@@ -19,6 +16,24 @@ import com.microsoft.z3.Model;
 import com.microsoft.z3.Optimize;
 import com.microsoft.z3.Status;
 
+import common.Answers;
+import common.Counters;
+import common.Counters.Counter;
+import common.Input;
+import common.Line;
+import common.ParallelParse;
+import common.Records;
+import common.Result;
+import common.Shardable;
+import common.Snapshottable;
+import common.Streaming;
+import common.Tokenizer;
+import harness.Runner;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
 /**
  * Advent of Code 2024 - Day 10
  * @author Brian Dahlem
@@ -26,60 +41,83 @@ import com.microsoft.z3.Status;
  * Light toggling machines with buttons affecting multiple lights.
  * Part 2 adds "joltage" requirements for each machine.
  */
-public class Aoc10 {
-    // Ensure the Z3 native library is available when running inside the dev container
-    static {
-        // Load libz3 (native core) then libz3java (JNI) explicitly from known system locations.
-        String z3Core = "/usr/lib/x86_64-linux-gnu/libz3.so";
-        String z3Java = "/usr/lib/x86_64-linux-gnu/jni/libz3java.so";
-        try {
-            System.load(z3Core);
-            System.load(z3Java);
-        } catch (UnsatisfiedLinkError e) {
-            String hint = "Run with -Djava.library.path=/usr/lib/x86_64-linux-gnu/jni:/usr/lib/x86_64-linux-gnu or set LD_LIBRARY_PATH accordingly.";
-            throw new RuntimeException("Unable to load Z3 native libraries (tried %s then %s). ".formatted(z3Core, z3Java) + hint, e);
-        }
+public class Aoc10 implements Snapshottable<Configuration[]>, Streaming, Shardable {
+    /** States of the lights queued, and taken from the queue, by the searches */
+    private static final Counter QUEUE_PUSHES = Counters.counter("day10.queue.pushes");
+    private static final Counter QUEUE_POLLS = Counters.counter("day10.queue.polls");
+    /** Each thread's reusable buffers for part one */
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    public static void main(String[] args) throws IOException {
+        Runner.solve(new Aoc10(), "day10.txt");
     }
 
-    private static void ensureZ3Loaded() {
-        // Touching this method ensures the static block executed; useful for explicit call sites.
+    /**
+     * Prepare the input data for processing, convert each line into a machine Configuration
+     * @param input raw input data
+     * @return array of machine Configurations
+     */
+    @Override
+    public Configuration[] prepare(Input input) {
+        return ParallelParse.lines(input, Configuration::from, Configuration[]::new);
     }
 
-    public static void main(String[] args) throws FileNotFoundException {
-        ensureZ3Loaded();
-        // Load the data
-        File inputFile = new File("day10.txt");
-        Scanner scan = new Scanner(inputFile);
-       
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-        String data = scan.next();
-        scan.close();
-
-        // Solve the two parts of the puzzle
-        long start = System.nanoTime();
-        Configuration[] config = prepare(data);
-        long prepped = System.nanoTime();
-        partOne(config);
-        long first = System.nanoTime();
-        partTwo(config);
-        long sec = System.nanoTime();
-
-        System.out.println("Preparation duration: " + (prepped - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 1 duration: " + (first - prepped) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+    /**
+     * Write the machines to a snapshot, with the light goal and each button's
+     * lights packed into bit masks
+     * @param config the machines just prepared
+     * @param out where to write the snapshot
+     * @throws IllegalArgumentException if a machine has more lights than fit in a mask
+     */
+    @Override
+    public void save(Configuration[] config, DataOutput out) throws IOException {
+        out.writeInt(config.length);
+        for (Configuration machine : config) {
+            if (machine.lightGoal().length > Integer.SIZE) {
+                throw new IllegalArgumentException("A machine can have at most " + Integer.SIZE + " lights");
+            }
+            out.writeInt(machine.lightGoal().length);
+            out.writeInt(mask(machine.lightGoal()));
+
+            int[][] effects = machine.buttonEffects();
+            int[] buttons = new int[effects.length];
+            for (int b = 0; b < effects.length; b++) {
+                for (int lightIndex : effects[b]) {
+                    buttons[b] |= 1 << lightIndex;
+                }
+            }
+            Snapshottable.writeInts(out, buttons);
+            Snapshottable.writeInts(out, machine.joltage());
+        }
     }
 
     /**
-     * Prepare the input data for processing, convert each line into a machine Configuration
-     * @param data raw input data
+     * Read the machines back from a snapshot
+     * @param in the snapshot
      * @return array of machine Configurations
      */
-    public static Configuration[] prepare(String data) {
-        String[] lines = data.split("\\R");
-        Configuration[] config = new Configuration[lines.length];
-        for (int i = 0; i < lines.length; i++) {
-            config[i] = Configuration.from(lines[i]);
+    @Override
+    public Configuration[] load(ByteBuffer in) {
+        Configuration[] config = new Configuration[in.getInt()];
+        for (int i = 0; i < config.length; i++) {
+            boolean[] lightGoal = new boolean[in.getInt()];
+            int goal = in.getInt();
+            for (int light = 0; light < lightGoal.length; light++) {
+                lightGoal[light] = (goal & 1 << light) != 0;
+            }
+
+            // Unpack each button's mask into the lights it toggles, in order
+            int[] buttons = Snapshottable.readInts(in);
+            int[][] buttonEffects = new int[buttons.length][];
+            for (int b = 0; b < buttons.length; b++) {
+                buttonEffects[b] = new int[Integer.bitCount(buttons[b])];
+                int mask = buttons[b];
+                for (int e = 0; mask != 0; e++, mask &= mask - 1) {
+                    buttonEffects[b][e] = Integer.numberOfTrailingZeros(mask);
+                }
+            }
+
+            config[i] = new Configuration(lightGoal, buttonEffects, Snapshottable.readInts(in));
         }
 
         return config;
@@ -89,15 +127,17 @@ public class Aoc10 {
      * Determine the correct number of button presses for each machine to reach its light goal
      * @param config array of machine Configurations 
      */
-    public static void partOne(Configuration[] config) {
+    @Override
+    public Result partOne(Configuration[] config) {
         long total = 0;
 
         // Sum minimum presses for each machine
+        Workspace workspace = workspaces.get();
         for (Configuration machine : config) {
-            total += minPresses(machine);
+            total += minPresses(machine, workspace);
         }
         
-        System.out.println("Part 1: {" + total + "}");
+        return Result.of(total);
     }
 
     /**
@@ -106,90 +146,254 @@ public class Aoc10 {
      * @return minimum number of button presses needed to set the lights to the goal
      */
     public static int minPresses(Configuration machine) {
-        int presses = 0;
-
-        boolean[] lights = new boolean[machine.lightGoal().length]; // all off initially
-        int[][] buttons = machine.buttonEffects(); // the lights each button toggles
-        Queue<MachineOp> ops = new PriorityQueue<>(); // operations to explore
-        ops.addAll(nextStates(-1, lights, presses, buttons)); // inital button presses
-        
-        // Explore operations until we reach the goal
-        while (!lightsMatch(lights, machine.lightGoal())) {
-            // Get the results of the next operation
-            MachineOp op = ops.poll();
-            lights = op.lights();
-            presses = op.presses();
-
-            // Add next possible operations to explore
-            ops.addAll(nextStates(op.button(), lights, presses, buttons));    
-        }
-
-        return presses;
+        return minPresses(machine, new Workspace());
     }
 
     /**
-     * Generate the next possible machine operations from the current state
-     * @param button the button to press
-     * @param lights current light configuration
-     * @param presses number of presses so far
-     * @param buttons the button effects on lights
-     * @return collection of next possible machine operations
+     * Determine the minimum button presses to reach the light goal for a machine,
+     * searching the states of the lights breadth first
+     * @param machine the machine Configuration
+     * @param workspace the buffers to search with
+     * @return minimum number of button presses needed to set the lights to the goal
      */
-    private static Collection<? extends MachineOp> nextStates(int button, boolean[] lights, int presses, int[][] buttons) {
-        List<MachineOp> ops = new ArrayList<>();
+    static int minPresses(Configuration machine, Workspace workspace) {
+        boolean[] lightGoal = machine.lightGoal();
+        if (lightGoal.length > Workspace.MAX_LIGHTS) {
+            throw new IllegalArgumentException("A machine can have at most " + Workspace.MAX_LIGHTS + " lights");
+        }
 
-        // Try pressing each button (except the last pressed which would just undo it)
-        for (int b = 0; b < buttons.length; b++) {
-            if (b == button) {
-                continue;
+        // Each state of the lights is a bit mask, and each button toggles some of its bits
+        int goal = mask(lightGoal);
+        int[][] effects = machine.buttonEffects();
+        int[] buttons = workspace.buttons(effects.length);
+        for (int b = 0; b < effects.length; b++) {
+            buttons[b] = 0;
+            for (int lightIndex : effects[b]) {
+                buttons[b] |= 1 << lightIndex;
             }
-            boolean[] newLights = lights.clone();
+        }
 
-            // Toggle the lights affected by this button
-            for (int lightIndex : buttons[b]) {
-                newLights[lightIndex] = !newLights[lightIndex];
+        // Explore states in order of presses, starting with all the lights off
+        workspace.start(1 << lightGoal.length);
+        int[] queue = workspace.queue;
+        int[] presses = workspace.presses;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        workspace.visit(0);
+        presses[0] = 0;
+
+        while (head < tail) {
+            int lights = queue[head++];
+            if (lights == goal) {
+                if (Counters.ENABLED) {
+                    QUEUE_PUSHES.add(tail);
+                    QUEUE_POLLS.add(head);
+                }
+                return presses[lights];
             }
 
-            ops.add(new MachineOp(b, newLights, presses + 1));
+            // Try pressing each button; a state already reached took no more presses
+            for (int b = 0; b < effects.length; b++) {
+                int next = lights ^ buttons[b];
+                if (workspace.visit(next)) {
+                    presses[next] = presses[lights] + 1;
+                    queue[tail++] = next;
+                }
+            }
         }
 
-        return ops;
+        throw new IllegalArgumentException("The buttons cannot set the lights to the goal");
     }
 
     /**
-     * Check if the current light configuration matches the goal
-     * @param lights current light configuration
-     * @param goal target light configuration
-     * @return true if the configurations match, false otherwise
+     * Convert a light configuration to a bit mask
+     * @param lights the light configuration
+     * @return a mask with bit i set if light i is on
      */
-    public static boolean lightsMatch(boolean[] lights, boolean[] goal) {
-        return Arrays.equals(lights, goal);
+    private static int mask(boolean[] lights) {
+        int mask = 0;
+        for (int i = 0; i < lights.length; i++) {
+            if (lights[i]) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
     }
-    
+
     /**
      * Determine the minimum number of button presses for each machine 
      * to match its joltage requirements
      * @param config array of machine Configurations 
      */
-    public static void partTwo(Configuration[] config) {
+    @Override
+    public Result partTwo(Configuration[] config) {
         long total = 0;
 
         // Sum minimum presses for each machine
         for (int i = 0; i < config.length; i++) {
-            System.out.println(i);
-            total += minJoltagePresses(config[i]);
+            total += solveJoltage(config[i], i);
         }
         
-        System.out.println("Part 2: {" + total + "}");
+        return Result.of(total).with("machines", config.length);
+    }
+
+    /**
+     * Configure each machine as it arrives, for both the lights and the joltage
+     * @param in the machine configurations, one per line
+     * @return the total presses for the lights and for the joltage
+     */
+    @Override
+    public Answers stream(InputStream in) throws IOException {
+        long lights = 0;
+        long joltage = 0;
+        int machine = 0;
+        Workspace workspace = workspaces.get();
+
+        Records records = Records.of(in);
+        for (Tokenizer tokens = records.next(); tokens != null; tokens = records.next()) {
+            while (!tokens.atEnd()) {
+                if (!tokens.atLineEnd()) {
+                    Configuration config = Configuration.from(tokens);
+                    lights += minPresses(config, workspace);
+                    joltage += solveJoltage(config, machine++);
+                }
+                tokens.nextLine();
+            }
+        }
+
+        return new Answers(lights, joltage);
+    }
+
+    /**
+     * Find the minimum presses to reach a machine's joltage goal, recording
+     * the solve as a JFR event
+     * @param machine the machine Configuration
+     * @param index the machine's position in the input
+     * @return minimum number of button presses needed to reach the joltage goal
+     */
+    private static long solveJoltage(Configuration machine, int index) {
+        MachineSolveEvent event = new MachineSolveEvent();
+        event.begin();
+        long presses = Z3Joltage.minPresses(machine);
+        event.end();
+        if (event.shouldCommit()) {
+            event.machine = index;
+            event.buttons = machine.buttonEffects().length;
+            event.counters = machine.joltage().length;
+            event.presses = presses;
+            event.commit();
+        }
+
+        return presses;
     }
 
+    /**
+     * The buffers the search for the fewest light presses reuses from one
+     * machine to the next, so part one allocates nothing per state
+     */
+    static final class Workspace {
+        /** The most lights a machine's states can be searched for */
+        static final int MAX_LIGHTS = 20;
+
+        /** The states waiting to be explored, in the order they were reached */
+        int[] queue = new int[0];
+        /** The presses needed to reach each state */
+        int[] presses = new int[0];
+        /** The light masks toggled by each button */
+        private int[] buttons = new int[0];
+        /** The search that last reached each state */
+        private int[] visited = new int[0];
+        /** The current search */
+        private int search;
+
+        /**
+         * Get the buffer of button masks
+         * @param count the number of buttons
+         * @return a buffer of at least that size
+         */
+        int[] buttons(int count) {
+            if (buttons.length < count) {
+                buttons = new int[count];
+            }
+            return buttons;
+        }
+
+        /**
+         * Start a new search, with no state reached yet
+         * @param states the number of states the lights can be in
+         */
+        void start(int states) {
+            if (visited.length < states) {
+                queue = new int[states];
+                presses = new int[states];
+                visited = new int[states];
+                search = 0;
+            }
+            search++;
+        }
+
+        /**
+         * Mark a state as reached by the current search
+         * @param state the state of the lights
+         * @return true if the state had not been reached before
+         */
+        boolean visit(int state) {
+            if (visited[state] == search) {
+                return false;
+            }
+            visited[state] = search;
+            return true;
+        }
+    }
+
+    /**
+     * Split the input into shards of whole machines, one per line
+     * @param input the whole input
+     * @param shards the most shards to make
+     * @return the shards
+     */
+    @Override
+    public List<String> shard(Input input, int shards) {
+        List<Line> machines = new ArrayList<>();
+        for (Line line : input.lines()) {
+            if (!line.strip().isEmpty()) {
+                machines.add(line);
+            }
+        }
+        return Shardable.split("", machines, "\n", shards);
+    }
+}
+
+/**
+ * The joltage presses of a machine, found with the Z3 optimizer. The Z3
+ * classes and native libraries are only loaded when this class is first used,
+ * so solving part one alone never loads them.
+ */
+final class Z3Joltage {
+    // Load the Z3 native library the first time a joltage is solved
+    static {
+        // Load libz3 (native core) then libz3java (JNI) explicitly from known system locations.
+        String z3Core = "/usr/lib/x86_64-linux-gnu/libz3.so";
+        String z3Java = "/usr/lib/x86_64-linux-gnu/jni/libz3java.so";
+        try {
+            System.load(z3Core);
+            System.load(z3Java);
+        } catch (UnsatisfiedLinkError e) {
+            String hint = "Run with -Djava.library.path=/usr/lib/x86_64-linux-gnu/jni:/usr/lib/x86_64-linux-gnu or set LD_LIBRARY_PATH accordingly.";
+            throw new RuntimeException("Unable to load Z3 native libraries (tried %s then %s). ".formatted(z3Core, z3Java) + hint, e);
+        }
+    }
+
+    private Z3Joltage() {}
+
     /**
      * Determine the minimum button presses to reach the joltage goal for a machine
      * @param machine the machine Configuration
      * @return 
      */
     @SuppressWarnings("unchecked")
-    private static long minJoltagePresses(Configuration machine) {
+    static long minPresses(Configuration machine) {
         int[] goal = machine.joltage();
         int[][] buttons = machine.buttonEffects();
         int numButtons = buttons.length;
@@ -263,7 +467,6 @@ public class Aoc10 {
             return val.getInt64();
         }
     }
-
 }
 
 /**
@@ -274,56 +477,32 @@ public class Aoc10 {
  */
 record Configuration (boolean[] lightGoal, int[][] buttonEffects, int[] joltage) {
     /**
-     * Create a Configuration from a raw data string
-     * @param data raw data string
+     * Read a Configuration from a raw data line
+     * @param tokens a tokenizer at the start of the line
      * @return the Configuration represented by the data
      */
-    public static Configuration from(String data) {
-        String[] parts = data.split("\s+");
-        String lightConfig = parts[0].substring(1, parts[0].length() - 1);
-        
+    public static Configuration from(Tokenizer tokens) {
         // Parse light goal configuration
-        boolean[] lightGoal = new boolean[lightConfig.length()];
-        for (int i = 0; i < lightConfig.length(); i++) {
-            lightGoal[i] = lightConfig.charAt(i) == '#';
+        tokens.skipPast('[');
+        boolean[] lightGoal = new boolean[tokens.lengthUntil(']')];
+        for (int i = 0; i < lightGoal.length; i++) {
+            lightGoal[i] = tokens.next() == '#';
         }
+        tokens.skipPast(']');
 
         // Parse button effects for each button
-        int[][] buttonEffects = new int[parts.length - 2][];
-        for (int i = 1; i < parts.length - 1; i++) {
-            String[] effectParts = parts[i].substring(1, parts[i].length() - 1).split(",");
-            buttonEffects[i - 1] = new int[effectParts.length];
-            for (int j = 0; j < effectParts.length; j++) {
-                buttonEffects[i - 1][j] = Integer.parseInt(effectParts[j]);
-            }
+        int[][] buttonEffects = new int[tokens.count('(')][];
+        for (int i = 0; i < buttonEffects.length; i++) {
+            buttonEffects[i] = tokens.nextList('(', ')');
         }
 
         // Parse joltage requirements
-        String joltageSpec = parts[parts.length - 1];
-        joltageSpec = joltageSpec.substring(1, joltageSpec.length() - 1);
-        String[] joltageParts = joltageSpec.split(",");
-        int[] joltage = new int[joltageParts.length];
-        for (int i = 0; i < joltageParts.length; i++) {
-            joltage[i] = Integer.parseInt(joltageParts[i]);
-        }
+        int[] joltage = tokens.nextList('{', '}');
         
         return new Configuration(lightGoal, buttonEffects, joltage);
     }
 }
 
-/**
- * Represents a machine operation state for searching
- * @param button the last button pressed
- * @param lights current light configuration
- * @param presses number of presses so far
- */
-record MachineOp (int button, boolean[] lights, int presses) implements Comparable<MachineOp> {
-    @Override
-    public int compareTo(MachineOp other) {
-        return Integer.compare(this.presses, other.presses);
-    }
-}
-
 /**
  * Represents a joltage operation state for searching
  * @param joltage current joltage configuration
@@ -356,4 +535,25 @@ record JoltageOp (int[] joltage, int presses, int[] goal, String key) implements
         }
         return bound;
     }
-}
\ No newline at end of file
+}
+
+/**
+ * A JFR event covering one Z3 solve of the presses a machine needs to reach
+ * its joltage requirements
+ */
+@Name("aoc.day10.MachineSolve")
+@Label("Machine Solve")
+@Category({ "Advent of Code", "Day 10" })
+class MachineSolveEvent extends Event {
+    @Label("Machine")
+    int machine;
+
+    @Label("Buttons")
+    int buttons;
+
+    @Label("Counters")
+    int counters;
+
+    @Label("Presses")
+    long presses;
+}
@@ -1,13 +1,42 @@
 package day11;
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
-import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import common.Answers;
+import common.ConcurrentMemo;
+import common.Counters;
+import common.Counters.Counter;
+import common.Input;
+import common.LongTable;
+import common.ParallelParse;
+import common.Records;
+import common.Referenced;
+import common.Result;
+import common.Snapshottable;
+import common.Solver;
+import common.Streaming;
+import common.Tokenizer;
+import harness.Runner;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
 
 /**
  * Advent of Code 2025 - Day 11
@@ -17,42 +46,29 @@ import java.util.ArrayDeque;
  * Find all distinct paths through a network of devices, first from 'you' to 'out',
  * then from 'svr' to 'out' while visiting both 'dac' and 'fft' at least once.
  */
-public class Aoc11 {
-    public static void main(String[] args) throws FileNotFoundException {
-        // Load the data
-        File inputFile = new File("day11.txt");
-        Scanner scan = new Scanner(inputFile);
-       
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-        String data = scan.next();
-        scan.close();
-
-        // Solve the two parts of the puzzle
-        long start = System.nanoTime();
-        Map<String, Device> deviceMap = prepare(data);
-        long prepped = System.nanoTime();
-        partOne(deviceMap);
-        long first = System.nanoTime();
-        partTwo(deviceMap);
-        long sec = System.nanoTime();
-
-        System.out.println("Preparation duration: " + (prepped - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 1 duration: " + (first - prepped) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+public class Aoc11 implements Snapshottable<Map<String, Device>>, Streaming, Referenced {
+    public static void main(String[] args) throws IOException {
+        Runner.solve(new Aoc11(), "day11.txt");
+    }
+
+    /**
+     * Part one counts over the graph's components unless that would count
+     * different paths than walking them
+     * @return the version of the solver
+     */
+    @Override
+    public int version() {
+        return 2;
     }
 
     /**
      * Prepares the device map from the raw input data.
-     * @param data raw input data
+     * @param input raw input data
      */
-    public static Map<String, Device> prepare(String data) {
-        // Create Device objects from input lines
-        String[] lines = data.split("\\R");
-        Device[] devices = new Device[lines.length];
-        for (int i = 0; i < lines.length; i++) {
-            devices[i] = Device.from(lines[i]);
-        }
+    @Override
+    public Map<String, Device> prepare(Input input) {
+        // Create Device objects from input lines, several lines at once when it is large
+        Device[] devices = ParallelParse.lines(input, Device::from, Device[]::new);
 
         // Map device names to Device objects
         Map<String, Device> deviceMap = new HashMap<>();
@@ -60,6 +76,144 @@ public class Aoc11 {
             deviceMap.put(device.name(), device);
         }
 
+        return complete(deviceMap);
+    }
+
+    /**
+     * Write the device map to a snapshot: every name once, the map's entries
+     * as name ids and the connections as compressed sparse rows of name ids
+     * @param deviceMap the device map just prepared
+     * @param out where to write the snapshot
+     */
+    @Override
+    public void save(Map<String, Device> deviceMap, DataOutput out) throws IOException {
+        // Give every device and connection name an id
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        Map<Integer, Device> devices = new HashMap<>();
+        for (Device device : deviceMap.values()) {
+            if (device != null) {
+                devices.put(intern(device.name(), ids, names), device);
+                for (String connection : device.connections()) {
+                    intern(connection, ids, names);
+                }
+            }
+        }
+
+        // Each key of the map names a device, which may have another name
+        int[] keys = new int[deviceMap.size()];
+        int[] values = new int[deviceMap.size()];
+        int entry = 0;
+        for (Map.Entry<String, Device> device : deviceMap.entrySet()) {
+            keys[entry] = intern(device.getKey(), ids, names);
+            values[entry++] = device.getValue() == null ? -1 : ids.get(device.getValue().name());
+        }
+
+        // Row i of the adjacency holds the connections of the device named i
+        int[] offsets = new int[names.size() + 1];
+        List<Integer> targets = new ArrayList<>();
+        for (int id = 0; id < names.size(); id++) {
+            Device device = devices.get(id);
+            if (device != null) {
+                for (String connection : device.connections()) {
+                    targets.add(ids.get(connection));
+                }
+            }
+            offsets[id + 1] = targets.size();
+        }
+
+        out.writeInt(names.size());
+        for (String name : names) {
+            Snapshottable.writeString(out, name);
+        }
+        Snapshottable.writeInts(out, keys);
+        Snapshottable.writeInts(out, values);
+        Snapshottable.writeInts(out, offsets);
+        Snapshottable.writeInts(out, targets.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Read the device map back from a snapshot
+     * @param in the snapshot
+     * @return the map of device names to Device objects
+     */
+    @Override
+    public Map<String, Device> load(ByteBuffer in) {
+        String[] names = new String[in.getInt()];
+        for (int id = 0; id < names.length; id++) {
+            names[id] = Snapshottable.readString(in);
+        }
+        int[] keys = Snapshottable.readInts(in);
+        int[] values = Snapshottable.readInts(in);
+        int[] offsets = Snapshottable.readInts(in);
+        int[] targets = Snapshottable.readInts(in);
+
+        // Build each device once, even if more than one key names it
+        Device[] devices = new Device[names.length];
+        Map<String, Device> deviceMap = new HashMap<>();
+        for (int entry = 0; entry < keys.length; entry++) {
+            int id = values[entry];
+            if (id >= 0 && devices[id] == null) {
+                String[] connections = new String[offsets[id + 1] - offsets[id]];
+                for (int c = 0; c < connections.length; c++) {
+                    connections[c] = names[targets[offsets[id] + c]];
+                }
+                devices[id] = new Device(names[id], List.of(connections));
+            }
+            deviceMap.put(names[keys[entry]], id < 0 ? null : devices[id]);
+        }
+
+        return deviceMap;
+    }
+
+    /**
+     * Get the id of a name, giving it the next id if it has none yet
+     * @param name the name
+     * @param ids the ids given so far
+     * @param names the names in order of their ids
+     * @return the id
+     */
+    private static int intern(String name, Map<String, Integer> ids, List<String> names) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * Build the device map as the devices arrive, then find the paths through it.
+     * The map is the only thing kept.
+     * @param in the devices and their connections, one per line
+     * @return the number of paths for each part
+     */
+    @Override
+    public Answers stream(InputStream in) throws IOException {
+        Map<String, Device> deviceMap = new HashMap<>();
+
+        Records records = Records.of(in);
+        for (Tokenizer tokens = records.next(); tokens != null; tokens = records.next()) {
+            while (!tokens.atEnd()) {
+                if (!tokens.atLineEnd()) {
+                    Device device = Device.from(tokens);
+                    deviceMap.put(device.name(), device);
+                }
+                tokens.nextLine();
+            }
+        }
+
+        complete(deviceMap);
+        return new Answers(partOne(deviceMap).answer(), partTwo(deviceMap).answer());
+    }
+
+    /**
+     * Add the devices that the puzzle expects but the input may leave out
+     * @param deviceMap the map of device names to Device objects
+     * @return the same map
+     */
+    private static Map<String, Device> complete(Map<String, Device> deviceMap) {
         // Ensure 'out' and 'you' devices exist
         deviceMap.put("out", new Device("out", List.of()));
 
@@ -72,16 +226,40 @@ public class Aoc11 {
     }
 
     /**
-     * Determines the number of distinct paths from 'you' to 'out'.
+     * Determines the number of distinct paths from 'you' to 'out', counting
+     * them over the graph's strongly connected components as part two does.
+     * A path may pass through a cycle in several ways without visiting any
+     * device twice, which the components hide, so when 'you' can reach a
+     * cycle every path is walked instead.
      * @param deviceMap the map of device names to Device objects
      */
-    public static void partOne(Map<String,Device> deviceMap) {
+    @Override
+    public Result partOne(Map<String,Device> deviceMap) {
         Device start = deviceMap.get("you");
         Device target = deviceMap.get("out");
 
-        long total = findPaths(start, target, deviceMap, new HashSet<>());
+        CondensedGraph cg = CondensedGraph.build(deviceMap, start.name(), target.name(), Set.of());
+
+        long total = cg.reachesCycle() ? findPaths(start, target, deviceMap, new HashSet<>())
+                                       : cg.countPaths();
+        return Result.of(total);
+    }
 
-        System.out.println("Part 1: {" + total + "}");
+    /**
+     * Determines the number of distinct paths from 'svr' to 'out' that visit
+     * both 'dac' and 'fft' at least once.
+     * @param deviceMap the map of device names to Device objects 
+     */
+    @Override
+    public Result partTwo(Map<String,Device> deviceMap) {
+        Device start = deviceMap.get("svr");
+        Device target = deviceMap.get("out");
+        Set<String> requiredDevices = Set.of("dac", "fft");
+
+        CondensedGraph cg = CondensedGraph.build(deviceMap, start.name(), target.name(), requiredDevices);
+
+        long total = cg.countPaths();
+        return Result.of(total);
     }
 
     /**
@@ -92,7 +270,7 @@ public class Aoc11 {
      * @param visited the set of visited device names
      * @return the number of distinct paths from current to target device
      */
-    private static long findPaths(Device current, Device target,
+    static long findPaths(Device current, Device target,
         Map<String, Device> deviceMap, Set<String> visited) {
             
         if (current.name().equals(target.name())) {
@@ -117,33 +295,50 @@ public class Aoc11 {
 
         return pathCount;
     }
+
     /**
-     * Determines the number of distinct paths from 'svr' to 'out' that visit
-     * both 'dac' and 'fft' at least once.
-     * @param deviceMap the map of device names to Device objects 
+     * Get the code part one's engine replaced, which walks every path itself
+     * @return the reference solver
      */
-       public static void partTwo(Map<String,Device> deviceMap) {
-        Device start = deviceMap.get("svr");
+    @Override
+    public Solver<?> reference() {
+        return new Aoc11Reference();
+    }
+}
+
+/**
+ * The original day 11 solver, kept as the reference for part one's engine:
+ * it follows every path from 'you' itself, copying the devices visited so far
+ */
+class Aoc11Reference extends Aoc11 {
+    /**
+     * Determines the number of distinct paths from 'you' to 'out'.
+     * @param deviceMap the map of device names to Device objects
+     */
+    @Override
+    public Result partOne(Map<String,Device> deviceMap) {
+        Device start = deviceMap.get("you");
         Device target = deviceMap.get("out");
-        Set<String> requiredDevices = Set.of("dac", "fft");
 
-        CondensedGraph cg = CondensedGraph.build(deviceMap, start.name(), target.name(), requiredDevices);
+        long total = findPaths(start, target, deviceMap, new HashSet<>());
 
-        long total = cg.countPaths();
-        System.out.println("Part 2: {" + total + "}");
+        return Result.of(total);
     }
-    
 }
 
 /**
  * Represents a device in the network with its outbound connections.
  */
 record Device (String name, List<String> connections) {
-    public static Device from(String data) {
-        String[] parts = data.split(":\s+");
-        String name = parts[0];
-        List<String> connections = List.of(parts[1].split("\s+"));
-        return new Device(name, connections);
+    public static Device from(Tokenizer tokens) {
+        String name = tokens.nextWord();
+        tokens.skipPast(':');
+
+        String[] connections = new String[tokens.countWords()];
+        for (int i = 0; i < connections.length; i++) {
+            connections[i] = tokens.nextWord();
+        }
+        return new Device(name, List.of(connections));
     }
 }
 
@@ -152,6 +347,12 @@ record Device (String name, List<String> connections) {
  * Directed Acyclic Graph (DAG).
  */
 class CondensedGraph {
+    /** Memo lookups that found a known result, and that did not */
+    private static final Counter MEMO_HITS = Counters.counter("day11.memo.hits");
+    private static final Counter MEMO_MISSES = Counters.counter("day11.memo.misses");
+    /** The fewest components worth counting paths through with a task per state */
+    private static final int PARALLEL_COMPONENTS = 1 << 14;
+
     /**
      * A node in the condensed graph representing a strongly connected component
      */
@@ -169,6 +370,16 @@ class CondensedGraph {
     private String targetComponent;
     /** The names of components required in the path */
     private Set<String> requiredComponentNames;
+    /** The names of components holding a cycle of more than one device */
+    private Set<String> cyclicComponents;
+    /** The components each component has edges to, by component number */
+    private int[][] outgoing;
+    /** The bit set of required devices in each component, by component number */
+    private int[] requiredIn;
+    /** The bit set holding every required device */
+    private int allRequired;
+    /** The number of the component containing the target device */
+    private int target;
 
     /**
      * Constructor for CondensedGraph used in the build method.
@@ -176,13 +387,15 @@ class CondensedGraph {
      * @param startComponent the component containing the start device
      * @param targetComponent the component containing the target device
      * @param requiredNames the names of components required in the path
+     * @param cyclicComponents the names of components holding more than one device
      */
     private CondensedGraph(Map<String, Node> nodes, String startComponent, String targetComponent,
-        Set<String> requiredNames) {
+        Set<String> requiredNames, Set<String> cyclicComponents) {
         this.nodes = nodes;
         this.startComponent = startComponent;
         this.targetComponent = targetComponent;
         this.requiredComponentNames = requiredNames;
+        this.cyclicComponents = cyclicComponents;
     }
 
     /**
@@ -198,6 +411,9 @@ class CondensedGraph {
     static CondensedGraph build(Map<String, Device> graph, String start, String target,
         Set<String> required) {
 
+        TarjanBuildEvent event = new TarjanBuildEvent();
+        event.begin();
+
         Map<String,Integer> index = new HashMap<>();
         Map<String,Integer> lowlink = new HashMap<>();
         Map<String,String> componentOf = new HashMap<>();
@@ -213,10 +429,14 @@ class CondensedGraph {
             }
         }
 
-        // Create nodes keyed by representative name
+        // Create nodes keyed by representative name, noting the components
+        // that more than one device was merged into
         Map<String, Node> nodesByName = new HashMap<>();
-        for (String compName : new HashSet<>(componentOf.values())) {
-            nodesByName.put(compName, new Node(compName));
+        Set<String> cyclic = new HashSet<>();
+        for (String compName : componentOf.values()) {
+            if (nodesByName.putIfAbsent(compName, new Node(compName)) != null) {
+                cyclic.add(compName);
+            }
         }
 
         // Build edges between components
@@ -242,8 +462,15 @@ class CondensedGraph {
             }
         }
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.devices = graph.size();
+            event.components = nodesByName.size();
+            event.commit();
+        }
+
         return new CondensedGraph(nodesByName, componentOf.get(start),
-            componentOf.get(target), required);
+            componentOf.get(target), required, cyclic);
     }
 
     /**
@@ -309,66 +536,242 @@ class CondensedGraph {
         }
     }
 
+    /**
+     * Checks whether any path from the start component passes through a
+     * component holding a cycle, where the paths through the devices inside
+     * it are not counted by countPaths
+     * @return true if a component of more than one device can be reached
+     */
+    boolean reachesCycle() {
+        Set<String> seen = new HashSet<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        seen.add(startComponent);
+        queue.add(startComponent);
+
+        while (!queue.isEmpty()) {
+            String component = queue.poll();
+            if (cyclicComponents.contains(component)) {
+                return true;
+            }
+            for (String next : nodes.get(component).outgoing()) {
+                if (seen.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Counts the number of distinct paths from the start component to the
      * target component that visit all required components at least once.
      * @return the number of valid paths
      */
     long countPaths() {
-        // DP on DAG with state (componentName, requiredSeenSet)
-        Map<String, Long> memo = new HashMap<>();
-        return countFrom(startComponent, Set.of(), memo);
+        // Number the components and the required devices, so that a state of
+        // the search packs into a single memo key
+        List<String> names = new ArrayList<>(nodes.keySet());
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            ids.put(names.get(i), i);
+        }
+
+        List<String> required = new ArrayList<>(requiredComponentNames);
+        if (required.size() > 31) {
+            throw new IllegalArgumentException("At most 31 required devices are supported, not "
+                + required.size());
+        }
+
+        outgoing = new int[names.size()][];
+        requiredIn = new int[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            Node node = nodes.get(names.get(i));
+            outgoing[i] = node.outgoing().stream().mapToInt(ids::get).toArray();
+            for (String device : node.containsRequired()) {
+                requiredIn[i] |= 1 << required.indexOf(device);
+            }
+        }
+        allRequired = (1 << required.size()) - 1;
+        target = ids.get(targetComponent);
+
+        // DP on DAG with state (component, requiredSeenSet). Tasks only pay for
+        // themselves with enough states to share between threads, so small
+        // graphs (and pools of one thread) are counted inline
+        int start = ids.get(startComponent);
+        int threads = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism()
+                                                    : ForkJoinPool.getCommonPoolParallelism();
+        if (names.size() < PARALLEL_COMPONENTS || threads < 2) {
+            return countFrom(start, 0, new LongTable(names.size()));
+        }
+
+        // Otherwise each state is a task sharing the memo with the others
+        ConcurrentMemo memo = new ConcurrentMemo(names.size());
+        CompletableFuture<Long> paths = new CompletableFuture<>();
+        if (Counters.ENABLED) {
+            MEMO_MISSES.increment();
+        }
+        memo.request(LongTable.pack(start, requiredIn[start]), paths::complete,
+            key -> new Count(start, requiredIn[start], memo, paths).fork());
+        try {
+            return paths.join();
+        } catch (CompletionException e) {
+            // Fail the way the count itself failed
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     /**
      * Recursive helper to count paths from a given component with a set of
      * required components already seen.
-     * @param componentName the current component name
-     * @param requiredSeen the set of required components seen so far
-     * @param memo memoization map to store intermediate results
+     * @param component the number of the current component
+     * @param requiredSeen the bit set of required devices seen so far
+     * @param memo memoization table of results keyed by the packed component
+     *             and required devices seen
      * @return the number of valid paths from the current component
      */
-    private long countFrom(String componentName, Set<String> requiredSeen, Map<String, Long> memo) {
+    private long countFrom(int component, int requiredSeen, LongTable memo) {
         // Add any required nodes contained in this component
-        Set<String> nextSeen = new HashSet<>(requiredSeen);
-        nextSeen.addAll(nodes.get(componentName).containsRequired);
+        int nextSeen = requiredSeen | requiredIn[component];
 
         // Check if already computed
-        String key = memoKey(componentName, nextSeen);
-        if (memo.containsKey(key)) {
-            return memo.get(key);
+        long key = LongTable.pack(component, nextSeen);
+        long known = memo.get(key);
+        if (known != LongTable.ABSENT) {
+            if (Counters.ENABLED) {
+                MEMO_HITS.increment();
+            }
+            return known;
+        }
+        if (Counters.ENABLED) {
+            MEMO_MISSES.increment();
         }
 
         // If at target, check if all required have been seen
-        if (componentName.equals(targetComponent)) {
-            long ways = nextSeen.containsAll(requiredComponentNames) ? 1L : 0L;
+        if (component == target) {
+            long ways = nextSeen == allRequired ? 1L : 0L;
             memo.put(key, ways);
             return ways;
         }
 
         // Recurse for all outgoing edges
         long total = 0;
-        for (String nextName : nodes.get(componentName).outgoing) {
-            total += countFrom(nextName, nextSeen, memo);
+        for (int next : outgoing[component]) {
+            total += countFrom(next, nextSeen, memo);
         }
         memo.put(key, total);
         return total;
     }
 
     /**
-     * Generate a unique key for memoization based on the current component
-     * and the set of components seen so far.
-     * @param componentName the current component name
-     * @param seen the set of components seen so far
-     * @return a unique string key for memoization
+     * The count of paths from a component with a set of required devices
+     * already seen (including the component's own), as a task. It asks the
+     * memo for the count from each component it has edges to, forking a task
+     * for any count no other task has started, and completes its own count in
+     * the memo once the last of them arrives. No task ever waits, so the
+     * states are counted in parallel and the depth of the graph never shows
+     * on the stack.
      */
-    private String memoKey(String componentName, Set<String> seen) {
-        if (seen.isEmpty()) {
-            return componentName + "|";
-        }
-        
-        String seenStr = seen.stream().sorted()
-            .reduce("", (acc, name) -> acc + name + ',', String::concat);
-        return componentName + "|" + seenStr;
+    private final class Count extends RecursiveAction {
+        /** Tasks are never serialized, but RecursiveAction is Serializable */
+        private static final long serialVersionUID = 1L;
+
+        /** The number of the component */
+        private final int component;
+        /** The bit set of required devices seen, including this component's */
+        private final int seen;
+        /** The memo table of counts keyed by the packed component and required devices seen */
+        private final ConcurrentMemo memo;
+        /** Where the count of the whole search goes, or its failure */
+        private final CompletableFuture<Long> paths;
+        /** The edges still to be counted, plus one until every edge has been asked for */
+        private final AtomicInteger waiting = new AtomicInteger(1);
+        /** The paths counted so far */
+        private final AtomicLong total = new AtomicLong();
+        /** The counts this task started */
+        private int started;
+
+        Count(int component, int seen, ConcurrentMemo memo, CompletableFuture<Long> paths) {
+            this.component = component;
+            this.seen = seen;
+            this.memo = memo;
+            this.paths = paths;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                // If at target, check if all required have been seen
+                if (component == target) {
+                    memo.complete(LongTable.pack(component, seen), seen == allRequired ? 1L : 0L);
+                    return;
+                }
+
+                // Ask for the count from every outgoing edge
+                for (int next : outgoing[component]) {
+                    int nextSeen = seen | requiredIn[next];
+                    waiting.incrementAndGet();
+                    long known = memo.request(LongTable.pack(next, nextSeen), this::arrive, key -> {
+                        started++;
+                        new Count(next, nextSeen, memo, paths).fork();
+                    });
+                    if (known != ConcurrentMemo.ABSENT) {
+                        arrive(known);
+                    }
+                }
+                if (Counters.ENABLED) {
+                    MEMO_MISSES.add(started);
+                    MEMO_HITS.add(outgoing[component].length - started);
+                }
+
+                // Every edge has been asked for, so the count can finish
+                if (waiting.decrementAndGet() == 0) {
+                    finish();
+                }
+            } catch (RuntimeException | Error e) {
+                paths.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Add the count from one edge, finishing this count in a new task
+         * (rather than deeper in the stack) if it was the last
+         * @param ways the paths from the edge
+         */
+        private void arrive(long ways) {
+            total.addAndGet(ways);
+            if (waiting.decrementAndGet() == 0) {
+                ForkJoinTask.adapt(this::finish).fork();
+            }
+        }
+
+        /**
+         * Store the finished count, passing it on to every count waiting for it
+         */
+        private void finish() {
+            try {
+                memo.complete(LongTable.pack(component, seen), total.get());
+            } catch (RuntimeException | Error e) {
+                paths.completeExceptionally(e);
+            }
+        }
     }
-}
\ No newline at end of file
+}
+
+/**
+ * A JFR event covering one condensation of the device graph into its strongly
+ * connected components
+ */
+@Name("aoc.day11.TarjanBuild")
+@Label("Tarjan Build")
+@Category({ "Advent of Code", "Day 11" })
+class TarjanBuildEvent extends Event {
+    @Label("Devices")
+    int devices;
+
+    @Label("Components")
+    int components;
+}
@@ -1,8 +1,18 @@
-import java.io.File;
-import java.io.FileNotFoundException;
+package day12;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+
+import common.Grid;
+import common.Input;
+import common.Line;
+import common.Result;
+import common.Shardable;
+import common.Solver;
+import common.Tokenizer;
+import harness.Runner;
 
 /**
  * Advent of Code 2025 - Day 12
@@ -11,63 +21,49 @@ import java.util.Scanner;
  * 
  * Brief description of the puzzle.
  */
-public class Aoc12 {
-    private static Map<Integer, Package> packages;
-    private static Region[] regions;
-
-    public static void main(String[] args) throws FileNotFoundException {
-        // Load the data
-        File inputFile = new File("day12.txt");
-        Scanner scan = new Scanner(inputFile);
-       
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-        String data = scan.next();
-        scan.close();
-
-        // Solve the two parts of the puzzle
-        long start = System.nanoTime();
-        prepare(data);
-        long prepped = System.nanoTime();
-        partOne();
-        long first = System.nanoTime();
-        partTwo();
-        long sec = System.nanoTime();
-
-        System.out.println("Preparation duration: " + (prepped - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 1 duration: " + (first - prepped) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+public class Aoc12 implements Solver<Shipment>, Shardable {
+    public static void main(String[] args) throws IOException {
+        Runner.solve(new Aoc12(), "day12.txt");
     }
 
     /**
      * Prepare the data for processing. Break the input into package shapes and region definitions.
-     * @param data raw input data
+     * @param input raw input data
+     * @return the package shapes and the regions to fill
      */
-    public static void prepare(String data) {
-        String[] parts = data.split("\n\n");
+    @Override
+    public Shipment prepare(Input input) {
+        Tokenizer tokens = Tokenizer.of(input);
         
-        // Load packages
-        packages = new HashMap<>();
-        for (int i = 0; i < parts.length - 1; i++) {
-            Package pkg = new Package(parts[i]);
+        // Load packages, each section starting with an id like "4:" rather
+        // than the dimensions of a region like "12x5:"
+        Map<Integer, Package> packages = new HashMap<>();
+        while (!tokens.atEnd() && tokens.count('x') == 0) {
+            Package pkg = new Package(tokens);
             packages.put(pkg.getId(), pkg);
+            tokens.nextLine();
         }
 
         // Load regions        
-        String[] regionParts = parts[parts.length - 1].split("\\R");
-        regions = new Region[regionParts.length];
-        for (int i = 0; i < regionParts.length; i++) {
-            regions[i] = new Region(regionParts[i]);
+        Region[] regions = new Region[tokens.countLines()];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = new Region(tokens);
+            tokens.nextLine();
         }
+
+        return new Shipment(packages, regions);
     }
 
     /**
      * Determine how many regions can fit the packages that need to be placed inside them.
+     * @param shipment the package shapes and the regions to fill
      */
-    public static void partOne() {
+    @Override
+    public Result partOne(Shipment shipment) {
+        Map<Integer, Package> packages = shipment.packages();
         long total = 0;
 
-        for (Region region : regions) {
+        for (Region region : shipment.regions()) {
             int regionArea = region.getWidth() * region.getHeight();
             int packagesArea = 0;
             for (int pkgId = 0; pkgId < region.getPackageQtys().length; pkgId++) {
@@ -89,19 +85,52 @@ public class Aoc12 {
             }
         }
 
-        System.out.println("Part 1: {" + total + "}");
+        return Result.of(total);
     }
 
     /**
      * No part 2.
      */
-    public static void partTwo() {
+    @Override
+    public Result partTwo(Shipment shipment) {
         long total = 0;
 
-        System.out.println("Part 2: {" + total + "}");
+        return Result.of(total);
+    }
+
+    /**
+     * Split the regions into shards, each starting with all the package shapes
+     * @param input the whole input
+     * @param shards the most shards to make
+     * @return the shards
+     */
+    @Override
+    public List<String> shard(Input input, int shards) {
+        StringBuilder shapes = new StringBuilder();
+        List<Line> regions = new ArrayList<>();
+
+        // The regions start at the first line with dimensions like "12x5:"
+        for (Line line : input.lines()) {
+            if (!regions.isEmpty() || line.indexOf('x') >= 0) {
+                if (!line.strip().isEmpty()) {
+                    regions.add(line);
+                }
+            }
+            else {
+                shapes.append(line).append('\n');
+            }
+        }
+        return Shardable.split(shapes.toString(), regions, "\n", shards);
     }
 }
 
+/**
+ * The packages to place and the regions to place them in
+ * @param packages the package shapes keyed by id
+ * @param regions the regions to fill
+ */
+record Shipment(Map<Integer, Package> packages, Region[] regions) {}
+
 /**
  * Represents a package shape.
  */
@@ -111,24 +140,15 @@ class Package {
     private final int height;
     private final int area;
 
-    public Package(String data) {
-        String[] parts = data.split("\\R");
-        this.id = Integer.parseInt(parts[0].substring(0, parts[0].length() - 1));
-        this.width = parts[1].length();
-        this.height = parts.length - 1;
-
-        int count = 0;        
-        String[][] grid = new String[height][];
-        for (int r = 0; r < height; r++) {
-            grid[r] = parts[r + 1].split("");
-            for (int c = 0; c < width; c++) {
-                if (grid[r][c].equals("#")) {
-                    count++;
-                }
-            }
-        }
+    public Package(Tokenizer tokens) {
+        int lines = tokens.countLines();
+        this.id = tokens.nextInt();
+        tokens.nextLine();
+        this.width = tokens.lineLength();
+        this.height = lines - 1;
 
-        this.area = count;
+        // Only the number of filled cells of the shape matters
+        this.area = Grid.read(tokens, height).count((byte) '#');
     }
 
     public int getId() {
@@ -156,17 +176,11 @@ class Region {
     private final int height;
     private final int[] packageQtys;
 
-    public Region(String data) {
-        String[] parts = data.split(":");
-        String[] dimensions = parts[0].trim().split("x");
-        String[] pkgs = parts[1].trim().split(" ");
-
-        this.width = Integer.parseInt(dimensions[0]);
-        this.height = Integer.parseInt(dimensions[1]);
-        this.packageQtys = new int[pkgs.length];
-        for (int i = 0; i < pkgs.length; i++) {
-            this.packageQtys[i] = Integer.parseInt(pkgs[i]);
-        }
+    public Region(Tokenizer tokens) {
+        this.width = tokens.nextInt();
+        this.height = tokens.nextInt();
+        tokens.skipPast(':');
+        this.packageQtys = tokens.nextInts();
     }
     public int getWidth() {
         return width;
@@ -1,7 +1,24 @@
 package day2;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import common.Adaptive;
+import common.Answers;
+import common.CostModel;
+import common.Input;
+import common.Line;
+import common.Records;
+import common.Result;
+import common.Shardable;
+import common.Solver;
+import common.Streaming;
+import common.Tokenizer;
+import common.Tradeoff;
+import harness.Runner;
 
 /**
  * Advent of Code 2025 - Day 2
@@ -10,25 +27,39 @@ import java.util.Scanner;
  * Check product id ranges for invalid ids based on repeating digit patterns
  * and calculate the total of those invalid ids.
  */
-public class Aoc2 {
-    public static void main(String[] args) throws FileNotFoundException {
-        File inputFile = new File("day2.txt");
-        Scanner scan = new Scanner(inputFile);
-       
-        // Get the product id ranges to check for invalid ids
-        String[] ranges = scan.nextLine().split(",");
+public class Aoc2 implements Solver<long[]>, Streaming, Adaptive, Shardable {
+    /** How the ids repeated twice are added up */
+    static final InvalidIdSum DOUBLED = new InvalidIdSum("day2.doubled", false, new CostModel(65.0, 48.0, 0.0));
+    /** How the ids made of any repeated pattern are added up */
+    static final InvalidIdSum REPEATED = new InvalidIdSum("day2.repeated", true, new CostModel(120.0, 66.0, 0.0));
 
-        scan.close();
+    public static void main(String[] args) throws IOException {
+        Runner.solve(new Aoc2(), "day2.txt");
+    }
 
-        // Check for invalid ids
-        long start = System.nanoTime();
-        partOne(ranges);
-        long first = System.nanoTime();
-        partTwo(ranges);
-        long sec = System.nanoTime();
+    /**
+     * Get the product id ranges to check for invalid ids
+     * @param input raw input data
+     * @return the first and last id of each range, one pair after another
+     */
+    @Override
+    public long[] prepare(Input input) {
+        Tokenizer tokens = Tokenizer.of(input);
+        long[] ranges = new long[2 * (tokens.count(',') + 1)];
+
+        // The dash between ids is a delimiter, not a sign. Blank entries (like
+        // the one after a trailing comma) hold no ids, so stop when they run out
+        int count = 0;
+        while (count < ranges.length && !tokens.atEnd()) {
+            if (!tokens.skipToDigit()) {
+                tokens.nextLine();
+                continue;
+            }
+            ranges[count++] = tokens.nextUnsigned();
+            ranges[count++] = tokens.nextUnsigned();
+        }
 
-        System.out.println("Part 1 duration: " + (first - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+        return count == ranges.length ? ranges : Arrays.copyOf(ranges, count);
     }
 
     /**
@@ -36,88 +67,304 @@ public class Aoc2 {
      * repeated twice
      * @param ranges product id ranges
      */
-    public static void partOne(String[] ranges) {
+    @Override
+    public Result partOne(long[] ranges) {
+        // Check every id for short ranges, or count them by their pattern for long ones
+        long total = DOUBLED.solve(ranges);
+
+        return Result.of(total).with("scalable", DOUBLED.prefersScalable(ranges) ? 1 : 0);
+    }
+
+    /**
+     * Check for invalid ids made solely of repeating patterns of digits
+     * @param ranges the product id ranges to check
+     */
+    @Override
+    public Result partTwo(long[] ranges) {
+        // Check every id for short ranges, or count them by their pattern for long ones
+        long total = REPEATED.solve(ranges);
+
+        return Result.of(total).with("scalable", REPEATED.prefersScalable(ranges) ? 1 : 0);
+    }
+
+    /**
+     * Check the ranges as they arrive for both kinds of invalid id
+     * @param in the product id ranges, separated by commas
+     * @return the sums of the invalid ids of each part
+     */
+    @Override
+    public Answers stream(InputStream in) throws IOException {
+        long doubled = 0;
+        long repeated = 0;
+
+        // Blocks end after a comma, so a range is never cut in two
+        Records records = Records.of(in, ',');
+        for (Tokenizer tokens = records.next(); tokens != null; tokens = records.next()) {
+            while (!tokens.atEnd()) {
+                if (!tokens.skipToDigit()) {
+                    tokens.nextLine();
+                    continue;
+                }
+
+                long[] range = { tokens.nextUnsigned(), tokens.nextUnsigned() };
+                doubled += DOUBLED.solve(range);
+                repeated += REPEATED.solve(range);
+            }
+        }
+
+        return new Answers(doubled, repeated);
+    }
+
+    /**
+     * Add up the ids in a range that are a sequence of digits repeated twice
+     * @param start the first id of the range
+     * @param end the last id of the range
+     * @return the sum of the invalid ids
+     */
+    static long sumDoubled(long start, long end) {
         long total = 0;
 
-        // Loop through each range of ids
-        for (String range : ranges) {
-            // Break the range into a first and last id
-            String[] parts = range.split("\\-");
-            long start = Long.parseLong(parts[0]);
-            long end = Long.parseLong(parts[1]);
-
-            // Loop through each id in the range
-            for (long id = start; id <= end; id++) {
-                String textId = "" + id;
-
-                // Check if the two halves of the id are similar
-                if (textId.length() % 2 == 0) {
-                    String first = textId.substring(0, textId.length() / 2);
-                    String second = textId.substring(textId.length()/2);
-
-                    // If they are, the id is invalid
-                    if (first.equals(second)) {
-                        total += id;
-                    }
+        // Loop through each id in the range
+        for (long id = start; id <= end; id++) {
+            String textId = "" + id;
+
+            // Check if the two halves of the id are similar
+            if (textId.length() % 2 == 0) {
+                String first = textId.substring(0, textId.length() / 2);
+                String second = textId.substring(textId.length()/2);
+
+                // If they are, the id is invalid
+                if (first.equals(second)) {
+                    total += id;
                 }
             }
         }
 
-        System.out.println("Part 1: {" + total + "}");
+        return total;
     }
 
     /**
-     * Check for invalid ids made solely of repeating patterns of digits
-     * @param ranges the product id ranges to check
+     * Add up the ids in a range that are made solely of a repeating pattern
+     * of digits
+     * @param start the first id of the range
+     * @param end the last id of the range
+     * @return the sum of the invalid ids
      */
-    public static void partTwo(String[] ranges) {
+    static long sumRepeated(long start, long end) {
         long total = 0;
 
-        // Loop through each range of ids
-        for (String range : ranges) {
-            // Find the first and last id in the range
-            String[] parts = range.split("\\-");
-            long start = Long.parseLong(parts[0]);
-            long end = Long.parseLong(parts[1]);
-
-            // Loop through each id in the range
-            for (long id = start; id <= end; id++) {
-                String textId = "" + id;
+        // Loop through each id in the range
+        for (long id = start; id <= end; id++) {
+            String textId = "" + id;
+            
+            // Check for ids composed solely of any sized repetition
+            for (int size = 1; size <= textId.length() / 2; size++) {
+                if (textId.length() % size != 0) {
+                    continue;
+                }
+
+                boolean invalid = true;
+
+                // Find the part that could be repeating in the id
+                String first = textId.substring(0, size);
                 
-                // Check for ids composed solely of any sized repetition
-                for (int size = 1; size <= textId.length() / 2; size++) {
-                    if (textId.length() % size != 0) {
-                        continue;
+                // check if that part repeats throughout the id                    
+                for (int i = 1; i < textId.length() / size; i++) {
+                    if (!first.equals(textId.substring(i * size, (i + 1) * size))) {
+                        // if not, this could be a valid id
+                        invalid = false;
+                        break;
                     }
+                }
 
-                    boolean invalid = true;
-
-                    // Find the part that could be repeating in the id
-                    String first = textId.substring(0, size);
-                    
-                    // check if that part repeats throughout the id                    
-                    for (int i = 1; i < textId.length() / size; i++) {
-                        if (!first.equals(textId.substring(i * size, (i + 1) * size))) {
-                            // if not, this could be a valid id
-                            invalid = false;
-                            break;
-                        }
-                    }
+                // If the id was only repeating patterns of digits, it's
+                // invalid so mark it
+                if (invalid) {
+                    total += id;
+                    break;
+                }                    
+            }
+        }
 
-                    // If the id was only repeating patterns of digits, it's
-                    // invalid so mark it
-                    if (invalid) {
-                        total += id;
-                        break;
-                    }                    
+        return total;
+    }
+
+    /**
+     * Get the choices of how to add up each kind of invalid id
+     * @return the tradeoffs
+     */
+    @Override
+    public List<Tradeoff<?, ?>> tradeoffs() {
+        return List.of(DOUBLED, REPEATED);
+    }
+
+    /**
+     * Split the ranges into shards of whole ranges
+     * @param input the whole input
+     * @param shards the most shards to make
+     * @return the shards
+     */
+    @Override
+    public List<String> shard(Input input, int shards) {
+        List<Line> ranges = new ArrayList<>();
+        for (Line line : input.lines()) {
+            for (Line range : line.split(',')) {
+                if (!range.strip().isEmpty()) {
+                    ranges.add(range.strip());
                 }
             }
         }
+        return Shardable.split("", ranges, ",", shards);
+    }
+}
 
-        System.out.println("Part 2: {" + total + "}");
+/**
+ * Adding up the invalid ids in ranges: by checking every id, which is quick
+ * for short ranges, or by counting the ids each repeated pattern makes
+ * without visiting them, which takes the same time however long the range is
+ */
+class InvalidIdSum extends Tradeoff<long[], Long> {
+    /** The powers of ten that fit in a long */
+    private static final long[] POWERS = new long[19];
+    /** The Mobius function of 0 to 19, used to count each id with several patterns once */
+    private static final int[] MOBIUS = { 0, 1, -1, -1, 0, -1, 1, -1, 0, 0, 1, -1, 0, -1, 1, 1, 0, -1, 0, -1 };
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < POWERS.length; i++) {
+            POWERS[i] = POWERS[i - 1] * 10;
+        }
+    }
+
+    /** True for ids made of any repeated pattern, false for ids repeated twice */
+    private final boolean anyRepeat;
+
+    /**
+     * Create a way to add up one kind of invalid id
+     * @param name the name of the tradeoff
+     * @param anyRepeat true for ids made of any repeated pattern, false for ids repeated twice
+     * @param defaults the costs to use if the tradeoff has not been measured
+     */
+    InvalidIdSum(String name, boolean anyRepeat, CostModel defaults) {
+        super(name, defaults);
+        this.anyRepeat = anyRepeat;
+    }
+
+    /**
+     * Make a few random ranges of ids
+     * @param size the length of each range
+     */
+    @Override
+    public long[] sample(int size, Random random) {
+        long[] ranges = new long[8];
+        for (int r = 0; r < ranges.length; r += 2) {
+            ranges[r] = random.nextLong(10, POWERS[10]);
+            ranges[r + 1] = ranges[r] + size - 1;
+        }
+        return ranges;
     }
 
-    public static Scanner prepare(String filename) throws FileNotFoundException {
-        return new Scanner(new File(filename));
+    /**
+     * Count the ids the brute-force engine checks
+     */
+    @Override
+    public double bruteWork(long[] ranges) {
+        double ids = 0;
+        for (int r = 0; r < ranges.length; r += 2) {
+            ids += ranges[r + 1] - ranges[r] + 1;
+        }
+        return ids;
+    }
+
+    /**
+     * Count the lengths of id the scalable engine counts patterns for
+     */
+    @Override
+    public double scalableWork(long[] ranges) {
+        double lengths = 0;
+        for (int r = 0; r < ranges.length; r += 2) {
+            lengths += digits(ranges[r + 1]) - digits(ranges[r]) + 1;
+        }
+        return lengths;
+    }
+
+    @Override
+    public Long brute(long[] ranges) {
+        long total = 0;
+
+        // Loop through each range of ids
+        for (int r = 0; r < ranges.length; r += 2) {
+            total += anyRepeat ? Aoc2.sumRepeated(ranges[r], ranges[r + 1])
+                : Aoc2.sumDoubled(ranges[r], ranges[r + 1]);
+        }
+
+        return total;
+    }
+
+    @Override
+    public Long scalable(long[] ranges) {
+        long total = 0;
+
+        // Loop through each range of ids, and each length of id in it
+        for (int r = 0; r < ranges.length; r += 2) {
+            long start = ranges[r];
+            long end = ranges[r + 1];
+            for (int length = digits(start); length <= digits(end); length++) {
+                if (!anyRepeat) {
+                    total += length % 2 == 0 ? sumPattern(start, end, length, length / 2) : 0;
+                    continue;
+                }
+
+                // An id with a pattern of size s also has one of every multiple of s
+                // that fits, so each size is counted with the sign that makes the
+                // union of the sizes count every id once
+                for (int size = 1; size < length; size++) {
+                    if (length % size == 0 && MOBIUS[length / size] != 0) {
+                        total -= MOBIUS[length / size] * sumPattern(start, end, length, size);
+                    }
+                }
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Add up the ids in a range of a given length that are made of one
+     * pattern of digits repeated
+     * @param start the first id of the range
+     * @param end the last id of the range
+     * @param length the number of digits in the ids
+     * @param size the number of digits in the pattern, which divides length
+     * @return the sum of the ids
+     */
+    private static long sumPattern(long start, long end, int length, int size) {
+        // Such an id is its pattern times 1, then size-1 zeros, then 1 and so on
+        long multiplier = 0;
+        for (int i = 0; i < length / size; i++) {
+            multiplier = multiplier * POWERS[size] + 1;
+        }
+
+        // The patterns are the size-digit numbers making ids inside the range
+        long low = Math.max(POWERS[size - 1], start / multiplier + (start % multiplier == 0 ? 0 : 1));
+        long high = Math.min(POWERS[size] - 1, end / multiplier);
+        if (low > high) {
+            return 0;
+        }
+
+        return (low + high) * (high - low + 1) / 2 * multiplier;
+    }
+
+    /**
+     * Count the digits of an id
+     * @param id the id
+     * @return the number of decimal digits, at least 1
+     */
+    private static int digits(long id) {
+        int digits = 1;
+        while (digits < POWERS.length && id >= POWERS[digits]) {
+            digits++;
+        }
+        return digits;
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,18 @@
 package day3;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Scanner;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import common.Counters;
+import common.Counters.Counter;
+import common.Input;
+import common.Line;
+import common.LongTable;
+import common.Result;
+import common.Shardable;
+import common.Solver;
+import common.Tokenizer;
+import harness.Runner;
 
 /**
  * Advent of Code 2025 - Day 3
@@ -12,30 +21,33 @@ import java.util.Scanner;
  * Find the largest joltage number by selecting batteries from banks
  * and concatenating their values.
  */
-public class Aoc3 {
-    public static void main(String[] args) throws FileNotFoundException {
-        // Load the data
-        File inputFile = new File("day3.txt");
-        Scanner scan = new Scanner(inputFile);
-        
-        // Read all lines into a 2D array of integers representing the batteries in the banks
-        String[] lines = scan.useDelimiter("\\Z").next().split("\n");
-        int[][] batteries = new int[lines.length][];
-        for (int i = 0; i < lines.length; i++) {
-            batteries[i] = lines[i].chars().map(c -> c - '0').toArray();
-        }
+public class Aoc3 implements Solver<int[][]>, Shardable {
+    /** Memo lookups that found a known result, and that did not */
+    private static final Counter MEMO_HITS = Counters.counter("day3.memo.hits");
+    private static final Counter MEMO_MISSES = Counters.counter("day3.memo.misses");
 
-        scan.close();
+    public static void main(String[] args) throws IOException {
+        Runner.solve(new Aoc3(), "day3.txt");
+    }
 
-        // Find the largest joltage numbers
-        long start = System.nanoTime();
-        partOne(batteries);
-        long first = System.nanoTime();
-        partTwo(batteries);
-        long sec = System.nanoTime();
+    /**
+     * Read all lines into a 2D array of integers representing the batteries in the banks
+     * @param input raw input data
+     * @return 2D array of batteries, each row is a bank
+     */
+    @Override
+    public int[][] prepare(Input input) {
+        Tokenizer tokens = Tokenizer.of(input);
+        int[][] batteries = new int[tokens.countLines()][];
+        for (int i = 0; i < batteries.length; i++) {
+            batteries[i] = new int[tokens.lineLength()];
+            for (int j = 0; j < batteries[i].length; j++) {
+                batteries[i][j] = tokens.next() - '0';
+            }
+            tokens.nextLine();
+        }
 
-        System.out.println("Part 1 duration: " + (first - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+        return batteries;
     }
 
     /**
@@ -43,15 +55,18 @@ public class Aoc3 {
      * concatenating them.
      * @param banks 2D array of batteries, each row is a bank
      */
-    public static void partOne(int[][] banks) {
+    @Override
+    public Result partOne(int[][] banks) {
         long total = 0;
 
+        LongTable memo = new LongTable(banks.length == 0 ? 0 : banks[0].length * 2);
         for (int[] bank : banks) {
-            long bankLargest = largestN(2, bank, 0, 2, new HashMap<IndexCount, Long>());
+            memo.clear();
+            long bankLargest = largestN(2, bank, 0, 2, memo);
             total += bankLargest;
         }
 
-        System.out.println("Part 1: {" + total + "}");
+        return Result.of(total);
     }
 
     /**
@@ -59,15 +74,18 @@ public class Aoc3 {
      * concatenating them.
      * @param banks 2D array of batteries, each row is a bank
      */
-    public static void partTwo(int[][] banks) {
+    @Override
+    public Result partTwo(int[][] banks) {
         long total = 0;
 
+        LongTable memo = new LongTable(banks.length == 0 ? 0 : banks[0].length * 12);
         for (int[] bank : banks) {
-            long bankLargest = largestN(12, bank, 0, 12, new HashMap<IndexCount, Long>());
+            memo.clear();
+            long bankLargest = largestN(12, bank, 0, 12, memo);
             total += bankLargest;
         }
 
-        System.out.println("Part 2: {" + total + "}");
+        return Result.of(total);
     }
 
     /**
@@ -78,16 +96,24 @@ public class Aoc3 {
      * @param bank array of digits
      * @param index current index in the bank
      * @param count number of digits left to choose
-     * @param memo memoization map to store previously computed results
+     * @param memo memoization table of results keyed by the packed index and count
      * @return largest number that can be formed
      */
-    private static long largestN(int n, int[] bank, int index, int count, Map<IndexCount, Long> memo) {
+    private static long largestN(int n, int[] bank, int index, int count, LongTable memo) {
         if ((bank.length - index) < count || index >= bank.length || count < 1) {
             return 0;
         }
 
-        if (memo.containsKey(new IndexCount(index, count))) {
-            return memo.get(new IndexCount(index, count));
+        long key = LongTable.pack(index, count);
+        long known = memo.get(key);
+        if (known != LongTable.ABSENT) {
+            if (Counters.ENABLED) {
+                MEMO_HITS.increment();
+            }
+            return known;
+        }
+        if (Counters.ENABLED) {
+            MEMO_MISSES.increment();
         }
 
         long take = bank[index];
@@ -98,12 +124,24 @@ public class Aoc3 {
         long skip = largestN(n, bank, index + 1, count, memo);
 
         long largest = Math.max(take, skip);
-        memo.put(new IndexCount(index, count), largest);
+        memo.put(key, largest);
         return largest;
     }
-}
 
-/**
- * Record to hold index and count for memoization
- */
-record IndexCount (int index, int count){}
\ No newline at end of file
+    /**
+     * Split the input into shards of whole banks, one per line
+     * @param input the whole input
+     * @param shards the most shards to make
+     * @return the shards
+     */
+    @Override
+    public List<String> shard(Input input, int shards) {
+        List<Line> banks = new ArrayList<>();
+        for (Line line : input.lines()) {
+            if (!line.strip().isEmpty()) {
+                banks.add(line);
+            }
+        }
+        return Shardable.split("", banks, "\n", shards);
+    }
+}
@@ -1,7 +1,18 @@
 package day4;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+
+import common.Counters;
+import common.Counters.Counter;
+import common.Grid;
+import common.Input;
+import common.Result;
+import common.Solver;
+import harness.Runner;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
 
 /**
  * Advent of Code 2025 - Day 4
@@ -10,32 +21,32 @@ import java.util.Scanner;
  * Find out how many paper rolls can be removed from the warehouse using a forklift
  * that can only access rolls with less than 4 neighboring rolls.
  */
-public class Aoc4 {
-    public static void main(String[] args) throws FileNotFoundException {
-        // Load the data
-        File inputFile = new File("day4.txt");
-        Scanner scan = new Scanner(inputFile);
-
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-
-        String[] lines = scan.next().split("\n");
-        String[][] map = new String[lines.length][];
-        for (int i = 0; i < lines.length; i++) {
-            map[i] = lines[i].split("");
-        }
-
-        scan.close();
-
-        // Solve the aoc parts
-        long start = System.nanoTime();
-        partOne(map);
-        long first = System.nanoTime();
-        partTwo(map);
-        long sec = System.nanoTime();
+public class Aoc4 implements Solver<Grid> {
+    /** A paper roll on the map */
+    private static final byte ROLL = '@';
+    /** An empty space on the map */
+    private static final byte EMPTY = '.';
+    /** Waves of removals, and cells checked for a removable roll by them */
+    private static final Counter WAVES = Counters.counter("day4.waves");
+    private static final Counter CELLS_SCANNED = Counters.counter("day4.cells.scanned");
+    /** The JFR type of the event recorded for each wave of removals */
+    private static final EventType WAVE_EVENTS = EventType.getEventType(RemovalWaveEvent.class);
+
+    /** Each thread's reusable buffers */
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    public static void main(String[] args) throws IOException {
+        Runner.solve(new Aoc4(), "day4.txt");
+    }
 
-        System.out.println("Part 1 duration: " + (first - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+    /**
+     * Break the input into a map of the warehouse
+     * @param input raw input data
+     * @return the map of paper rolls in the warehouse
+     */
+    @Override
+    public Grid prepare(Input input) {
+        return Grid.of(input);
     }
 
     /**
@@ -44,44 +55,23 @@ public class Aoc4 {
      * 
      * @param map The map of paper rolls in the warehouse
      */
-    public static void partOne(String[][] map) {
+    @Override
+    public Result partOne(Grid map) {
         long total = 0;
+        int[] neighbors = map.neighbors();
 
         // Check each roll in the warehouse
-        for (int row = 0; row < map.length; row++) {
-            for (int col = 0; col < map[row].length; col++) {
-                // Skip empty spaces
-                if (!map[row][col].equals("@")) {
-                    continue;
-                }
-
-                int neighbors = 0;
-
-                // Check for neighboring rolls
-                for (int dx = -1; dx <= 1; dx++) {
-                    for (int dy = -1; dy <= 1; dy++) {
-                        if (dx == 0 && dy == 0) {
-                            continue;
-                        }
-                        int newRow = row + dy;
-                        int newCol = col + dx;
-                        if (newRow >= 0 && newRow < map.length &&
-                            newCol >= 0 && newCol < map[row].length) {
-                            if (map[newRow][newCol].equals("@")) {
-                                neighbors++;
-                            }
-                        }
-                    }
-                } 
-                
-                // If less than 4 neighbors, it can be removed
-                if (neighbors < 4) {
+        for (int row = 0; row < map.height(); row++) {
+            int first = map.index(row, 0);
+            for (int i = first; i < first + map.width(); i++) {
+                // If a roll has less than 4 neighboring rolls, it can be removed
+                if (map.get(i) == ROLL && map.count(i, neighbors, ROLL) < 4) {
                     total++;
                 }
             }
         }
 
-        System.out.println("Part 1: {" + total + "}");
+        return Result.of(total);
     }
 
     /**
@@ -89,58 +79,99 @@ public class Aoc4 {
      * 
      * @param map The map of paper rolls in the warehouse
      */
-    public static void partTwo(String[][] map) {
+    @Override
+    public Result partTwo(Grid map) {
         long total = 0;
+        int[] neighbors = map.neighbors();
+
+        // Work on this thread's copy of the map so the prepared map is left as it was
+        Workspace workspace = workspaces.get();
+        map = workspace.map = map.copy(workspace.map);
+        int[] removed = workspace.removed(map.width() * map.height());
 
         // Keep removing rolls until no more can be removed
         boolean done = false;
+        int wave = 0;
         while (!done) {
-            // Assume we are done unless we remove a roll this iteration
-            done = true;
-
-            // Create a new map for the next iteration
-            String[][] nextMap = new String[map.length][map[0].length];
-
-            // Check each roll in the warehouse
-            for (int row = 0; row < map.length; row++) {
-                for (int col = 0; col < map[row].length; col++) {
-                    nextMap[row][col] = map[row][col];
-
-                    // Skip empty spaces
-                    if (!map[row][col].equals("@")) {
-                        continue;
-                    }
-
-                    int neighbors = 0;
-
-                    // Check for neighboring rolls
-                    for (int dx = -1; dx <= 1; dx++) {
-                        for (int dy = -1; dy <= 1; dy++) {
-                            if (dx == 0 && dy == 0) {
-                                continue;
-                            }
-                            int newRow = row + dy;
-                            int newCol = col + dx;
-                            if (newRow >= 0 && newRow < map.length &&
-                                newCol >= 0 && newCol < map[row].length) {
-                                if (map[newRow][newCol].equals("@")) {
-                                    neighbors++;
-                                }
-                            }
-                        }
+            // Only record the wave when a recording wants it, so solving allocates no events
+            RemovalWaveEvent event = WAVE_EVENTS.isEnabled() ? new RemovalWaveEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+            long removedBefore = total;
+
+            // Check each roll in the warehouse, noting the ones that can be removed
+            int count = 0;
+            for (int row = 0; row < map.height(); row++) {
+                int first = map.index(row, 0);
+                for (int i = first; i < first + map.width(); i++) {
+                    // If less than 4 neighbors, it can be removed at the end of this wave
+                    if (map.get(i) == ROLL && map.count(i, neighbors, ROLL) < 4) {
+                        removed[count++] = i;
                     }
+                }
+            }
 
-                    // If less than 4 neighbors, it can be removed so update the next map
-                    if (neighbors < 4) {
-                        total++;
-                        nextMap[row][col] = ".";
-                        done = false;
-                    }                
+            // Remove them all at once, so each wave only sees the rolls left by the last
+            for (int r = 0; r < count; r++) {
+                map.set(removed[r], EMPTY);
+            }
+            total += count;
+            done = count == 0;
+
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.wave = wave;
+                    event.removed = total - removedBefore;
+                    event.commit();
                 }
             }
-            map = nextMap;
+            wave++;
+        }
+
+        if (Counters.ENABLED) {
+            WAVES.add(wave);
+            CELLS_SCANNED.add((long) wave * map.width() * map.height());
         }
 
-        System.out.println("Part 2: {" + total + "}");
+        return Result.of(total).with("waves", wave);
     }
+
+    /**
+     * The buffers part two reuses from one solve to the next on the same
+     * thread, so repeated solves do not allocate a map per wave
+     */
+    private static final class Workspace {
+        /** The map rolls are removed from */
+        Grid map;
+        /** The cells whose rolls are removed in the current wave */
+        private int[] removed = new int[0];
+
+        /**
+         * Get the buffer of removed cells
+         * @param size the most cells that can be removed in one wave
+         * @return a buffer of at least that size
+         */
+        int[] removed(int size) {
+            if (removed.length < size) {
+                removed = new int[size];
+            }
+            return removed;
+        }
+    }
+}
+
+/**
+ * A JFR event covering one pass over the warehouse removing reachable rolls
+ */
+@Name("aoc.day4.RemovalWave")
+@Label("Removal Wave")
+@Category({ "Advent of Code", "Day 4" })
+class RemovalWaveEvent extends Event {
+    @Label("Wave")
+    int wave;
+
+    @Label("Rolls Removed")
+    long removed;
 }
@@ -1,9 +1,25 @@
 package day5;
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Random;
+
+import common.Adaptive;
+import common.Answers;
+import common.CostModel;
+import common.Input;
+import common.Records;
+import common.Referenced;
+import common.Result;
+import common.Solver;
+import common.Streaming;
+import common.Tokenizer;
+import common.Tradeoff;
+import harness.Run;
+import harness.Runner;
 
 /**
  * Advent of Code 2025 - Day 5
@@ -12,84 +28,213 @@ import java.util.Scanner;
  * Determine which ingredients are still fresh based on given ranges
  * and calculate the total number of fresh ingredient ids covered by the ranges.
  */
-public class Aoc5 {
-    public static void main(String[] args) throws FileNotFoundException {
-        // Load the data
-        File inputFile = new File("day5.txt");
-        Scanner scan = new Scanner(inputFile);
-       
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-
-        String data = scan.next();
-
-        // Parse the data
-        String[] parts = data.split("\n\n");
-        
-        // Break into fresh ingredient id ranges and ingredient ids
-        String[] freshRangeStrings = parts[0].split("\n");
-        String[] ingredientStrings = parts[1].split("\n");
-
-        // Convert the fresh ranges to Range objects
-        Range[] freshRanges = new Range[freshRangeStrings.length];
-        for (int i = 0; i < freshRangeStrings.length; i++) {
-            String[] bounds = freshRangeStrings[i].split("-");
-            freshRanges[i] = new Range(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
-        }
+public class Aoc5 implements Solver<Inventory>, Streaming, Adaptive, Referenced {
+    /** How the ranges are merged */
+    static final RangeMerge MERGE = new RangeMerge();
+    /** How the ingredients are looked up in the ranges */
+    static final FreshLookup LOOKUP = new FreshLookup();
+
+    public static void main(String[] args) throws IOException {
+        Run run = Runner.solve(new Aoc5(), "day5.txt");
 
-        // Convert the ingredient strings to numbers
-        long[] ingredients = new long[ingredientStrings.length];
-        for (int i = 0; i < ingredientStrings.length; i++) {
-            ingredients[i] = Long.parseLong(ingredientStrings[i]);
+        // Sanity check part 2 against the bounds learned from earlier submissions
+        if (run.partTwo() >= 366601505152801L || run.partTwo() <= 302898883543177L) {
+            throw new RuntimeException("Total out of bounds!!! (> 302898883543177 < 366601505152801)");
         }
+    }
 
-        scan.close();
+    /**
+     * Parse the fresh ingredient id ranges and the available ingredient ids
+     * @param input raw input data
+     * @return the inventory of ranges and ingredients
+     */
+    @Override
+    public Inventory prepare(Input input) {
+        Tokenizer tokens = Tokenizer.of(input);
+
+        // Read the fresh ranges, up to the blank line, as Range objects
+        Range[] freshRanges = new Range[tokens.countLines()];
+        for (int i = 0; i < freshRanges.length; i++) {
+            freshRanges[i] = new Range(tokens.nextUnsigned(), tokens.nextUnsigned());
+            tokens.nextLine();
+        }
+        tokens.nextLine();
 
-        // Solve the two parts of the puzzle
-        long start = System.nanoTime();
-        partOne(freshRanges, ingredients);
-        long first = System.nanoTime();
-        partTwo(freshRanges);
-        long sec = System.nanoTime();
+        // Read the ingredient ids after the blank line
+        long[] ingredients = new long[tokens.countLines()];
+        for (int i = 0; i < ingredients.length; i++) {
+            ingredients[i] = tokens.nextUnsigned();
+            tokens.nextLine();
+        }
 
-        System.out.println("Part 1 duration: " + (first - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+        return new Inventory(freshRanges, ingredients);
     }
 
     /**
      * Determine how many ingredients are fresh
-     * @param ingredients the available ingredients' ids
-     * @param freshRanges the ranges of fresh ingredient ids
+     * @param inventory the fresh ranges and available ingredients' ids
      */
-    public static void partOne(Range[] freshRanges, long[] ingredients) {
+    @Override
+    public Result partOne(Inventory inventory) {
+        // Scan the ranges for each ingredient, or search merged ranges if there are many
+        long total = LOOKUP.solve(inventory);
+
+        return Result.of(total).with("scalable", LOOKUP.prefersScalable(inventory) ? 1 : 0);
+    }
+
+    /**
+     * Determine the total number of fresh ingredient ids covered by the ranges
+     * @param inventory the fresh ranges and available ingredients' ids
+     */
+    @Override
+    public Result partTwo(Inventory inventory) {
         long total = 0;
 
-        for (long ingredient : ingredients) {
-            boolean isFresh = false;
-            for (Range range : freshRanges) {
-                if (range.contains(ingredient)) {
-                    isFresh = true;
-                    break;
+        // Calculate the total length of the merged ranges
+        for (Range range : MERGE.solve(List.of(inventory.freshRanges()))) {
+            total += range.length();
+        }
+
+        return Result.of(total);
+    }
+
+    /**
+     * Read the fresh ranges, then check each ingredient as it arrives against
+     * the merged ranges. Only the ranges are kept.
+     * @param in the fresh ranges, a blank line and the ingredient ids
+     * @return the number of fresh ingredients and the number of fresh ids
+     */
+    @Override
+    public Answers stream(InputStream in) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+        FreshIndex index = null;
+        long fresh = 0;
+        long freshIds = 0;
+
+        Records records = Records.of(in);
+        for (Tokenizer tokens = records.next(); tokens != null; tokens = records.next()) {
+            while (!tokens.atEnd()) {
+                // The blank line ends the ranges, which can now be merged and
+                // sorted for searching
+                if (index == null && tokens.atLineEnd()) {
+                    List<Range> merged = MERGE.solve(ranges);
+                    index = FreshIndex.of(merged);
+                    for (Range range : merged) {
+                        freshIds += range.length();
+                    }
+                }
+                else if (index == null) {
+                    ranges.add(new Range(tokens.nextUnsigned(), tokens.nextUnsigned()));
+                }
+                else if (tokens.skipToDigit() && index.contains(tokens.nextUnsigned())) {
+                    fresh++;
                 }
+                tokens.nextLine();
             }
+        }
 
-            if (isFresh) {
-                total ++;
+        // Without a blank line there are ranges but no ingredients
+        if (index == null) {
+            for (Range range : MERGE.solve(ranges)) {
+                freshIds += range.length();
             }
         }
 
-        System.out.println("Part 1: {" + total + "}");
+        return new Answers(fresh, freshIds);
     }
 
     /**
-     * Determine the total number of fresh ingredient ids covered by the ranges
-     * @param freshRanges the ranges of fresh ingredient ids
+     * Get the choices of how to merge the ranges and look up the ingredients
+     * @return the tradeoffs
      */
-    public static void partTwo(Range[] freshRanges) {
+    @Override
+    public List<Tradeoff<?, ?>> tradeoffs() {
+        return List.of(MERGE, LOOKUP);
+    }
+
+    /**
+     * Get the code the scalable engines were added to, which always scans
+     * every range and merges the ranges pairwise
+     * @return the reference solver
+     */
+    @Override
+    public Solver<?> reference() {
+        return new Aoc5Reference();
+    }
+}
+
+/**
+ * The original day 5 solver, kept as the reference for the adaptive engines:
+ * it always uses the brute-force engines, whatever the size of the input
+ */
+class Aoc5Reference extends Aoc5 {
+    /**
+     * Determine how many ingredients are fresh by checking each one against every range
+     * @param inventory the fresh ranges and available ingredients' ids
+     */
+    @Override
+    public Result partOne(Inventory inventory) {
+        return Result.of(LOOKUP.brute(inventory));
+    }
+
+    /**
+     * Determine the total number of fresh ingredient ids covered by the
+     * ranges, merging every overlapping pair until none overlap
+     * @param inventory the fresh ranges and available ingredients' ids
+     */
+    @Override
+    public Result partTwo(Inventory inventory) {
         long total = 0;
+        for (Range range : MERGE.brute(List.of(inventory.freshRanges()))) {
+            total += range.length();
+        }
 
-        // Merge overlapping ranges
-        List<Range> mergedRanges = new ArrayList<>(List.of(freshRanges));
+        return Result.of(total);
+    }
+}
+
+/**
+ * Merging the fresh ranges: by repeatedly merging every overlapping pair,
+ * which is quick for a few ranges, or by sorting them and sweeping once
+ */
+class RangeMerge extends Tradeoff<List<Range>, List<Range>> {
+    RangeMerge() {
+        super("day5.merge", new CostModel(8.0, 60.0, 10000.0));
+    }
+
+    /**
+     * Make random ranges, many of which overlap
+     * @param size the number of ranges
+     */
+    @Override
+    public List<Range> sample(int size, Random random) {
+        List<Range> ranges = new ArrayList<>(size);
+        long span = 1L << 40;
+        for (int i = 0; i < size; i++) {
+            long start = random.nextLong(span);
+            ranges.add(new Range(start, start + random.nextLong(span / size + 1)));
+        }
+        return ranges;
+    }
+
+    @Override
+    public double bruteWork(List<Range> ranges) {
+        return (double) ranges.size() * ranges.size();
+    }
+
+    @Override
+    public double scalableWork(List<Range> ranges) {
+        return ranges.size() * log2(ranges.size());
+    }
+
+    /**
+     * Merge overlapping ranges
+     * @param ranges the ranges to merge
+     * @return ranges covering the same ids, none of which overlap
+     */
+    @Override
+    public List<Range> brute(List<Range> ranges) {
+        List<Range> mergedRanges = new ArrayList<>(ranges);
         boolean consolidated = true;
         while (consolidated) {
             consolidated = false;
@@ -98,33 +243,171 @@ public class Aoc5 {
                 for (int j = mergedRanges.size() - 1; j > i; j--) {
                     Range other = mergedRanges.get(j);
                     if (current.overlaps(other)) {                    
-                        // System.out.print("Merged " + other + " into " + current);
                         current = current.merge(other);
-                        // System.out.println(" to form " + current);
                         mergedRanges.set(i, current);
                         mergedRanges.remove(j);
                         consolidated = true;
                     }
                 }
-                // System.out.println(mergedRanges.size());
             }
         }
 
-        // Calculate the total length of the merged ranges
-        for (Range range : mergedRanges) {
-            // System.out.println("Merged Range: " + range);
-            total += range.length();
+        return mergedRanges;
+    }
+
+    /**
+     * Merge overlapping ranges by sorting them by their starts, so that each
+     * range only has to be compared with the one merged before it
+     * @param ranges the ranges to merge
+     * @return ranges covering the same ids, none of which overlap, in order
+     */
+    @Override
+    public List<Range> scalable(List<Range> ranges) {
+        List<Range> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(Range::start));
+
+        List<Range> mergedRanges = new ArrayList<>();
+        for (Range range : sorted) {
+            int last = mergedRanges.size() - 1;
+            if (last >= 0 && mergedRanges.get(last).overlaps(range)) {
+                mergedRanges.set(last, mergedRanges.get(last).merge(range));
+            }
+            else {
+                mergedRanges.add(range);
+            }
+        }
+
+        return mergedRanges;
+    }
+
+    /**
+     * Find the base-two logarithm of a count, for estimating sorts and searches
+     * @param n the count
+     * @return log2(n + 1), which is 0 for no items
+     */
+    static double log2(int n) {
+        return Math.log(n + 1) / Math.log(2);
+    }
+}
+
+/**
+ * Counting the fresh ingredients: by checking each one against every range,
+ * which is quick for a few of either, or by searching the merged ranges
+ */
+class FreshLookup extends Tradeoff<Inventory, Long> {
+    FreshLookup() {
+        super("day5.lookup", new CostModel(0.75, 12.0, 8000.0));
+    }
+
+    /**
+     * Make random ranges and as many random ingredients
+     * @param size the number of ranges and of ingredients
+     */
+    @Override
+    public Inventory sample(int size, Random random) {
+        long span = 1L << 40;
+        long[] ingredients = new long[size];
+        for (int i = 0; i < size; i++) {
+            ingredients[i] = random.nextLong(span);
+        }
+        return new Inventory(Aoc5.MERGE.sample(size, random).toArray(new Range[0]), ingredients);
+    }
+
+    @Override
+    public double bruteWork(Inventory inventory) {
+        return (double) inventory.ingredients().length * inventory.freshRanges().length;
+    }
+
+    @Override
+    public double scalableWork(Inventory inventory) {
+        int ranges = inventory.freshRanges().length;
+        return (ranges + inventory.ingredients().length) * RangeMerge.log2(ranges);
+    }
+
+    /**
+     * Check each ingredient against every range until one holds it
+     * @param inventory the fresh ranges and available ingredients' ids
+     * @return the number of fresh ingredients
+     */
+    @Override
+    public Long brute(Inventory inventory) {
+        long total = 0;
+
+        for (long ingredient : inventory.ingredients()) {
+            boolean isFresh = false;
+            for (Range range : inventory.freshRanges()) {
+                if (range.contains(ingredient)) {
+                    isFresh = true;
+                    break;
+                }
+            }
+
+            if (isFresh) {
+                total ++;
+            }
         }
-                           
-        // System.out.println(mergedRanges.size() + " remaining ranges.");
 
-        System.out.println("Part 2: {" + total + "} > 302898883543177 < 366601505152801");
-        if (total >= 366601505152801L || total <= 302898883543177L) {
-            throw new RuntimeException("Total out of bounds!!!");
+        return total;
+    }
+
+    /**
+     * Merge and sort the ranges, then search them for each ingredient
+     * @param inventory the fresh ranges and available ingredients' ids
+     * @return the number of fresh ingredients
+     */
+    @Override
+    public Long scalable(Inventory inventory) {
+        long total = 0;
+
+        FreshIndex index = FreshIndex.of(Aoc5.MERGE.scalable(List.of(inventory.freshRanges())));
+        for (long ingredient : inventory.ingredients()) {
+            if (index.contains(ingredient)) {
+                total++;
+            }
         }
+
+        return total;
     }
 }
 
+/**
+ * Merged ranges sorted for searching
+ * @param starts the first id of each range, in increasing order
+ * @param ends the last id of each range
+ */
+record FreshIndex(long[] starts, long[] ends) {
+    /**
+     * Index ranges that do not overlap
+     * @param merged the ranges, which must not overlap
+     * @return the index
+     */
+    static FreshIndex of(List<Range> merged) {
+        List<Range> sorted = new ArrayList<>(merged);
+        sorted.sort(Comparator.comparingLong(Range::start));
+        return new FreshIndex(sorted.stream().mapToLong(Range::start).toArray(),
+            sorted.stream().mapToLong(Range::end).toArray());
+    }
+
+    /**
+     * Check whether a range holds an id
+     * @param id the id
+     * @return true if the id is in one of the ranges
+     */
+    boolean contains(long id) {
+        // The only range that could hold the id is the last one starting at or before it
+        int i = Arrays.binarySearch(starts, id);
+        i = i >= 0 ? i : -i - 2;
+        return i >= 0 && id <= ends[i];
+    }
+}
+
+/**
+ * The ingredient database
+ * @param freshRanges the ranges of fresh ingredient ids
+ * @param ingredients the available ingredients' ids
+ */
+record Inventory(Range[] freshRanges, long[] ingredients) {}
+
 /**
  * A range of long integers from start to end, inclusive
  */
@@ -1,7 +1,12 @@
 package day6;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+
+import common.Input;
+import common.Line;
+import common.Result;
+import common.Solver;
+import common.Tokenizer;
+import harness.Runner;
 
 /**
  * Advent of Code 2025 - Day 6
@@ -10,81 +15,75 @@ import java.util.Scanner;
  * Solve vertical math problems for the cephalopods by reading numbers written
  * in columns and applying the specified operations.
  */
-public class Aoc6 {
-    public static void main(String[] args) throws FileNotFoundException {
-        // Load the data
-        File inputFile = new File("day6.txt");
-        Scanner scan = new Scanner(inputFile);
-       
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-        String data = scan.next();
-        String[] lines = data.split("\\R");
-        
-        scan.close();
-
-        // Solve the two parts of the puzzle
-        long start = System.nanoTime();
-        partOne(lines);
-        long first = System.nanoTime();
-        partTwo(lines);
-        long sec = System.nanoTime();
-
-        System.out.println("Part 1 duration: " + (first - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+public class Aoc6 implements Solver<Line[]> {
+    public static void main(String[] args) throws IOException {
+        Runner.solve(new Aoc6(), "day6.txt");
+    }
+
+    /**
+     * Break the worksheet into horizontal lines
+     * @param input raw input data
+     * @return puzzle input broken into horizontal lines
+     */
+    @Override
+    public Line[] prepare(Input input) {
+        return input.lines().toArray(new Line[0]);
     }
 
     /**
      * Solve each math problem and sum the results  
      * @param lines puzzle input broken into horizontal lines
+     * @throws IllegalArgumentException if there is not one operation for each column
      */
-    public static void partOne(String[] lines) {
+    @Override
+    public Result partOne(Line[] lines) {
         long[][] grid = new long[lines.length - 1][];
 
         for (int i = 0; i < lines.length - 1; i++) {
-            String line = lines[i];
-            String[] nums = line.split("\\s+");
-            grid[i] = new long[nums.length];
-
-            // Handle possible leading space
-            int k = 0;
-            if (nums[0].isEmpty()) {
-                k = 1;
-            }
+            // Read the numbers between the runs of spaces
+            Tokenizer nums = Tokenizer.of(lines[i]);
+            grid[i] = new long[nums.countNumbers('\n')];
 
-            for (int j = 0; k < nums.length; j++, k++) {
-                grid[i][j] = Long.parseLong(nums[k]);
+            for (int j = 0; j < grid[i].length; j++) {
+                grid[i][j] = nums.nextUnsigned();
             }
         }
 
-        String[] ops = lines[lines.length - 1].split("\\s+");
+        // Read one operation for each column
+        Tokenizer ops = Tokenizer.of(lines[lines.length - 1]);
+        char[] opList = new char[grid[0].length];
+        int opCount = 0;
+        ops.skipBlanks();
+        while (opCount < opList.length && !ops.atLineEnd()) {
+            opList[opCount++] = (char) ops.next();
+            ops.skipBlanks();
+        }
 
-        if (ops.length != grid[0].length) {
-            System.err.println("Error: number of operations does not match number of columns");
-            System.exit(1);
+        if (opCount != opList.length || !ops.atLineEnd()) {
+            throw new IllegalArgumentException("Number of operations does not match number of columns");
         }
 
         long total = 0;
 
         for (int i = 0; i < grid[0].length; i++) {
-            String op = ops[i];
+            char op = opList[i];
 
             long col = grid[0][i];
             for (int j = 1; j < grid.length; j++) {
                 long val = grid[j][i];
 
                 switch (op) {
-                    case "*":
+                    case '*':
                         col *= val;
                         break;
-                    case "+":
+                    case '+':
                         col += val;
                         break;
                 }
             }
             total += col;
         }
-        System.out.println("Part 1: {" + total + "}");
+        return Result.of(total);
     }
 
     /**
@@ -92,10 +91,12 @@ public class Aoc6 {
      * then sum the results
      * @param lines puzzle input broken into horizontal lines
      */
-    public static void partTwo(String[] lines) {
+    @Override
+    public Result partTwo(Line[] lines) {
         long total = 0;
 
-        String num = "";
+        long num = 0;
+        boolean hasDigits = false;
         char op = ' ';
         long col = 0;
         for (int i = 0; i < lines[0].length(); i++){
@@ -104,29 +105,32 @@ public class Aoc6 {
                 if (lines[j].charAt(i) == ' '){
                     continue;
                 }
-                num += lines[j].charAt(i);
+                num = num * 10 + (lines[j].charAt(i) - '0');
+                hasDigits = true;
             }
 
             if (lines[lines.length - 1].charAt(i) != ' '){
                 // System.out.println(" " + num);
                 total += col;
                 op = lines[lines.length - 1].charAt(i);
-                col = Long.parseLong(num);
-                num = "";
+                col = num;
+                num = 0;
+                hasDigits = false;
             }
             else {
-                if (num.isEmpty()){
+                if (!hasDigits){
                     // System.out.println("=" + col);
                     continue;
                 }
-                long val = Long.parseLong(num);
+                long val = num;
                 if (op == '*') {
                     col *= val;
                 } else {
                     col += val;
                 }
                 // System.out.println(op + num);
-                num = "";
+                num = 0;
+                hasDigits = false;
             }
 
         }
@@ -134,6 +138,6 @@ public class Aoc6 {
         // System.out.println("=" + col);
         total += col;
 
-        System.out.println("Part 2: {" + total + "}");
+        return Result.of(total);
     }
 }
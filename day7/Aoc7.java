@@ -1,12 +1,20 @@
 package day7;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.HashMap;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
 
+import common.Counters;
+import common.Counters.Counter;
+import common.Grid;
+import common.Input;
+import common.LongTable;
+import common.Referenced;
+import common.Result;
+import common.Solver;
+import common.Tokenizer;
+import harness.Runner;
+
 /**
  * Advent of Code 2025 - Day 7
  * @author Brian Dahlem
@@ -14,67 +22,199 @@ import java.util.Set;
  * Simulate a tachyon beam passing through a grid of splitters to determine
  * how many times it splits and how many distinct timelines are created.
  */
-public class Aoc7 {
-    public static void main(String[] args) throws FileNotFoundException {
-        // Load the data
-        File inputFile = new File("day7.txt");
-        Scanner scan = new Scanner(inputFile);
-       
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-        String data = scan.next();
-        String[] lines = data.split("\\R");
-        String[][] grid = new String[lines.length - 1][];
-        for (int i = 0; i < lines.length - 1; i++) {
-            grid[i] = lines[i].split("");
-        }
-
-        scan.close();
+public class Aoc7 implements Solver<Grid>, Referenced {
+    /** Where the beam enters the grid */
+    private static final byte START = 'S';
+    /** A splitter that divides the beam */
+    private static final byte SPLITTER = '^';
 
-        // Determine the number of splits/timelines created
-        long start = System.nanoTime();
-        partOne(grid);
-        long first = System.nanoTime();
-        partTwo(grid);
-        long sec = System.nanoTime();
+    public static void main(String[] args) throws IOException {
+        Runner.solve(new Aoc7(), "day7.txt");
+    }
 
-        System.out.println("Part 1 duration: " + (first - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+    /**
+     * Break the input into a grid of splitters
+     * @param input raw input data
+     * @return the grid of splitters
+     */
+    @Override
+    public Grid prepare(Input input) {
+        // The last line holds no splitters
+        Tokenizer tokens = Tokenizer.of(input);
+        return Grid.read(tokens, tokens.countLines() - 1);
     }
 
     /**
-     * Calculate the number of times the tachyon beam splits
+     * Calculate the number of times the tachyon beam splits, sweeping the
+     * columns holding a beam down the grid one row at a time
      * @param grid The grid of splitters
      */
-    public static void partOne(String[][] grid) {
+    @Override
+    public Result partOne(Grid grid) {
         long splits = 0;
 
-        // Find the starting point
+        // Beams in the same column combine, so a row of beams is a flag per column
+        boolean[] beams = new boolean[grid.width()];
+        boolean[] next = new boolean[grid.width()];
+        beams[findStart(grid)] = true;
+
+        // Process the beam row by row from top to bottom
+        for (int row = 1; row < grid.height(); row++) {
+            Arrays.fill(next, false);
+            for (int col = 0; col < beams.length; col++) {
+                if (!beams[col]) {
+                    continue;
+                }
+
+                // A splitter sends the beam both left and right
+                if (grid.get(row, col) == SPLITTER) {
+                    mark(next, col - 1);
+                    mark(next, col + 1);
+                    splits++;
+                }
+                else {
+                    next[col] = true;
+                }
+            }
+
+            boolean[] swap = beams;
+            beams = next;
+            next = swap;
+        }
+
+        return Result.of(splits);
+    }
+
+    /**
+     * Calculate the number of distinct timelines created by the tachyon beam,
+     * counting the timelines reaching each column one row at a time
+     * @param grid The grid of splitters
+     */
+    @Override
+    public Result partTwo(Grid grid) {
+        // Every timeline starts with the one beam
+        long[] timelines = new long[grid.width()];
+        long[] next = new long[grid.width()];
+        timelines[findStart(grid)] = 1;
+
+        for (int row = 1; row < grid.height(); row++) {
+            Arrays.fill(next, 0);
+            for (int col = 0; col < timelines.length; col++) {
+                if (timelines[col] == 0) {
+                    continue;
+                }
+
+                // A splitter doubles each timeline; a beam leaving the grid ends its timelines
+                if (grid.get(row, col) == SPLITTER) {
+                    add(next, col - 1, timelines[col]);
+                    add(next, col + 1, timelines[col]);
+                }
+                else {
+                    next[col] += timelines[col];
+                }
+            }
+
+            long[] swap = timelines;
+            timelines = next;
+            next = swap;
+        }
+
+        long total = 0;
+        for (long count : timelines) {
+            total += count;
+        }
+
+        return Result.of(total);
+    }
+
+    /**
+     * Get the code these engines replaced, which follows each beam on its own
+     * @return the reference solver
+     */
+    @Override
+    public Solver<?> reference() {
+        return new Aoc7Reference();
+    }
+
+    /**
+     * Find where the beam enters the grid
+     * @param grid The grid of splitters
+     * @return the column of the start in the first row
+     * @throws IllegalArgumentException if the first row has no start
+     */
+    static int findStart(Grid grid) {
         int start = -1;
-        for (int i = 0; i < grid[0].length; i++) {
-            if (grid[0][i].equals("S")) {
+        for (int i = 0; i < grid.width(); i++) {
+            if (grid.get(0, i) == START) {
                 start = i;
             }
         }
 
         // Ensure that a starting point was found
         if (start == -1) {
-            System.err.println("Error: no starting point found");
-            System.exit(1);
+            throw new IllegalArgumentException("No starting point found");
         }
 
+        return start;
+    }
+
+    /**
+     * Put a beam in a column, unless it has left the grid
+     * @param beams the columns holding a beam
+     * @param col the column
+     */
+    private static void mark(boolean[] beams, int col) {
+        if (col >= 0 && col < beams.length) {
+            beams[col] = true;
+        }
+    }
+
+    /**
+     * Add timelines to a column, unless they have left the grid
+     * @param timelines the timelines reaching each column
+     * @param col the column
+     * @param count the timelines to add
+     */
+    private static void add(long[] timelines, int col, long count) {
+        if (col >= 0 && col < timelines.length) {
+            timelines[col] += count;
+        }
+    }
+}
+
+/**
+ * The original day 7 solver, kept as the reference for the engines that
+ * replaced it: part one tracks the beams in a set of columns and part two
+ * follows every timeline recursively, remembering each cell's count.
+ */
+class Aoc7Reference extends Aoc7 {
+    /** A splitter that divides the beam */
+    private static final byte SPLITTER = '^';
+    /** Memo lookups that found a known result, and that did not */
+    private static final Counter MEMO_HITS = Counters.counter("day7.memo.hits");
+    private static final Counter MEMO_MISSES = Counters.counter("day7.memo.misses");
+
+    /**
+     * Calculate the number of times the tachyon beam splits
+     * @param grid The grid of splitters
+     */
+    @Override
+    public Result partOne(Grid grid) {
+        long splits = 0;
+        int start = findStart(grid);
+
         // Simulate the beam through the grid
         Set<Integer> beams = new HashSet<>(); // beams in the same column combine
 
         beams.add(start); // initial beam
 
         // Process the beam row by row from top to bottom
-        for (int row = 1; row < grid.length; row++) {
+        for (int row = 1; row < grid.height(); row++) {
             // Process each beam in the current row
             Set<Integer> newBeams = new HashSet<>();
             for (int beam : beams) {
                 // Check if the beam hits a splitter
-                if (grid[row][beam].equals("^")) {
+                if (grid.get(row, beam) == SPLITTER) {
                     // Beam splits into two new beams
                     newBeams.add(beam - 1);
                     newBeams.add(beam+ 1);
@@ -90,82 +230,74 @@ public class Aoc7 {
             beams = newBeams;
         } 
 
-        System.out.println("Part 1: {" + splits + "}");
+        return Result.of(splits);
     }
 
     /**
      * Calculate the number of distinct timelines created by the tachyon beam
      * @param grid The grid of splitters
      */
-    public static void partTwo(String[][] grid) {
+    @Override
+    public Result partTwo(Grid grid) {
         long total;
-
-        // Find the starting point
-        int start = -1;
-        for (int i = 0; i < grid[0].length; i++) {
-            if (grid[0][i].equals("S")) {
-                start = i;
-            }
-        }
-
-        // Ensure that a starting point was found
-        if (start == -1) {
-            System.err.println("Error: no starting point found");
-            System.exit(1);
-        }
+        int start = findStart(grid);
 
         // Shoot the beam recursively and count distinct timelines created
-        total = shootBeam(grid, new Point(1, start), new HashMap<>());
+        LongTable memo = new LongTable(grid.width() * grid.height());
+        total = shootBeam(grid, 1, start, memo);
 
-        System.out.println("Part 2: {" + total + "}");
+        return Result.of(total).with("memo_entries", memo.size());
     }
 
     /**
      * Recursively shoot the beam through the grid and count the number of distinct timelines
      * created
      * @param grid The grid of splitters
-     * @param p The current point of the beam
-     * @param memo Memoization map to store previously calculated results
-     * @return The number of distinct timelines created by the beam from point p
+     * @param row The row the beam is in
+     * @param col The column the beam is in
+     * @param memo Memoization table of results keyed by the packed row and column
+     * @return The number of distinct timelines created by the beam from the point
      */
-    private static long shootBeam(String[][] grid, Point p, Map<Point, Long> memo) {
+    private static long shootBeam(Grid grid, int row, int col, LongTable memo) {
         // Base case: if the beam has reached the bottom of the grid
-        if (p.row() >= grid.length) {
+        if (row >= grid.height()) {
             return 1;
         }
 
         // Check if the result is already memoized
-        if (memo.containsKey(p)) {
-            return memo.get(p);
+        long key = LongTable.pack(row, col);
+        long known = memo.get(key);
+        if (known != LongTable.ABSENT) {
+            if (Counters.ENABLED) {
+                MEMO_HITS.increment();
+            }
+            return known;
+        }
+        if (Counters.ENABLED) {
+            MEMO_MISSES.increment();
         }
 
         // If the beam is out of bounds, return 0
-        if (p.col() < 0 || p.col() >= grid[0].length) {
+        if (col < 0 || col >= grid.width()) {
             return 0;
         }
 
         // Recursive case: shoot the beam downwards
         long count = 0;
-        if (grid[p.row()][p.col()].equals("^")) {
+        if (grid.get(row, col) == SPLITTER) {
             // If the current cell is a splitter, split the timeline so a beam goes 
             // BOTH left and right
-            count += shootBeam(grid, new Point(p.row() + 1, p.col() - 1), memo);
-            count += shootBeam(grid, new Point(p.row() + 1, p.col() + 1), memo);
+            count += shootBeam(grid, row + 1, col - 1, memo);
+            count += shootBeam(grid, row + 1, col + 1, memo);
         }
         else {
             // Otherwise, just shoot the beam straight down
-            count += shootBeam(grid, new Point(p.row() + 1, p.col()), memo);
+            count += shootBeam(grid, row + 1, col, memo);
 
         }
 
         // Memoize the result before returning
-        memo.put(p, count);
+        memo.put(key, count);
         return count;
     }
 }
-
-/**
- * A simple record to represent a point in the grid
- */
-record Point(int row, int col) {};
-
@@ -1,15 +1,18 @@
 package day8;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
-import java.util.Scanner;
-import java.util.Set;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+import common.Counters;
+import common.Counters.Counter;
+import common.Input;
+import common.ParallelParse;
+import common.Result;
+import common.Snapshottable;
+import common.Tokenizer;
+import harness.Runner;
 
 /**
  * Advent of Code 2025 - Day 8
@@ -17,180 +20,350 @@ import java.util.Set;
  * 
  * Connect junction boxes (points) in 3D space into circuits to minimize wiring
  * distance so that the elves can set up their holiday lights!
+ *
+ * The pairs are kept in primitive arrays rather than an object per pair, and
+ * each prepared input owns its own arrays. Part two uses up the pairs, so once
+ * it finishes it hands the arrays back to the solver for the next prepare to
+ * reuse, saving repeated solves from allocating them again. Only one spare set
+ * is kept, and only softly, so an idle solver does not hold on to it. Solving
+ * prepared data again after its arrays were handed on fails rather than
+ * giving a wrong answer.
  */
-public class Aoc8 {
-    public static void main(String[] args) throws FileNotFoundException {
-        int numPairs; String datafile;
+public class Aoc8 implements Snapshottable<Aoc8.CircuitConnectionInfo> {
+    /** Pairs put in the heap, and taken from it to be connected */
+    private static final Counter HEAP_PUSHES = Counters.counter("day8.heap.pushes");
+    private static final Counter HEAP_POLLS = Counters.counter("day8.heap.polls");
+    /** The number of closest pairs to connect in part one */
+    private final int numPairs;
+    /** The structures of a finished solve, waiting for the next prepare to reuse them */
+    private final AtomicReference<SoftReference<Workspace>> spare = new AtomicReference<>();
 
+    public static void main(String[] args) throws IOException {
         boolean sample = false;//true;
         if (sample) {
-            numPairs = 10;
-            datafile = "sample8.txt";
+            Runner.solve(new Aoc8(10), "sample8.txt");
         }
         else {
-            numPairs = 1000;
-            datafile = "day8.txt";
+            Runner.solve(new Aoc8(), "day8.txt");
         }
+    }
 
-        // Load the data
-        File inputFile = new File(datafile);
-        Scanner scan = new Scanner(inputFile);
+    /**
+     * Create a solver that connects the 1000 closest pairs in part one
+     */
+    public Aoc8() {
+        this(1000);
+    }
 
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-        String data = scan.next();
-        scan.close();
+    /**
+     * Create a solver that connects a given number of closest pairs in part one
+     * @param numPairs number of pairs to connect
+     */
+    public Aoc8(int numPairs) {
+        this.numPairs = numPairs;
+    }
 
-        // Solve the two parts of the puzzle
-        long start = System.nanoTime();
-        CircuitConnectionInfo circuitConnections = prepare(data);
+    /**
+     * Parse the input data into useful structures
+     * @param input raw input data 
+     */
+    @Override
+    public CircuitConnectionInfo prepare(Input input) {
+        // Parse the points from the input data, several lines at once when it is large
+        Point3D[] points = ParallelParse.lines(input, Point3D::from, Point3D[]::new);
 
-        long prepped = System.nanoTime();
-        partOne(numPairs, circuitConnections);
-        long first = System.nanoTime();
-        partTwo(circuitConnections);
-        long sec = System.nanoTime();
+        return connect(points);
+    }
 
-        System.out.println("Preparation duration: " + (prepped - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 1 duration: " + (first - prepped) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+    /**
+     * Write the points to a snapshot, as a column of each coordinate
+     * @param circuitConnections the points just prepared
+     * @param out where to write the snapshot
+     */
+    @Override
+    public void save(CircuitConnectionInfo circuitConnections, DataOutput out) throws IOException {
+        Point3D[] points = circuitConnections.points();
+        int[][] columns = new int[3][points.length];
+        for (int i = 0; i < points.length; i++) {
+            columns[0][i] = points[i].x();
+            columns[1][i] = points[i].y();
+            columns[2][i] = points[i].z();
+        }
+        for (int[] column : columns) {
+            Snapshottable.writeInts(out, column);
+        }
     }
 
     /**
-     * Parse the input data into useful structures
-     * @param data raw input data 
+     * Read the points back from a snapshot and pair them up as prepare does
+     * @param in the snapshot
+     * @return the pairs sorted by distance and the circuits of connected points
      */
-    public static CircuitConnectionInfo prepare(String data) {
-        // Parse the points from the input data
-        String[] lines = data.split("\\R");
-        Point3D[] points = new Point3D[lines.length];
-        for (int i = 0; i < lines.length; i++) {
-            points[i] = Point3D.from(lines[i]);
+    @Override
+    public CircuitConnectionInfo load(ByteBuffer in) {
+        int[] x = Snapshottable.readInts(in);
+        int[] y = Snapshottable.readInts(in);
+        int[] z = Snapshottable.readInts(in);
+
+        Point3D[] points = new Point3D[x.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point3D(x[i], y[i], z[i]);
         }
 
-        // Create all pairs of points and add them to a priority queue (sorted by distance)
-        Queue<Pair> connectedPairs = new PriorityQueue<>(points.length * (points.length - 1) / 2);
-        for (int j = 0; j < points.length; j++) {
-            Point3D p1 = points[j];
-            for (int k = j + 1; k < points.length; k++) {
-                connectedPairs.add(new Pair(p1, points[k]));
-            }
+        return connect(points);
+    }
+
+    /**
+     * Get ready to connect points into circuits
+     * @param points the points
+     * @return the pairs sorted by distance and the circuits of connected points
+     */
+    private CircuitConnectionInfo connect(Point3D[] points) {
+        // Take over the structures of a finished solve, if there are any
+        SoftReference<Workspace> reference = spare.getAndSet(null);
+        Workspace workspace = reference == null ? null : reference.get();
+        if (workspace == null) {
+            workspace = new Workspace();
         }
 
-        // Initialize each point as its own circuit
-        List<Circuit> circuits = new ArrayList<>(points.length);
-        Map<Point3D, Circuit> circuitMap = new HashMap<>(points.length);
-        for (Point3D p : points) {
-            Circuit c = new Circuit();
-            c.add(p);
-            circuits.add(c);
-            circuitMap.put(p, c);
+        // Put all pairs of points in the heap (sorted by distance), and each
+        // point in a circuit of its own
+        workspace.pairs().reset(points);
+        if (Counters.ENABLED) {
+            HEAP_PUSHES.add((long) points.length * (points.length - 1) / 2);
         }
+        workspace.circuits().reset(points.length);
 
-        return new CircuitConnectionInfo(connectedPairs, circuitMap, circuits);
+        return new CircuitConnectionInfo(points, workspace.pairs(), workspace.circuits(),
+            workspace.pairs().generation());
     }
 
     /**
      * Connect the closest pairs of points into circuits
-     * @param numPairs number of pairs to connect
-     * @param circuits the circuits of connected points
-     * @param circuitMap map of points to the circuits they belong to
-     * @param connectedPairs priority queue of connected pairs of points sorted by distance
+     * @param circuitConnections the pairs sorted by distance and the circuits of
+     *        connected points
      */
-    public static void partOne(int numPairs, CircuitConnectionInfo circuitConnections) {
+    @Override
+    public Result partOne(CircuitConnectionInfo circuitConnections) {
+        circuitConnections.checkCurrent();
+
         // Connect the closest pairs of points into circuits
         for (int i = 0; i < numPairs; i++) {
             connectNextPair(circuitConnections);
         }
         
-        List<Circuit> circuits = circuitConnections.circuits();
-
-        // Sort circuits by size largest to smallest
-        circuits.sort((a, b) -> b.size() - a.size());
         // Calculate the product of the sizes of the three largest circuits
         long total = 1;
-        for (int i = 0; i < 3; i++) {
-            Circuit c = circuits.get(i);
-            total *= c.size();
+        for (int size : circuitConnections.circuits().largest(3)) {
+            total *= size;
         }
 
-        System.out.println("Part 1: {" + total + "}");
+        return Result.of(total);
     }
 
     /**
      * Connect the closest pairs of points into circuits until all points are connected in one circuit
-     * @param circuits the circuits of connected points
-     * @param circuitMap map of points to the circuits they belong to
-     * @param connectedPairs priority queue of connected pairs of points sorted by distance
+     * @param circuitConnections the pairs sorted by distance and the circuits of
+     *        connected points
      */
-    public static void partTwo(CircuitConnectionInfo circuitConnections) {
+    @Override
+    public Result partTwo(CircuitConnectionInfo circuitConnections) {
+        circuitConnections.checkCurrent();
+
         // Connect the closest pairs of points into circuits
-        Pair pair = null;
-        while(circuitConnections.circuits().size() > 1) {
+        int pair = -1;
+        while(circuitConnections.circuits().count() > 1) {
             pair = connectNextPair(circuitConnections);
         }
         
         // Calculate the distance from the wall to the last pair
-        long total = pair.p1().x() * pair.p2().x();
+        Point3D[] points = circuitConnections.points();
+        PairHeap pairs = circuitConnections.connectedPairs();
+        long total = (long) points[pairs.first(pair)].x() * points[pairs.second(pair)].x();
 
-        System.out.println("Part 2: {" + total + "}");
-    }
+        // The pairs are used up, so the next prepare can have their structures
+        spare.set(new SoftReference<>(new Workspace(pairs, circuitConnections.circuits())));
 
-    private static Pair connectNextPair(CircuitConnectionInfo circuitConnections) {
-        Queue<Pair> connectedPairs = circuitConnections.connectedPairs();
-        Map<Point3D, Circuit> circuitMap = circuitConnections.circuitMap();
-        List<Circuit> circuits = circuitConnections.circuits();
+        return Result.of(total);
+    }
 
-        Pair pair = connectedPairs.poll();
-        Circuit c1 = circuitMap.get(pair.p1());
-        Circuit c2 = circuitMap.get(pair.p2());
+    /**
+     * Connect the closest pair of points not yet tried
+     * @param circuitConnections the pairs sorted by distance and the circuits of
+     *        connected points
+     * @return the pair that was connected
+     */
+    private static int connectNextPair(CircuitConnectionInfo circuitConnections) {
+        PairHeap connectedPairs = circuitConnections.connectedPairs();
 
         // Merge the two circuits if they are not the same circuit
-        if (c1 != c2) {
-            Circuit merged = c1.merge(c2, circuitMap);
-            circuits.remove(c1);
-            circuits.remove(c2);
-            circuits.add(merged);
+        int pair = connectedPairs.poll();
+        if (Counters.ENABLED) {
+            HEAP_POLLS.increment();
         }
+        circuitConnections.circuits().merge(connectedPairs.first(pair), connectedPairs.second(pair));
 
         return pair;
     }
 
     /**
      * A record to hold prepped data structures
+     * @param points the points
+     * @param connectedPairs the pairs not yet connected, sorted by distance
+     * @param circuits the circuits of connected points
+     * @param generation which filling of the heap the pairs came from
      */
-    record CircuitConnectionInfo(Queue<Pair> connectedPairs, Map<Point3D, Circuit> circuitMap, List<Circuit> circuits) {}
+    record CircuitConnectionInfo(Point3D[] points, PairHeap connectedPairs, Circuits circuits, int generation) {
+        /**
+         * Make sure the structures still hold this data, failing if part two
+         * has handed them on to a later prepare
+         */
+        void checkCurrent() {
+            if (connectedPairs.generation() != generation) {
+                throw new IllegalStateException(
+                    "Day 8's prepared data was used up by part two and reused by a later prepare");
+            }
+        }
+    }
+
+    /**
+     * The structures one prepared input owns, passed on to the next prepare
+     * once part two has used them up
+     * @param pairs the heap of pairs
+     * @param circuits the circuits of connected points
+     */
+    private record Workspace(PairHeap pairs, Circuits circuits) {
+        Workspace() {
+            this(new PairHeap(), new Circuits());
+        }
+    }
 }
 
 /**
- * A pair of 3D points and their squared distance
+ * A min-heap of every pair of a set of points, ordered by their squared
+ * distance. Each pair is numbered, and its points and distance are kept in
+ * primitive arrays by that number, so the heap holds no objects and its
+ * arrays can be reused for the next set of points.
  */
-record Pair(Point3D p1, Point3D p2, long distance) implements Comparable<Pair> {
-    public Pair(Point3D p1, Point3D p2) {
-        this(p1, p2, p1.distanceSquared(p2));
+class PairHeap {
+    /** The most pairs the arrays can hold */
+    private static final int MAX_PAIRS = Integer.MAX_VALUE - 8;
+
+    /** The first point of each pair */
+    private int[] first = new int[0];
+    /** The second point of each pair */
+    private int[] second = new int[0];
+    /** The squared distance between the points of each pair */
+    private long[] distance = new long[0];
+    /** The numbers of the pairs not yet polled, as a binary heap */
+    private int[] heap = new int[0];
+    /** The number of pairs not yet polled */
+    private int size;
+    /** The number of times the heap has been filled */
+    private int generation;
+
+    /**
+     * Replace the contents of the heap with every pair of a set of points
+     * @param points the points
+     */
+    public void reset(Point3D[] points) {
+        long count = (long) points.length * (points.length - 1) / 2;
+        if (count > MAX_PAIRS) {
+            throw new IllegalArgumentException("Too many points to pair: " + points.length
+                + " points make " + count + " pairs, but at most " + MAX_PAIRS + " fit in the heap");
+        }
+        int pairs = (int) count;
+        generation++;
+        if (heap.length < pairs) {
+            first = new int[pairs];
+            second = new int[pairs];
+            distance = new long[pairs];
+            heap = new int[pairs];
+        }
+
+        // Number the pairs
+        int pair = 0;
+        for (int j = 0; j < points.length; j++) {
+            Point3D p1 = points[j];
+            for (int k = j + 1; k < points.length; k++) {
+                first[pair] = j;
+                second[pair] = k;
+                distance[pair] = p1.distanceSquared(points[k]);
+                heap[pair] = pair;
+                pair++;
+            }
+        }
+        size = pairs;
+
+        // Put them in heap order from the bottom up
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
     }
 
     /**
-     * Check if this pair is equal to another pair (regardless of order)
-     * @param o the other pair
-     * @return true if the pairs are equal, false otherwise
+     * Get the number of times the heap has been filled, which identifies its
+     * current contents
+     * @return the number of resets so far
      */
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Pair pair = (Pair) o;
-        return (p1.equals(pair.p1) && p2.equals(pair.p2)) ||
-            (p1.equals(pair.p2) && p2.equals(pair.p1));
+    public int generation() {
+        return generation;
+    }
+
+    /**
+     * Remove the closest pair not yet polled
+     * @return the number of the pair
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Every pair has been polled");
+        }
+        int pair = heap[0];
+        heap[0] = heap[--size];
+        siftDown(0);
+        return pair;
+    }
+
+    /**
+     * Get the first point of a pair
+     * @param pair the number of the pair
+     * @return the index of the point
+     */
+    public int first(int pair) {
+        return first[pair];
+    }
+
+    /**
+     * Get the second point of a pair
+     * @param pair the number of the pair
+     * @return the index of the point
+     */
+    public int second(int pair) {
+        return second[pair];
     }
 
     /**
-     * Compare this pair to another pair based on their distance
-     * @param other the other pair
-     * @return negative if this pair is closer, positive if farther, zero if equal
-     */        @Override
-    public int compareTo(Pair other) {
-        return Long.compare(this.distance, other.distance);
+     * Move a pair down the heap until it is no farther than the pairs below it
+     * @param i the position of the pair in the heap
+     */
+    private void siftDown(int i) {
+        int pair = heap[i];
+        long d = distance[pair];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && distance[heap[child + 1]] < distance[heap[child]]) {
+                child++;
+            }
+            if (distance[heap[child]] >= d) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = pair;
     }
 }
 
@@ -199,13 +372,12 @@ record Pair(Point3D p1, Point3D p2, long distance) implements Comparable<Pair> {
  */
 record Point3D(int x, int y, int z) {
     /**
-     * Create a Point3D from a comma-separated string
-     * @param s the string
+     * Read a Point3D from a comma-separated line
+     * @param tokens a tokenizer at the start of the line
      * @return the Point3D
      */
-    public static Point3D from (String s) {
-        String[] parts = s.split(",");
-        return new Point3D(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+    public static Point3D from (Tokenizer tokens) {
+        return new Point3D(tokens.nextInt(), tokens.nextInt(), tokens.nextInt());
     }
 
     /**
@@ -222,42 +394,100 @@ record Point3D(int x, int y, int z) {
 }
 
 /**
- * A circuit of connected points
+ * The circuits of connected points, as a disjoint set forest over the
+ * points' indexes. The arrays can be reused for the next set of points.
  */
-class Circuit {
-    // The points in the circuit
-    private Set<Point3D> points = new LinkedHashSet<>();
-    
+class Circuits {
+    /** The point each point's circuit is reached through, or itself at the root */
+    private int[] parent = new int[0];
+    /** The number of points in the circuit of each root */
+    private int[] size = new int[0];
+    /** The number of points */
+    private int points;
+    /** The number of circuits */
+    private int count;
+
     /**
-     * Add a point to the circuit
-     * @param p the point to add
+     * Put each of a number of points in a circuit of its own
+     * @param points the number of points
      */
-    public void add(Point3D p) {
-        points.add(p);
+    public void reset(int points) {
+        if (parent.length < points) {
+            parent = new int[points];
+            size = new int[points];
+        }
+        for (int p = 0; p < points; p++) {
+            parent[p] = p;
+            size[p] = 1;
+        }
+        this.points = points;
+        count = points;
     }
 
     /**
-     * Get the size of the circuit
-     * @return the number of points in the circuit
+     * Get the number of circuits
+     * @return the number of circuits
      */
-    public int size() {
-        return points.size();
+    public int count() {
+        return count;
     }
 
     /**
-     * Merge this circuit with another circuit
-     * @param other the other circuit
-     * @param circuitMap the map of points to circuits
-     * @return the merged circuit
+     * Merge the circuits of two points, if they are not the same circuit
+     * @param p1 the index of one point
+     * @param p2 the index of the other point
      */
-    public Circuit merge(Circuit other, Map<Point3D,Circuit> circuitMap) {
-        Circuit larger = this.size() >= other.size() ? this : other;
-        Circuit smaller = this.size() >= other.size() ? other : this;
-        
-        larger.points.addAll(smaller.points);
-        for (Point3D p : smaller.points) {
-            circuitMap.put(p, larger);
+    public void merge(int p1, int p2) {
+        int c1 = root(p1);
+        int c2 = root(p2);
+        if (c1 == c2) {
+            return;
+        }
+
+        // The smaller circuit joins the larger
+        int larger = size[c1] >= size[c2] ? c1 : c2;
+        int smaller = larger == c1 ? c2 : c1;
+        parent[smaller] = larger;
+        size[larger] += size[smaller];
+        count--;
+    }
+
+    /**
+     * Find the sizes of the largest circuits
+     * @param n the number of circuits
+     * @return the sizes of the n largest circuits, largest first
+     */
+    public int[] largest(int n) {
+        int[] largest = new int[n];
+        for (int p = 0; p < points; p++) {
+            if (parent[p] != p) {
+                continue;
+            }
+
+            // Insert the circuit's size into the sizes found so far
+            int s = size[p];
+            for (int i = 0; i < n; i++) {
+                if (s > largest[i]) {
+                    int smaller = largest[i];
+                    largest[i] = s;
+                    s = smaller;
+                }
+            }
         }
-        return larger;
+        return largest;
     }
-}   
+
+    /**
+     * Find the point a point's circuit is reached through
+     * @param p the index of the point
+     * @return the index of the circuit's root
+     */
+    private int root(int p) {
+        while (parent[p] != p) {
+            // Skip every other step on the way, to keep the paths short
+            parent[p] = parent[parent[p]];
+            p = parent[p];
+        }
+        return p;
+    }
+}
@@ -1,7 +1,15 @@
 package day9;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+
+import common.Counters;
+import common.Counters.Counter;
+import common.Input;
+import common.ParallelParse;
+import common.Result;
+import common.Solver;
+import common.Tokenizer;
+import harness.Run;
+import harness.Runner;
 
 /**
  * Advent of Code 2025 - Day 9
@@ -11,51 +19,37 @@ import java.util.Scanner;
  * corners, and then find the largest such area that does not contain spaces
  * outside the polygon formed by connecting all points in order.
  */
-public class Aoc9 {
-    public static void main(String[] args) throws FileNotFoundException {
-        // Load the data
-        File inputFile = new File("day9.txt");
-        Scanner scan = new Scanner(inputFile);
-       
-        // Load the entire data as one token
-        scan.useDelimiter("\\A");
-        String data = scan.next();
-        scan.close();
-
-        // Solve the two parts of the puzzle
-        long start = System.nanoTime();
-        Point[] points = prepare(data);
-        long prepped = System.nanoTime();
-        partOne(points);
-        long first = System.nanoTime();
-        partTwo(points);
-        long sec = System.nanoTime();
-
-        System.out.println("Preparation duration: " + (prepped - start) / 1000 / 1000 + "ms");
-        System.out.println("Part 1 duration: " + (first - prepped) / 1000 / 1000 + "ms");
-        System.out.println("Part 2 duration: " + (sec - first) / 1000 / 1000 + "ms");
+public class Aoc9 implements Solver<Point[]> {
+    /** Edges of the loop tested against a candidate rectangle */
+    private static final Counter EDGES_TESTED = Counters.counter("day9.edges.tested");
+
+    public static void main(String[] args) throws IOException {
+        Run run = Runner.solve(new Aoc9(), "day9.txt");
+
+        // Sanity check part 2 against the bounds learned from earlier submissions
+        if (run.partTwo() <= 1529641011L) {
+            throw new AssertionError("Max area too small: " + run.partTwo());
+        }
+        if (run.partTwo() >= 4650823975L) {
+            throw new AssertionError("Max area too large: " + run.partTwo());
+        }
     }
 
     /**
      * Convert raw input data into an array of Points
-     * @param data raw input data 
+     * @param input raw input data 
      */
-    public static Point[] prepare(String data) {
-        String[] lines = data.split("\\R");
-        Point[] points = new Point[lines.length];
-
-        for (int i = 0; i < lines.length; i++) {
-            points[i] = Point.from(lines[i]);
-        }
-
-        return points;
+    @Override
+    public Point[] prepare(Input input) {
+        return ParallelParse.lines(input, Point::from, Point[]::new);
     }
 
     /**
      * Find the largest rectangle area defined by any two points
      * @param points array of points
      */
-    public static void partOne(Point[] points) {
+    @Override
+    public Result partOne(Point[] points) {
         long maxArea = 0;
 
         // Iterate over all pairs of points
@@ -74,15 +68,17 @@ public class Aoc9 {
             }
         }
 
-        System.out.println("Part 1: {" + maxArea + "}");
+        return Result.of(maxArea);
     }
 
     /**
      * Find the largest rectangle area defined by any two points that does not intersect any line segments
      * @param points the array of points
      */
-    public static void partTwo(Point[] points) {
+    @Override
+    public Result partTwo(Point[] points) {
         long maxArea = 0;
+        long tested = 0;
 
         // Iterate over all pairs of points
         for (int i = 0; i < points.length - 1; i++) {
@@ -113,6 +109,7 @@ public class Aoc9 {
                         // Get the current line segment defined by points[k] and points[(k + 1) % points.length]
                         Point p3 = points[k];
                         Point p4 = points[l];
+                        tested++;
 
                         // check if the line between p3 and p4 intersects the rectangle formed by p1 and p2
                         if (intersectsRectangle(p3, p4, rectLeft, rectRight, rectTop, rectBottom)) {
@@ -128,14 +125,10 @@ public class Aoc9 {
             }
         }
 
-        if (maxArea <= 1529641011L) {
-            throw new AssertionError("Max area too small: " + maxArea);
+        if (Counters.ENABLED) {
+            EDGES_TESTED.add(tested);
         }
-        if (maxArea >= 4650823975L) {
-            throw new AssertionError("Max area too large: " + maxArea);
-        }
-
-        System.out.println("Part 2: {" + maxArea + "}");
+        return Result.of(maxArea);
     }
 
     /**
@@ -181,12 +174,11 @@ public class Aoc9 {
  */
 record Point(long x, long y) {
     /**
-     * Create a Point from a string in the format "x,y"
-     * @param line the input string
+     * Read a Point from a line in the format "x,y"
+     * @param tokens a tokenizer at the start of the line
      * @return the created Point
      */
-    public static Point from(String line) {
-        String[] parts = line.split(",");
-        return new Point(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    public static Point from(Tokenizer tokens) {
+        return new Point(tokens.nextInt(), tokens.nextInt());
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 10 inputs: one machine per line, such as
+ * "[.##.] (3) (1,3) (2) (2,3) (0,2) (0,1) {3,5,4,7}".
+ * @author Brian Dahlem
+ *
+ * The size is the number of machines. Like the puzzle, machines have 4 to 10
+ * lights and 3 to 13 buttons and every light is wired to at least one button.
+ * The light goal and joltages are produced by actually pressing the buttons,
+ * so every machine can be solved.
+ */
+public class Day10Generator implements Generator {
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        for (int m = 0; m < size; m++) {
+            int lights = random.nextInt(4, 11);
+            int numButtons = random.nextInt(3, 14);
+
+            // Wire each button to a random set of lights
+            boolean[][] wiring = new boolean[numButtons][lights];
+            for (boolean[] button : wiring) {
+                int wired = random.nextInt(1, lights + 1);
+                for (int i = 0; i < wired; i++) {
+                    button[random.nextInt(lights)] = true;
+                }
+            }
+
+            // Make sure every light can be reached
+            for (int light = 0; light < lights; light++) {
+                boolean reached = false;
+                for (boolean[] button : wiring) {
+                    reached |= button[light];
+                }
+                if (!reached) {
+                    wiring[random.nextInt(numButtons)][light] = true;
+                }
+            }
+
+            // Press the buttons to find the goals
+            boolean[] goal = new boolean[lights];
+            int[] joltage = new int[lights];
+            for (boolean[] button : wiring) {
+                boolean toggled = random.nextBoolean();
+                int presses = random.nextInt(16);
+                for (int light = 0; light < lights; light++) {
+                    if (button[light]) {
+                        goal[light] ^= toggled;
+                        joltage[light] += presses;
+                    }
+                }
+            }
+
+            // Write the machine
+            StringBuilder line = new StringBuilder("[");
+            for (boolean on : goal) {
+                line.append(on ? '#' : '.');
+            }
+            line.append(']');
+
+            for (boolean[] button : wiring) {
+                line.append(" (");
+                String sep = "";
+                for (int light = 0; light < lights; light++) {
+                    if (button[light]) {
+                        line.append(sep).append(light);
+                        sep = ",";
+                    }
+                }
+                line.append(')');
+            }
+
+            line.append(" {");
+            for (int light = 0; light < lights; light++) {
+                line.append(light > 0 ? "," : "").append(joltage[light]);
+            }
+            line.append("}\n");
+
+            out.append(line);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 11 inputs: one device per line with the devices its outputs
+ * connect to, such as "aaa: you hhh".
+ * @author Brian Dahlem
+ *
+ * The size is the number of devices (at least 8). Devices are laid out in a
+ * line and each connects to the next device plus up to 2 more a short way
+ * further along it, so the network has no loops and every path ends at 'out'.
+ * 'svr' starts the line, 'fft' and 'dac' sit a third and two thirds of the way along, and 'you'
+ * sits near the end so that part one has a manageable number of paths.
+ * Other devices get names of three or more letters.
+ */
+public class Day11Generator implements Generator {
+    /** How far along the line a device's outputs can reach */
+    private static final int REACH = 12;
+    /** The names of the devices the puzzle looks for */
+    private static final Set<String> SPECIAL = Set.of("svr", "you", "out", "fft", "dac");
+
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        size = Math.max(size, 8);
+        int nameLength = Math.max(3, (int) Math.ceil(Math.log(size) / Math.log(26)));
+
+        int you = Math.max(size - 3 * REACH, 2 * size / 3 + 1);
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = name(i, nameLength);
+        }
+        names[0] = "svr";
+        names[size / 3] = "fft";
+        names[2 * size / 3] = "dac";
+        names[you] = "you";
+
+        for (int i = 0; i < size; i++) {
+            StringBuilder line = new StringBuilder(names[i]).append(':');
+
+            // The last devices feed the output
+            if (i + REACH >= size) {
+                line.append(" out");
+            }
+
+            if (i + 1 < size) {
+                line.append(' ').append(names[i + 1]);
+            }
+
+            // Connect to a few distinct devices further along
+            int extra = random.nextInt(3);
+            int used = 0;
+            for (int j = 0; j < extra; j++) {
+                int step = random.nextInt(2, REACH + 1);
+                if (i + step < size && (used & (1 << step)) == 0) {
+                    used |= 1 << step;
+                    line.append(' ').append(names[i + step]);
+                }
+            }
+
+            out.append(line).append('\n');
+        }
+    }
+
+    /**
+     * Build a device name for a position in the line
+     * @param index the device's position in the line
+     * @param length the number of letters in the name
+     * @return the name
+     */
+    private static String name(int index, int length) {
+        char[] letters = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            letters[i] = (char) ('a' + index % 26);
+            index /= 26;
+        }
+
+        // Don't accidentally reuse one of the special names
+        String name = new String(letters);
+        return SPECIAL.contains(name) ? name + "z" : name;
+    }
+}
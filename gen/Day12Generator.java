@@ -0,0 +1,54 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 12 inputs: six numbered 3x3 package shapes drawn with '#' and
+ * '.', each followed by a blank line, then one region per line giving its size
+ * and how many of each package it must hold, such as "12x5: 1 0 1 0 2 2".
+ * @author Brian Dahlem
+ *
+ * The size is the number of regions. Regions are 35 to 50 units on a side and
+ * ask for roughly as many packages as could fit, so some fit and some don't.
+ */
+public class Day12Generator implements Generator {
+    /** The number of package shapes */
+    private static final int SHAPES = 6;
+
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        for (int s = 0; s < SHAPES; s++) {
+            out.write(s + ":\n");
+
+            // Every shape keeps its middle row full so it really is 3 wide
+            for (int r = 0; r < 3; r++) {
+                for (int c = 0; c < 3; c++) {
+                    out.write(r == 1 || random.nextInt(3) > 0 ? '#' : '.');
+                }
+                out.write('\n');
+            }
+            out.write('\n');
+        }
+
+        for (int i = 0; i < size; i++) {
+            int width = random.nextInt(35, 51);
+            int height = random.nextInt(35, 51);
+
+            // Aim for between 80% and 120% of the packages that fit in a 3x3 grid
+            int target = (width / 3) * (height / 3) * random.nextInt(80, 121) / 100;
+
+            StringBuilder line = new StringBuilder().append(width).append('x').append(height).append(':');
+            int remaining = target;
+            for (int s = 0; s < SHAPES; s++) {
+                int qty = s == SHAPES - 1 ? remaining : random.nextInt(remaining / (SHAPES - s) * 2 + 1);
+                qty = Math.min(qty, remaining);
+                remaining -= qty;
+                line.append(' ').append(qty);
+            }
+
+            out.append(line).append('\n');
+        }
+    }
+}
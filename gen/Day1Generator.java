@@ -0,0 +1,23 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 1 inputs: one dial rotation per line, such as "L68" or "R48".
+ * @author Brian Dahlem
+ *
+ * The size is the number of rotations. Click counts run up to 999 like the
+ * puzzle's, so part two's per-click loop does real work on every line.
+ */
+public class Day1Generator implements Generator {
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        for (int i = 0; i < size; i++) {
+            out.write(random.nextBoolean() ? 'L' : 'R');
+            out.write(Integer.toString(random.nextInt(1, 1000)));
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 2 inputs: a single line of comma separated product id ranges
+ * such as "11-22,95-115".
+ * @author Brian Dahlem
+ *
+ * The size is the number of ranges. Ranges are ascending and do not overlap,
+ * each covering up to 100,000 ids, and spread ids across 1 to 10 digits.
+ */
+public class Day2Generator implements Generator {
+    /** The most ids in one range */
+    private static final int MAX_WIDTH = 100_000;
+
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        // Spread the ranges evenly over the ids up to 10 digits long
+        long stride = Math.max(9_999_999_999L / Math.max(size, 1), MAX_WIDTH * 2L);
+
+        long base = 1;
+        for (int i = 0; i < size; i++) {
+            long start = base + random.nextLong(stride - MAX_WIDTH);
+            long end = start + random.nextInt(MAX_WIDTH);
+
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(start + "-" + end);
+
+            base += stride;
+        }
+        out.write('\n');
+    }
+}
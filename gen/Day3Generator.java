@@ -0,0 +1,29 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 3 inputs: one bank of battery joltages (digits 1-9) per line.
+ * @author Brian Dahlem
+ *
+ * The size is the number of banks, each holding 100 batteries like the puzzle's.
+ */
+public class Day3Generator implements Generator {
+    /** The number of batteries in each bank */
+    private static final int BANK_SIZE = 100;
+
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        char[] bank = new char[BANK_SIZE + 1];
+        bank[BANK_SIZE] = '\n';
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < BANK_SIZE; j++) {
+                bank[j] = (char) ('1' + random.nextInt(9));
+            }
+            out.write(bank);
+        }
+    }
+}
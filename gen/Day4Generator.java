@@ -0,0 +1,28 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 4 inputs: a square warehouse map of paper rolls ('@') and
+ * empty floor ('.').
+ * @author Brian Dahlem
+ *
+ * The size is the width and height of the map. About two thirds of the floor
+ * holds rolls, which like the puzzle takes dozens of removal waves to clear.
+ */
+public class Day4Generator implements Generator {
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        char[] row = new char[size + 1];
+        row[size] = '\n';
+
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                row[c] = random.nextInt(3) < 2 ? '@' : '.';
+            }
+            out.write(row);
+        }
+    }
+}
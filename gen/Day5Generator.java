@@ -0,0 +1,39 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 5 inputs: fresh ingredient id ranges ("3-5"), one per line,
+ * then a blank line and the available ingredient ids, one per line.
+ * @author Brian Dahlem
+ *
+ * The size is both the number of ranges and the number of ingredients. The
+ * ranges are clustered so that many of them overlap and have to be merged.
+ */
+public class Day5Generator implements Generator {
+    /** The largest ingredient id */
+    private static final long MAX_ID = 999_999_999_999_999L;
+
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        // Group the ranges into clusters that overlap each other
+        int clusters = Math.max(size / 8, 1);
+        long spacing = MAX_ID / clusters;
+        long width = spacing / 4;
+
+        for (int i = 0; i < size; i++) {
+            long center = random.nextLong(clusters) * spacing + spacing / 2;
+            long start = center - random.nextLong(width);
+            long end = start + random.nextLong(width);
+            out.write(start + "-" + end + "\n");
+        }
+
+        out.write('\n');
+
+        for (int i = 0; i < size; i++) {
+            out.write(random.nextLong(1, MAX_ID) + "\n");
+        }
+    }
+}
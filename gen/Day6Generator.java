@@ -0,0 +1,62 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 6 inputs: a worksheet of math problems written in columns, with
+ * four rows of numbers above a row of operators ('+' or '*').
+ * @author Brian Dahlem
+ *
+ * The size is the number of problems. Each problem is separated from the next
+ * by a blank column and has its numbers either all left or all right aligned,
+ * like the puzzle. Numbers have at most 3 digits so that the totals fit in a
+ * long for any practical size.
+ */
+public class Day6Generator implements Generator {
+    /** The number of rows of numbers */
+    private static final int ROWS = 4;
+
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        StringBuilder[] lines = new StringBuilder[ROWS + 1];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new StringBuilder();
+        }
+
+        for (int p = 0; p < size; p++) {
+            if (p > 0) {
+                for (StringBuilder line : lines) {
+                    line.append(' ');
+                }
+            }
+
+            // At least one number fills the problem's whole width
+            int width = random.nextInt(1, 4);
+            int widest = random.nextInt(ROWS);
+            boolean left = random.nextBoolean();
+
+            for (int r = 0; r < ROWS; r++) {
+                int digits = r == widest ? width : random.nextInt(1, width + 1);
+                String num = Integer.toString(random.nextInt(pow10(digits - 1), pow10(digits)));
+                String pad = " ".repeat(width - digits);
+                lines[r].append(left ? num + pad : pad + num);
+            }
+
+            lines[ROWS].append(random.nextBoolean() ? '*' : '+').append(" ".repeat(width - 1));
+        }
+
+        for (StringBuilder line : lines) {
+            out.append(line).append('\n');
+        }
+    }
+
+    private static int pow10(int n) {
+        int result = 1;
+        for (int i = 0; i < n; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 7 inputs: a grid with the beam start ('S') in the middle of the
+ * top row and splitters ('^') on every other row below it.
+ * @author Brian Dahlem
+ *
+ * The size is the number of rows; the grid is as wide as it is tall like the
+ * puzzle's. Splitters never sit on the edge columns so that split beams stay
+ * inside the grid, and the last row is always empty.
+ */
+public class Day7Generator implements Generator {
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        int width = Math.max(size, 3);
+        char[] row = new char[width + 1];
+        row[width] = '\n';
+
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < width; c++) {
+                row[c] = '.';
+            }
+
+            if (r == 0) {
+                row[width / 2] = 'S';
+            }
+            else if (r % 2 == 0 && r < size - 1) {
+                for (int c = 1; c < width - 1; c++) {
+                    if (random.nextInt(3) == 0) {
+                        row[c] = '^';
+                    }
+                }
+            }
+
+            out.write(row);
+        }
+    }
+}
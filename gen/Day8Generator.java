@@ -0,0 +1,32 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 8 inputs: one junction box position per line, such as
+ * "162,817,812".
+ * @author Brian Dahlem
+ *
+ * The size is the number of junction boxes. Coordinates range from 0 to
+ * 99,999 like the puzzle's and no two boxes share a position.
+ */
+public class Day8Generator implements Generator {
+    /** One more than the largest coordinate */
+    private static final int BOUND = 100_000;
+
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        Set<String> used = new HashSet<>(size * 2);
+
+        while (used.size() < size) {
+            String box = random.nextInt(BOUND) + "," + random.nextInt(BOUND) + "," + random.nextInt(BOUND);
+            if (used.add(box)) {
+                out.write(box + "\n");
+            }
+        }
+    }
+}
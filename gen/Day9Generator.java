@@ -0,0 +1,48 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate day 9 inputs: the red tiles at the corners of a rectilinear polygon,
+ * one "x,y" position per line in the order they are connected.
+ * @author Brian Dahlem
+ *
+ * The size is the number of corners (rounded down to an even number, at least
+ * 4). The polygon is a histogram: a flat bottom edge with a staircase of
+ * columns of random heights above it, so it never crosses itself and every
+ * edge alternates between horizontal and vertical.
+ */
+public class Day9Generator implements Generator {
+    /** One more than the tallest column */
+    private static final int MAX_HEIGHT = 100_000;
+    /** One more than the widest column */
+    private static final int MAX_WIDTH = 20;
+
+    @Override
+    public void generate(int size, SplittableRandom random, Writer out) throws IOException {
+        int columns = Math.max(size / 2 - 1, 1);
+
+        // Start at the bottom left corner and walk the tops of the columns
+        int x = 1;
+        out.write(x + ",0\n");
+
+        int height = 0;
+        for (int i = 0; i < columns; i++) {
+            // Neighboring columns must differ in height so no corner is straight
+            int next = random.nextInt(1, MAX_HEIGHT);
+            while (next == height) {
+                next = random.nextInt(1, MAX_HEIGHT);
+            }
+            height = next;
+
+            out.write(x + "," + height + "\n");
+            x += random.nextInt(1, MAX_WIDTH);
+            out.write(x + "," + height + "\n");
+        }
+
+        // Come back down to the bottom right corner
+        out.write(x + ",0\n");
+    }
+}
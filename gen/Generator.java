@@ -0,0 +1,21 @@
+package gen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generate a synthetic puzzle input for one day, in exactly the format of the
+ * real puzzle input, so the solvers can be tried on inputs far larger than
+ * the puzzle's.
+ * @author Brian Dahlem
+ */
+public interface Generator {
+    /**
+     * Write an input of a given size
+     * @param size the number of records to generate (what a record is depends on the day)
+     * @param random the source of randomness, seeded by the caller so runs can be reproduced
+     * @param out where to write the input
+     */
+    void generate(int size, SplittableRandom random, Writer out) throws IOException;
+}
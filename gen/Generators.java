@@ -0,0 +1,102 @@
+package gen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Create synthetic inputs for any day.
+ * @author Brian Dahlem
+ *
+ * The same day, size and seed always produce the same input, so benchmark
+ * runs on generated inputs can be reproduced.
+ *
+ * Usage: java gen.Generators day size [seed] [file]
+ *   writes the input to the file, or to the console if no file is given
+ */
+public final class Generators {
+    /** The seed used when none is given */
+    public static final long DEFAULT_SEED = 2025;
+
+    private Generators() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("Usage: java gen.Generators day size [seed] [file]");
+            System.exit(1);
+        }
+
+        int day = Integer.parseInt(args[0]);
+        int size = Integer.parseInt(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+        if (args.length > 3) {
+            write(day, size, seed, Path.of(args[3]));
+        }
+        else {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII));
+            forDay(day).generate(size, new SplittableRandom(seed), out);
+            out.flush();
+        }
+    }
+
+    /**
+     * Get the generator for a day
+     * @param day the day number (1-12)
+     * @return the day's generator
+     */
+    public static Generator forDay(int day) {
+        return switch (day) {
+            case 1 -> new Day1Generator();
+            case 2 -> new Day2Generator();
+            case 3 -> new Day3Generator();
+            case 4 -> new Day4Generator();
+            case 5 -> new Day5Generator();
+            case 6 -> new Day6Generator();
+            case 7 -> new Day7Generator();
+            case 8 -> new Day8Generator();
+            case 9 -> new Day9Generator();
+            case 10 -> new Day10Generator();
+            case 11 -> new Day11Generator();
+            case 12 -> new Day12Generator();
+            default -> throw new IllegalArgumentException("No generator for day " + day);
+        };
+    }
+
+    /**
+     * Generate an input in memory
+     * @param day the day number (1-12)
+     * @param size the number of records to generate
+     * @param seed the random seed
+     * @return the generated input
+     */
+    public static String generate(int day, int size, long seed) {
+        StringWriter out = new StringWriter();
+        try {
+            forDay(day).generate(size, new SplittableRandom(seed), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Generate an input into a file
+     * @param day the day number (1-12)
+     * @param size the number of records to generate
+     * @param seed the random seed
+     * @param file the file to write
+     */
+    public static void write(int day, int size, long seed, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            forDay(day).generate(size, new SplittableRandom(seed), out);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package harness;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import common.Result;
+import common.Solver;
+
+/**
+ * Answers that have already been worked out, stored on disk and looked up by
+ * the hash of the input they came from.
+ * @author Brian Dahlem
+ *
+ * Each answer is a small JSON file at dir/inputHash/solver-partP-vV-code.json,
+ * where inputHash is the SHA-256 of the input bytes, solver is the solver's
+ * class (which names its day, e.g. day10.Aoc10), V is the solver's version and
+ * code is a hash of the compiled classes of the solver's package and of the
+ * common package. It holds the answer along with how long the solve took.
+ * Rebuilding a day or the shared parsing code after any change gives a new
+ * code hash, so answers are never served by code other than the code that
+ * found them, without anyone having to remember to bump a version; "clear"
+ * removes the old ones. When the classes cannot be read the cache is not used.
+ *
+ * The cache lives in .aoc-cache unless the aoc.cache.dir system property says
+ * otherwise. The server uses it unless aoc.cache is set to "off", but a day's
+ * main only uses it when aoc.cache is set to "on", since it is there to time
+ * the day.
+ *
+ * Usage: java harness.AnswerCache clear [day...]
+ *        java harness.AnswerCache list
+ */
+public final class AnswerCache {
+    /** Finds the fields of a stored answer */
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\": (-?\\d+)");
+    /** The hex digits of the code hash kept in an entry's name */
+    private static final int CODE_DIGITS = 12;
+    /** The code hash of each solver class, worked out once; empty if the classes cannot be read */
+    private static final Map<Class<?>, String> CODE = new ConcurrentHashMap<>();
+
+    /** The directory holding the cached answers */
+    private final Path dir;
+
+    /**
+     * Use a cache directory
+     * @param dir the directory holding the cached answers
+     */
+    public AnswerCache(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Get the cache chosen by the system properties
+     * @param byDefault whether to use the cache when aoc.cache is not set
+     * @return the cache, or null if caching is switched off
+     */
+    public static AnswerCache fromProperties(boolean byDefault) {
+        String setting = System.getProperty("aoc.cache");
+        if ("off".equals(setting) || (!byDefault && !"on".equals(setting))) {
+            return null;
+        }
+        return new AnswerCache(Path.of(System.getProperty("aoc.cache.dir", ".aoc-cache")));
+    }
+
+    public static void main(String[] args) throws IOException {
+        AnswerCache cache = new AnswerCache(Path.of(System.getProperty("aoc.cache.dir", ".aoc-cache")));
+        List<Integer> days = new ArrayList<>();
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                days.add(Integer.parseInt(args[i]));
+            }
+        } catch (NumberFormatException e) {
+            args = new String[0];
+        }
+
+        if (args.length == 1 && args[0].equals("list")) {
+            for (Path entry : cache.entries()) {
+                System.out.println(cache.dir.relativize(entry) + " " + Files.readString(entry).strip());
+            }
+        }
+        else if (args.length >= 1 && args[0].equals("clear")) {
+            System.out.println("Removed " + cache.clear(days) + " cached answers");
+        }
+        else {
+            System.err.println("Usage: java harness.AnswerCache clear [day...]");
+            System.err.println("       java harness.AnswerCache list");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Look up both answers for an input
+     * @param inputHash the SHA-256 of the input
+     * @param solver the day's solver
+     * @return the cached answers and the timings of the solve that found them,
+     *         or null unless both parts are cached
+     */
+    public Run get(String inputHash, Solver<?> solver) throws IOException {
+        if (code(solver).isEmpty()) {
+            return null;
+        }
+
+        long[] one = read(entry(inputHash, 1, solver));
+        long[] two = read(entry(inputHash, 2, solver));
+        if (one == null || two == null) {
+            return null;
+        }
+
+        return new Run(Result.of(one[0]), Result.of(two[0]), new long[] { one[1], one[2], two[2] }, null);
+    }
+
+    /**
+     * Store both answers for an input
+     * @param inputHash the SHA-256 of the input
+     * @param solver the day's solver
+     * @param run the answers and timings of solving the input
+     */
+    public void put(String inputHash, Solver<?> solver, Run run) throws IOException {
+        if (code(solver).isEmpty()) {
+            return;
+        }
+
+        write(entry(inputHash, 1, solver), 1, solver, run.partOne(), run, Phase.PART_ONE);
+        write(entry(inputHash, 2, solver), 2, solver, run.partTwo(), run, Phase.PART_TWO);
+    }
+
+    /**
+     * Remove cached answers
+     * @param days the days whose answers to remove, or an empty list for all days
+     * @return the number of answers removed
+     */
+    public int clear(List<Integer> days) throws IOException {
+        int removed = 0;
+        for (Path entry : entries()) {
+            String name = entry.getFileName().toString();
+            if (days.isEmpty() || days.stream().anyMatch(day -> name.startsWith("day" + day + "."))) {
+                Files.delete(entry);
+                removed++;
+            }
+        }
+
+        // Drop the directories of inputs that have nothing left
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> inputs = Files.list(dir)) {
+                for (Path input : inputs.filter(Files::isDirectory).toList()) {
+                    try (Stream<Path> left = Files.list(input)) {
+                        if (left.findAny().isEmpty()) {
+                            Files.delete(input);
+                        }
+                    }
+                }
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Find every cached answer
+     * @return the files holding the answers
+     */
+    private List<Path> entries() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(dir, 2)) {
+            return files
+                .filter(file -> file.getFileName().toString().matches(".+-part\\d-v-?\\d+(-[0-9a-f]+)?\\.json"))
+                .sorted()
+                .toList();
+        }
+    }
+
+    /**
+     * Find where an answer is stored
+     * @param inputHash the SHA-256 of the input
+     * @param part the part number
+     * @param solver the day's solver
+     * @return the file holding the answer
+     */
+    private Path entry(String inputHash, int part, Solver<?> solver) {
+        return dir.resolve(inputHash).resolve("%s-part%d-v%d-%s.json"
+            .formatted(solver.getClass().getName(), part, solver.version(), code(solver)));
+    }
+
+    /**
+     * Hash the compiled code a solver's answers come from: every class in its
+     * package and in the common package
+     * @param solver the day's solver
+     * @return the first hex digits of the SHA-256 of the classes, or an empty
+     *         string if they cannot be read
+     */
+    static String code(Solver<?> solver) {
+        return CODE.computeIfAbsent(solver.getClass(), type -> {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                hashPackage(type, digest);
+                hashPackage(Solver.class, digest);
+                return HexFormat.of().formatHex(digest.digest()).substring(0, CODE_DIGITS);
+            } catch (IOException | URISyntaxException | NoSuchAlgorithmException e) {
+                return "";
+            }
+        });
+    }
+
+    /**
+     * Add every class file of a class's package to a hash, in order of name
+     * @param type a class of the package
+     * @param digest the hash
+     */
+    private static void hashPackage(Class<?> type, MessageDigest digest) throws IOException, URISyntaxException {
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source == null) {
+            throw new IOException("No class files for " + type.getName());
+        }
+        Path location = Path.of(source.getLocation().toURI());
+        String prefix = type.getPackageName().replace('.', '/') + "/";
+
+        // Classes come from a directory tree or from a jar
+        if (Files.isDirectory(location)) {
+            try (Stream<Path> files = Files.list(location.resolve(prefix))) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".class")).sorted().toList()) {
+                    digest.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            }
+        }
+        else {
+            try (JarFile jar = new JarFile(location.toFile())) {
+                List<JarEntry> classes = jar.stream()
+                    .filter(e -> e.getName().startsWith(prefix) && e.getName().endsWith(".class")
+                        && e.getName().indexOf('/', prefix.length()) < 0)
+                    .sorted(Comparator.comparing(JarEntry::getName))
+                    .toList();
+                for (JarEntry entry : classes) {
+                    digest.update(entry.getName().substring(prefix.length()).getBytes(StandardCharsets.UTF_8));
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        digest.update(in.readAllBytes());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a stored answer
+     * @param entry the file holding the answer
+     * @return the answer, the preparation time and the part's time, or null if
+     *         the answer is not stored
+     */
+    private static long[] read(Path entry) throws IOException {
+        if (!Files.exists(entry)) {
+            return null;
+        }
+
+        long[] values = new long[3];
+        int found = 0;
+        Matcher field = FIELD.matcher(Files.readString(entry));
+        while (field.find()) {
+            switch (field.group(1)) {
+                case "answer" -> values[0] = Long.parseLong(field.group(2));
+                case "prepare_ns" -> values[1] = Long.parseLong(field.group(2));
+                case "part_ns" -> values[2] = Long.parseLong(field.group(2));
+                default -> { continue; }
+            }
+            found++;
+        }
+
+        // A damaged entry is treated as missing and overwritten by the next solve
+        return found == 3 ? values : null;
+    }
+
+    /**
+     * Store an answer
+     * @param entry the file to hold the answer
+     * @param part the part number
+     * @param solver the day's solver
+     * @param answer the answer
+     * @param run the solve that found the answer
+     * @param phase the phase that found the answer
+     */
+    private static void write(Path entry, int part, Solver<?> solver, long answer, Run run, Phase phase)
+        throws IOException {
+
+        Files.createDirectories(entry.getParent());
+        String json = "{\"solver\": \"%s\", \"part\": %d, \"version\": %d, \"code\": \"%s\", \"answer\": %d, "
+            .formatted(solver.getClass().getName(), part, solver.version(), code(solver), answer)
+            + "\"prepare_ns\": %d, \"part_ns\": %d, \"created\": \"%s\"}\n"
+            .formatted(run.nanos(Phase.PREPARE), run.nanos(phase), Instant.now());
+
+        // Write then move so a reader never sees half an entry
+        Path temp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+        Files.writeString(temp, json);
+        Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,141 @@
+package harness;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stored answers and latency distributions that later measurements are
+ * checked against.
+ * @author Brian Dahlem
+ *
+ * Each phase of each day has its own JSON file, dir/dayN-phase.json (e.g.
+ * baselines/day8-part_two.json), holding the answer, the latency distribution
+ * and the SHA-256 of the input it was measured on. Latencies are only compared
+ * when the input is the same, since a different input says nothing about
+ * whether the solver got slower.
+ */
+public final class Baselines {
+    /** Finds the fields of a baseline */
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\": (-?\\d+|\"[^\"]*\")");
+
+    private Baselines() {}
+
+    /**
+     * Store a measurement as the baseline of each of its phases
+     * @param dir the directory holding the baselines
+     * @param m the measurement
+     * @param inputHash the SHA-256 of the input that was measured
+     */
+    public static void record(Path dir, Measurement m, String inputHash) throws IOException {
+        Files.createDirectories(dir);
+
+        for (Phase phase : Phase.values()) {
+            Stats s = m.stats().get(phase);
+            String json = ("{\"name\": \"%s\", \"phase\": \"%s\", \"input\": \"%s\", \"input_sha256\": \"%s\", "
+                + "\"answer\": %s, \"iterations\": %d, \"min\": %d, \"median\": %d, \"p90\": %d, "
+                + "\"p99\": %d, \"max\": %d, \"recorded\": \"%s\"}\n")
+                .formatted(Report.escape(m.name()), phase.key(), Report.escape(m.input()), inputHash,
+                    m.answer(phase), m.iterations(), s.min(), s.median(), s.p90(), s.p99(), s.max(),
+                    Instant.now());
+            Files.writeString(file(dir, m, phase), json);
+        }
+    }
+
+    /**
+     * Compare a measurement with the stored baselines of its phases
+     * @param dir the directory holding the baselines
+     * @param m the measurement
+     * @param inputHash the SHA-256 of the input that was measured
+     * @param threshold the fraction a median or p99 may grow by before it is a
+     *                  regression (0.1 allows 10% slower)
+     * @param out where to describe the comparison of each phase
+     * @return true if any answer changed or any phase regressed
+     */
+    public static boolean compare(Path dir, Measurement m, String inputHash, double threshold,
+        StringBuilder out) throws IOException {
+
+        boolean failed = false;
+        String row = "%-12s %-12s %s%n";
+
+        for (Phase phase : Phase.values()) {
+            Path file = file(dir, m, phase);
+            if (!Files.exists(file)) {
+                out.append(row.formatted(m.name(), phase.key(), "no baseline"));
+                continue;
+            }
+
+            Map<String, String> baseline = parse(Files.readString(file));
+            if (!inputHash.equals(baseline.get("input_sha256"))) {
+                out.append(row.formatted(m.name(), phase.key(),
+                    "baseline was measured on a different input (" + baseline.get("input") + ")"));
+                continue;
+            }
+
+            // A changed answer is always a failure, however fast it was found
+            Long answer = m.answer(phase);
+            String expected = baseline.get("answer");
+            if (answer != null && !answer.toString().equals(expected)) {
+                out.append(row.formatted(m.name(), phase.key(),
+                    "WRONG ANSWER: expected " + expected + ", got " + answer));
+                failed = true;
+                continue;
+            }
+
+            Stats s = m.stats().get(phase);
+            long median = Long.parseLong(baseline.get("median"));
+            long p99 = Long.parseLong(baseline.get("p99"));
+            boolean regressed = s.median() > median * (1 + threshold) || s.p99() > p99 * (1 + threshold);
+            out.append(row.formatted(m.name(), phase.key(), "median %d -> %d (%s), p99 %d -> %d (%s)%s"
+                .formatted(median, s.median(), change(median, s.median()), p99, s.p99(),
+                    change(p99, s.p99()), regressed ? "  REGRESSED" : "")));
+            failed |= regressed;
+        }
+
+        return failed;
+    }
+
+    /**
+     * Find the file holding a phase's baseline
+     * @param dir the directory holding the baselines
+     * @param m the measurement of the day
+     * @param phase the phase
+     * @return the baseline file
+     */
+    private static Path file(Path dir, Measurement m, Phase phase) {
+        return dir.resolve(m.name() + "-" + phase.key() + ".json");
+    }
+
+    /**
+     * Read the fields of a baseline
+     * @param json the baseline's JSON text
+     * @return the value of each field, without quotes
+     */
+    private static Map<String, String> parse(String json) {
+        Map<String, String> fields = new HashMap<>();
+        Matcher field = FIELD.matcher(json);
+        while (field.find()) {
+            String value = field.group(2);
+            fields.put(field.group(1), value.startsWith("\"") ? value.substring(1, value.length() - 1) : value);
+        }
+        return fields;
+    }
+
+    /**
+     * Describe the change from one latency to another
+     * @param before the baseline latency
+     * @param after the measured latency
+     * @return the change as a signed percentage
+     */
+    private static String change(long before, long after) {
+        if (before == 0) {
+            return "n/a";
+        }
+        return "%+.1f%%".formatted(100.0 * (after - before) / before);
+    }
+}
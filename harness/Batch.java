@@ -0,0 +1,182 @@
+package harness;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import common.Input;
+
+/**
+ * Solve every input in a directory (or matching a glob) for one day, several
+ * at a time, and report the throughput and latency distribution of the set.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Batch [options] day dir|glob
+ *   --threads n        inputs solved at the same time (default: one per available processor)
+ *   --slowest n        how many of the slowest inputs to list (default 5)
+ *   --json file|-      also write the results, including every input's answers, as JSON
+ *
+ * A directory means every regular file directly inside it. A glob such as
+ * "gen/day5/*.txt" or "gen/**.txt" is matched against the files under the
+ * directory in front of its first wildcard. Each input is solved once, from
+ * preparation through part two, with its own solver instance. An input that
+ * fails is reported and the rest carry on; the exit status is 1 if any failed.
+ */
+public final class Batch {
+    private Batch() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> positional = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int slowest = 5;
+        String json = null;
+        boolean valid = true;
+
+        // Parse the command line
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--slowest" -> slowest = Integer.parseInt(args[++i]);
+                    case "--json" -> json = args[++i];
+                    default -> positional.add(args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            valid = false;
+        }
+
+        int day = 0;
+        if (valid && positional.size() == 2) {
+            try {
+                day = Integer.parseInt(positional.get(0));
+            } catch (NumberFormatException e) {
+                valid = false;
+            }
+        }
+
+        if (!valid || positional.size() != 2 || day < 1 || day > Solvers.DAYS || threads < 1 || slowest < 0) {
+            System.err.println("Usage: java harness.Batch [--threads n] [--slowest n] [--json file|-] day dir|glob");
+            System.exit(1);
+        }
+
+        List<Path> inputs = find(positional.get(1));
+        if (inputs.isEmpty()) {
+            System.err.println("No inputs found matching " + positional.get(1));
+            System.exit(1);
+        }
+
+        BatchRun batch = run(day, inputs, threads);
+
+        // Report the results
+        System.out.print(Report.batch(batch, slowest));
+        Runner.write(json, Report.json(batch, slowest));
+
+        if (!batch.failures().isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Find the input files named by a directory or a glob
+     * @param pattern a directory, a single file or a glob
+     * @return the matching files, sorted by path
+     */
+    static List<Path> find(String pattern) throws IOException {
+        int wildcard = firstWildcard(pattern);
+
+        // A plain path is a directory of inputs or a single input
+        if (wildcard < 0) {
+            Path path = Path.of(pattern);
+            if (!Files.isDirectory(path)) {
+                return Files.isRegularFile(path) ? List.of(path) : List.of();
+            }
+            try (Stream<Path> files = Files.list(path)) {
+                return files.filter(Files::isRegularFile).sorted().toList();
+            }
+        }
+
+        // Otherwise search below the part of the glob without wildcards
+        int separator = Math.max(pattern.lastIndexOf('/', wildcard), pattern.lastIndexOf('\\', wildcard));
+        Path base = Path.of(separator < 0 ? "" : pattern.substring(0, separator + 1));
+        if (!Files.isDirectory(base.toString().isEmpty() ? Path.of(".") : base)) {
+            return List.of();
+        }
+
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> files = Files.walk(base)) {
+            return files.filter(Files::isRegularFile).filter(matcher::matches).sorted().toList();
+        }
+    }
+
+    /**
+     * Solve many inputs for one day, several at a time
+     * @param day the day to solve
+     * @param inputs the input files
+     * @param threads the number of inputs to solve at the same time
+     * @return the outcome of every input and the time taken by the whole set
+     */
+    public static BatchRun run(int day, List<Path> inputs, int threads) throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<Callable<BatchItem>> tasks = new ArrayList<>();
+        for (Path input : inputs) {
+            tasks.add(() -> solve(day, input));
+        }
+        List<BatchItem> items = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try {
+            // Only as many inputs as there are threads are read and solved at once
+            for (Future<BatchItem> future : pool.invokeAll(tasks)) {
+                try {
+                    items.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long wall = System.nanoTime() - start;
+
+        return new BatchRun(day, threads, wall, items);
+    }
+
+    /**
+     * Solve one input on the current thread
+     * @param day the day to solve
+     * @param file the input file
+     * @return the outcome of the input
+     */
+    private static BatchItem solve(int day, Path file) {
+        try {
+            Input input = Input.map(file);
+            return new BatchItem(file.toString(), Runner.run(Solvers.forDay(day), input), null);
+        } catch (Exception | LinkageError | StackOverflowError e) {
+            return new BatchItem(file.toString(), null, e.toString());
+        }
+    }
+
+    /**
+     * Find the first glob wildcard in a pattern
+     * @param pattern the pattern
+     * @return the index of the first wildcard, or -1 if there is none
+     */
+    private static int firstWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if ("*?[{".indexOf(pattern.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
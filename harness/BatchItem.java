@@ -0,0 +1,28 @@
+package harness;
+
+/**
+ * The outcome of solving one input of a batch
+ * @author Brian Dahlem
+ *
+ * @param input the input file
+ * @param run the answers and timings of the solve, or null if it failed
+ * @param error why the solve failed, or null if it succeeded
+ */
+public record BatchItem(String input, Run run, String error) {
+
+    /**
+     * Get the time taken by every phase of the solve together
+     * @return the total nanoseconds, or -1 if the solve failed
+     */
+    public long nanos() {
+        if (run == null) {
+            return -1;
+        }
+
+        long total = 0;
+        for (Phase phase : Phase.values()) {
+            total += run.nanos(phase);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,58 @@
+package harness;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The results of solving many inputs for one day
+ * @author Brian Dahlem
+ *
+ * @param day the day that was solved
+ * @param threads the number of inputs solved at the same time
+ * @param wallNanos the wall clock time from the first solve starting to the last finishing
+ * @param items the outcome of each input, in the order the inputs were found
+ */
+public record BatchRun(int day, int threads, long wallNanos, List<BatchItem> items) {
+
+    /**
+     * Get the rate inputs were solved at
+     * @return the inputs solved per second of wall clock time
+     */
+    public double throughput() {
+        return wallNanos == 0 ? 0 : items.size() * 1e9 / wallNanos;
+    }
+
+    /**
+     * Get the inputs that could not be solved
+     * @return the failed inputs, in the order they were found
+     */
+    public List<BatchItem> failures() {
+        return items.stream().filter(item -> item.error() != null).toList();
+    }
+
+    /**
+     * Summarize how long one phase took over every input that was solved
+     * @param phase the phase, or null for all phases together
+     * @return the distribution of the phase's time, or null if no input was solved
+     */
+    public Stats stats(Phase phase) {
+        long[] nanos = items.stream()
+            .filter(item -> item.run() != null)
+            .mapToLong(item -> phase == null ? item.nanos() : item.run().nanos(phase))
+            .toArray();
+        return nanos.length == 0 ? null : Stats.of(nanos);
+    }
+
+    /**
+     * Find the inputs that took the longest to solve
+     * @param count the most inputs to return
+     * @return the slowest inputs, slowest first
+     */
+    public List<BatchItem> slowest(int count) {
+        return items.stream()
+            .filter(item -> item.run() != null)
+            .sorted(Comparator.comparingLong(BatchItem::nanos).reversed())
+            .limit(count)
+            .toList();
+    }
+}
@@ -0,0 +1,216 @@
+package harness;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import common.Adaptive;
+import common.CostModel;
+import common.Solver;
+import common.Tradeoff;
+
+/**
+ * Measure the brute-force and scalable engines of every adaptive day, so that
+ * each input is given to whichever engine is faster for its size.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Calibrate [options] [day[,day...]]
+ *   --output file|-    where to write the costs (default costs.properties)
+ *   --budget ms        stop growing the work once an engine takes this long (default 20)
+ *
+ * Each tradeoff's engines are timed on synthetic work of sizes 1, 2, 4 and so
+ * on, until one of them takes longer than the budget. The brute-force engine's
+ * cost per unit of work and the scalable engine's setup and per-unit costs are
+ * fitted to the times (weighing every size's relative error equally, so the
+ * small sizes where the engines cross count as much as the large ones). The
+ * solvers read the costs from costs.properties in the working directory, or
+ * from the file named by the aoc.costs system property.
+ */
+public final class Calibrate {
+    /** The shortest time to repeat an engine for, so that one timing is not mostly clock overhead */
+    private static final long MIN_NANOS = 1_000_000;
+    /** The largest size of work to measure */
+    private static final int MAX_SIZE = 1 << 20;
+
+    /** Keeps the engines' answers from being optimized away */
+    private static volatile int sink;
+
+    private Calibrate() {}
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> days = new ArrayList<>();
+        String output = CostModel.DEFAULT_FILE;
+        long budget = 20;
+
+        // Parse the command line
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--output" -> output = args[++i];
+                    case "--budget" -> budget = Long.parseLong(args[++i]);
+                    default -> {
+                        for (String day : args[i].split(",")) {
+                            days.add(Integer.parseInt(day));
+                        }
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            budget = 0;
+        }
+
+        if (budget <= 0 || days.stream().anyMatch(day -> day < 1 || day > Solvers.DAYS)) {
+            System.err.println("Usage: java harness.Calibrate [--output file|-] [--budget ms] [day[,day...]]");
+            System.exit(1);
+        }
+
+        // Every day that chooses between engines, unless some were named
+        List<Tradeoff<?, ?>> tradeoffs = new ArrayList<>();
+        for (int day = 1; day <= Solvers.DAYS; day++) {
+            if (!days.isEmpty() && !days.contains(day)) {
+                continue;
+            }
+            Solver<?> solver;
+            try {
+                solver = Solvers.forDay(day);
+            } catch (Exception | LinkageError e) {
+                continue;
+            }
+            if (solver instanceof Adaptive adaptive) {
+                tradeoffs.addAll(adaptive.tradeoffs());
+            }
+        }
+
+        List<Calibration> calibrations = new ArrayList<>();
+        for (Tradeoff<?, ?> tradeoff : tradeoffs) {
+            calibrations.add(measure(tradeoff, budget * 1_000_000));
+        }
+
+        System.out.print(Report.calibration(calibrations));
+        Runner.write(output, Report.costs(calibrations));
+    }
+
+    /**
+     * Time both engines of a tradeoff on growing work and fit their costs
+     * @param tradeoff the tradeoff
+     * @param budgetNanos the longest either engine may take before the work stops growing
+     * @return the fitted costs
+     */
+    public static <W, R> Calibration measure(Tradeoff<W, R> tradeoff, long budgetNanos) {
+        List<double[]> brute = new ArrayList<>();
+        List<double[]> scalable = new ArrayList<>();
+        int crossover = -1;
+        int largest = 0;
+
+        // The first pass only warms the engines up
+        for (int pass = 0; pass < 2; pass++) {
+            Random random = new Random(2025);
+            brute.clear();
+            scalable.clear();
+            crossover = -1;
+
+            for (int size = 1; size <= MAX_SIZE; size *= 2) {
+                W work = tradeoff.sample(size, random);
+                double bruteNanos = time(tradeoff::brute, work);
+                double scalableNanos = time(tradeoff::scalable, work);
+
+                brute.add(new double[] { tradeoff.bruteWork(work), bruteNanos });
+                scalable.add(new double[] { tradeoff.scalableWork(work), scalableNanos });
+                if (crossover < 0 && scalableNanos < bruteNanos) {
+                    crossover = size;
+                }
+                largest = size;
+
+                if (bruteNanos > budgetNanos || scalableNanos > budgetNanos) {
+                    break;
+                }
+            }
+        }
+
+        // Fit nanos = rate * work for the brute force, and nanos = setup + rate * work for the index
+        double[] line = fit(scalable);
+        CostModel costs = new CostModel(fitThroughOrigin(brute), line[1], line[0]);
+
+        return new Calibration(tradeoff.name(), costs, crossover, largest);
+    }
+
+    /**
+     * Time an engine on some work, repeating it enough to be measurable
+     * @param engine the engine
+     * @param work the work
+     * @return the average nanoseconds per run
+     */
+    private static <W, R> double time(Function<W, R> engine, W work) {
+        int runs = 0;
+        int hash = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            hash += engine.apply(work).hashCode();
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_NANOS);
+        sink += hash;
+        return (double) elapsed / runs;
+    }
+
+    /**
+     * Fit nanos = rate * work, minimizing the relative error of each point
+     * @param points pairs of work and nanoseconds
+     * @return the rate, in nanoseconds per unit of work
+     */
+    private static double fitThroughOrigin(List<double[]> points) {
+        double wt = 0;
+        double ww = 0;
+        for (double[] point : points) {
+            double w = point[0] / point[1];
+            wt += w;
+            ww += w * w;
+        }
+        return ww == 0 ? 0 : Math.max(0, wt / ww);
+    }
+
+    /**
+     * Fit nanos = setup + rate * work, minimizing the relative error of each point
+     * @param points pairs of work and nanoseconds
+     * @return the setup and the rate, neither below zero
+     */
+    private static double[] fit(List<double[]> points) {
+        // Dividing through by each time makes every point's relative error
+        // an ordinary residual: 1 = setup * (1 / t) + rate * (w / t)
+        double aa = 0;
+        double ab = 0;
+        double bb = 0;
+        double a1 = 0;
+        double b1 = 0;
+        for (double[] point : points) {
+            double a = 1 / point[1];
+            double b = point[0] / point[1];
+            aa += a * a;
+            ab += a * b;
+            bb += b * b;
+            a1 += a;
+            b1 += b;
+        }
+
+        // When the work is the same at every size the two cannot be told apart,
+        // so the time is all put down to the work
+        double det = aa * bb - ab * ab;
+        if (det <= 1e-9 * aa * bb) {
+            return new double[] { 0, bb == 0 ? 0 : b1 / bb };
+        }
+        double setup = (a1 * bb - b1 * ab) / det;
+        double rate = (aa * b1 - ab * a1) / det;
+
+        // A negative figure is noise; refit the other alone
+        if (setup < 0) {
+            return new double[] { 0, bb == 0 ? 0 : b1 / bb };
+        }
+        if (rate < 0) {
+            return new double[] { aa == 0 ? 0 : a1 / aa, 0 };
+        }
+        return new double[] { setup, rate };
+    }
+}
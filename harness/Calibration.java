@@ -0,0 +1,15 @@
+package harness;
+
+import common.CostModel;
+
+/**
+ * The measured costs of one tradeoff's engines
+ * @author Brian Dahlem
+ *
+ * @param name the name of the tradeoff
+ * @param costs the costs fitted to the measurements
+ * @param crossover the smallest size at which the scalable engine was measured
+ *                  to be faster, or -1 if it never was
+ * @param largest the largest size measured
+ */
+public record Calibration(String name, CostModel costs, int crossover, int largest) {}
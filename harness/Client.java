@@ -0,0 +1,82 @@
+package harness;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Send a solve request to a running {@link Server} and print its reply.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Client [--socket path | --port n] day 1|2|both file|-
+ *        java harness.Client [--socket path | --port n] shutdown
+ *
+ * A file is opened by the server itself, so it must be on a file system the
+ * server can read; it is sent as an absolute path. An input of "-" sends the
+ * client's standard input instead.
+ */
+public final class Client {
+    private Client() {}
+
+    public static void main(String[] args) throws IOException {
+        String socket = null;
+        int port = 0;
+        int first = 0;
+
+        // Parse the command line
+        try {
+            while (first < args.length && args[first].startsWith("--")) {
+                switch (args[first]) {
+                    case "--socket" -> socket = args[++first];
+                    case "--port" -> port = Integer.parseInt(args[++first]);
+                    default -> throw new IllegalArgumentException(args[first]);
+                }
+                first++;
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            first = -1;
+        }
+
+        int remaining = args.length - first;
+        boolean shutdown = first >= 0 && remaining == 1 && args[first].equals("shutdown");
+        if (first < 0 || (!shutdown && remaining != 3)) {
+            System.err.println("Usage: java harness.Client [--socket path | --port n] day 1|2|both file|-");
+            System.err.println("       java harness.Client [--socket path | --port n] shutdown");
+            System.exit(1);
+        }
+
+        try (SocketChannel channel = SocketChannel.open(Server.address(socket, port))) {
+            OutputStream out = Channels.newOutputStream(channel);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+
+            // Send the request, followed by the input bytes when sending stdin
+            if (shutdown) {
+                out.write("shutdown\n".getBytes(StandardCharsets.UTF_8));
+            }
+            else if (args[first + 2].equals("-")) {
+                byte[] data = System.in.readAllBytes();
+                out.write("solve %s %s - %d\n".formatted(args[first], args[first + 1], data.length)
+                    .getBytes(StandardCharsets.UTF_8));
+                out.write(data);
+            }
+            else {
+                // The server may be running in a different directory
+                String file = Path.of(args[first + 2]).toAbsolutePath().toString();
+                out.write("solve %s %s %s\n".formatted(args[first], args[first + 1], file)
+                    .getBytes(StandardCharsets.UTF_8));
+            }
+            out.flush();
+
+            String reply = Server.readLine(in);
+            System.out.println(reply);
+            if (reply == null || reply.startsWith("{\"error\"")) {
+                System.exit(1);
+            }
+        }
+    }
+}
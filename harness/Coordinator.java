@@ -0,0 +1,336 @@
+package harness;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import common.Input;
+import common.Shardable;
+import common.Solver;
+import gen.Generators;
+
+/**
+ * Solve one input by splitting it into shards and solving them in separate
+ * worker processes, so that a solve can use every processor without one
+ * JVM's heap (or day 10's native Z3 memory) having to hold all of it.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Coordinator [options] day
+ *   --input file       input file to solve (default dayN.txt)
+ *   --size n           solve a generated input of n records instead of a file
+ *   --seed n           random seed for generated inputs (default 2025)
+ *   --workers n        worker processes (default: one per available processor)
+ *   --shards n         shards to split the input into (default four per worker)
+ *   --retries n        times a shard may be retried, and a worker restarted,
+ *                      after its worker fails (default 2)
+ *   --jvm option       an option for the worker JVMs, such as -Xmx512m (repeatable)
+ *
+ * Only {@link Shardable} days can be sharded (2, 3, 10 and 12). Each worker
+ * is a {@link Server} listening on a loopback port, sent shards one at a time
+ * as inline inputs, so a fast worker takes more shards than a slow one. A
+ * worker that dies or drops its connection is restarted and its shard handed
+ * to the next free worker; a shard the solver itself rejects fails the solve.
+ * The answers are the sums of the shards' answers. They are printed to
+ * stdout, and the shards, restarts and time taken to stderr.
+ */
+public final class Coordinator {
+    /** Finds the answers in a worker's reply */
+    private static final Pattern PART_ONE = Pattern.compile("\"part_one\": (-?\\d+)");
+    private static final Pattern PART_TWO = Pattern.compile("\"part_two\": (-?\\d+)");
+    /** Finds the error in a worker's reply */
+    private static final Pattern ERROR = Pattern.compile("\"error\": \"(.*)\"");
+
+    /** The day being solved */
+    private final int day;
+    /** The shards of the input */
+    private final List<String> shards;
+    /** The times each shard may be retried, and each worker restarted */
+    private final int retries;
+    /** The options for the worker JVMs */
+    private final List<String> jvm;
+
+    /** The shards not yet handed to a worker */
+    private final BlockingQueue<Integer> pending = new LinkedBlockingQueue<>();
+    /** The times each shard has been handed to a worker */
+    private final AtomicInteger[] attempts;
+    /** The shards not yet solved */
+    private final AtomicInteger remaining;
+    /** The sums of the shards' answers so far */
+    private final AtomicLong partOne = new AtomicLong();
+    private final AtomicLong partTwo = new AtomicLong();
+    /** The number of workers restarted after failing */
+    private final AtomicInteger restarts = new AtomicInteger();
+    /** Why the solve failed, or null while it has not */
+    private final AtomicReference<String> failure = new AtomicReference<>();
+
+    private Coordinator(int day, List<String> shards, int retries, List<String> jvm) {
+        this.day = day;
+        this.shards = shards;
+        this.retries = retries;
+        this.jvm = jvm;
+        this.attempts = new AtomicInteger[shards.size()];
+        this.remaining = new AtomicInteger(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            attempts[i] = new AtomicInteger();
+            pending.add(i);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int day = 0;
+        String input = null;
+        int size = 0;
+        long seed = Generators.DEFAULT_SEED;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int shards = 0;
+        int retries = 2;
+        List<String> jvm = new ArrayList<>();
+
+        // Parse the command line
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--input" -> input = args[++i];
+                    case "--size" -> size = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--workers" -> workers = Integer.parseInt(args[++i]);
+                    case "--shards" -> shards = Integer.parseInt(args[++i]);
+                    case "--retries" -> retries = Integer.parseInt(args[++i]);
+                    case "--jvm" -> jvm.add(args[++i]);
+                    default -> day = day == 0 ? Integer.parseInt(args[i]) : -1;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            day = -1;
+        }
+
+        if (day < 1 || day > Solvers.DAYS || workers < 1 || shards < 0 || retries < 0
+            || (input != null && size > 0)) {
+            System.err.println("Usage: java harness.Coordinator [--input file | --size n [--seed n]] [--workers n] "
+                + "[--shards n] [--retries n] [--jvm option]... day");
+            System.exit(1);
+        }
+
+        Solver<?> solver = Solvers.forDay(day);
+        if (!(solver instanceof Shardable shardable)) {
+            System.err.println("Day " + day + " cannot be sharded");
+            System.exit(1);
+            return;
+        }
+
+        Input data = size > 0 ? Input.of(Generators.generate(day, size, seed))
+            : Runner.load(input != null ? input : Solvers.defaultInput(day));
+
+        long start = System.nanoTime();
+        Coordinator coordinator = new Coordinator(day, shardable.shard(data, shards > 0 ? shards : 4 * workers),
+            retries, jvm);
+        coordinator.run(Math.min(workers, Math.max(coordinator.shards.size(), 1)));
+        long nanos = System.nanoTime() - start;
+
+        if (coordinator.failure.get() != null) {
+            System.err.println("Solve failed: " + coordinator.failure.get());
+            System.exit(1);
+        }
+        System.out.println("Part 1: {" + coordinator.partOne.get() + "}");
+        System.out.println("Part 2: {" + coordinator.partTwo.get() + "}");
+        System.err.printf("Solved %d shards on %d workers (%d restarted) in %.3fms%n", coordinator.shards.size(),
+            Math.min(workers, Math.max(coordinator.shards.size(), 1)), coordinator.restarts.get(), nanos / 1e6);
+    }
+
+    /**
+     * Solve every shard, one thread feeding each worker
+     * @param workers the number of worker processes
+     */
+    private void run(int workers) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            Thread thread = new Thread(() -> feed(worker), "aoc-worker-" + w);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (failure.get() == null && remaining.get() > 0) {
+            failure.set(remaining.get() + " shards were left when every worker had failed");
+        }
+    }
+
+    /**
+     * Start a worker and hand it shards until they are all solved, restarting
+     * it if it fails
+     * @param worker the worker's number
+     */
+    private void feed(int worker) {
+        int started = 0;
+        while (remaining.get() > 0 && failure.get() == null && started <= retries) {
+            Worker process = null;
+            Integer shard = null;
+            started++;
+            try {
+                process = start(worker);
+                try (Socket socket = process.connect()) {
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = new BufferedInputStream(socket.getInputStream());
+                    while (remaining.get() > 0 && failure.get() == null) {
+                        shard = pending.poll(50, TimeUnit.MILLISECONDS);
+                        if (shard != null) {
+                            solve(shard, out, in);
+                            shard = null;
+                        }
+                    }
+                    out.write("shutdown\n".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // The worker died or dropped the connection: retry its shard elsewhere
+                System.err.println("Worker " + worker + " failed: " + e.getMessage());
+                if (started <= retries) {
+                    restarts.incrementAndGet();
+                }
+                if (shard != null) {
+                    if (attempts[shard].get() > retries) {
+                        failure.compareAndSet(null, "shard " + shard + " failed " + attempts[shard].get() + " times");
+                    }
+                    pending.add(shard);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                if (process != null) {
+                    try {
+                        stop(process);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Have a worker solve one shard and add its answers to the sums
+     * @param shard the shard's number
+     * @param out the connection to the worker
+     * @param in the worker's replies
+     */
+    private void solve(int shard, OutputStream out, InputStream in) throws IOException {
+        attempts[shard].incrementAndGet();
+        byte[] bytes = shards.get(shard).getBytes(StandardCharsets.UTF_8);
+        out.write("solve %d both - %d\n".formatted(day, bytes.length).getBytes(StandardCharsets.UTF_8));
+        out.write(bytes);
+        out.flush();
+
+        String reply = Server.readLine(in);
+        if (reply == null) {
+            throw new IOException("connection closed during shard " + shard);
+        }
+
+        // The solver rejecting a shard is not the worker's fault; another would reject it too
+        Matcher error = ERROR.matcher(reply);
+        Matcher one = PART_ONE.matcher(reply);
+        Matcher two = PART_TWO.matcher(reply);
+        if (error.find() || !one.find() || !two.find()) {
+            failure.compareAndSet(null, "shard " + shard + ": " + (error.find(0) ? error.group(1) : reply));
+            return;
+        }
+
+        partOne.addAndGet(Long.parseLong(one.group(1)));
+        partTwo.addAndGet(Long.parseLong(two.group(1)));
+        remaining.decrementAndGet();
+    }
+
+    /**
+     * Start a worker process listening on a free loopback port
+     * @param worker the worker's number
+     * @return the worker
+     */
+    private Worker start(int worker) throws IOException {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = probe.getLocalPort();
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvm);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Server.class.getName());
+        command.addAll(List.of("--port", String.valueOf(port), "--no-cache"));
+        Process process = new ProcessBuilder(command).start();
+
+        // The server says where it is listening once it is ready; everything
+        // else it says is passed on
+        BufferedReader log = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = log.readLine()) != null && !line.startsWith("Listening on")) {
+            System.err.println("worker " + worker + ": " + line);
+        }
+        if (line == null) {
+            throw new IOException("worker exited before listening");
+        }
+        Thread drain = new Thread(() -> {
+            try {
+                String rest;
+                while ((rest = log.readLine()) != null) {
+                    System.err.println("worker " + worker + ": " + rest);
+                }
+            } catch (IOException e) {
+                // the worker has gone
+            }
+        }, "aoc-worker-log-" + worker);
+        drain.setDaemon(true);
+        drain.start();
+
+        process.getOutputStream().close();
+        process.getInputStream().close();
+        return new Worker(process, port);
+    }
+
+    /**
+     * Stop a worker, if it has not already stopped
+     * @param worker the worker
+     */
+    private static void stop(Worker worker) throws InterruptedException {
+        if (!worker.process().waitFor(1, TimeUnit.SECONDS)) {
+            worker.process().destroyForcibly().waitFor();
+        }
+    }
+
+    /**
+     * A worker process and the loopback port it listens on
+     * @param process the process
+     * @param port the port
+     */
+    private record Worker(Process process, int port) {
+        /**
+         * Connect to the worker
+         * @return the connection
+         */
+        Socket connect() throws IOException {
+            return new Socket(InetAddress.getLoopbackAddress(), port);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package harness;
+
+import java.util.Map;
+
+/**
+ * The hot-path counts of repeatedly solving one day's input
+ * @author Brian Dahlem
+ *
+ * @param name the name of the day that was solved
+ * @param input the input that was solved
+ * @param runs the number of solves counted, warmup included
+ * @param counts the total of each of the day's counters over those solves
+ */
+public record CounterRun(String name, String input, int runs, Map<String, Long> counts) {}
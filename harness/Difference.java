@@ -0,0 +1,44 @@
+package harness;
+
+/**
+ * A day's engines measured next to the reference code they replaced, on the
+ * same input
+ * @author Brian Dahlem
+ *
+ * @param name the name of the day
+ * @param size the size of the generated input, or 0 for an input file
+ * @param reference the measurements of the reference code
+ * @param engine the measurements of the current engines
+ */
+public record Difference(String name, int size, Measurement reference, Measurement engine) {
+    /**
+     * Check that the engines found the reference's answers
+     * @return true if both answers are the same
+     */
+    public boolean matches() {
+        return reference.partOne() == engine.partOne() && reference.partTwo() == engine.partTwo();
+    }
+
+    /**
+     * Find how many times faster the engines are in a phase
+     * @param phase the phase
+     * @return the reference's median time over the engines' median time
+     */
+    public double speedup(Phase phase) {
+        return (double) reference.stats().get(phase).median() / Math.max(engine.stats().get(phase).median(), 1);
+    }
+
+    /**
+     * Find how many times faster the engines are over a whole solve
+     * @return the sum of the reference's median times over the sum of the engines'
+     */
+    public double speedup() {
+        long referenceNanos = 0;
+        long engineNanos = 0;
+        for (Phase phase : Phase.values()) {
+            referenceNanos += reference.stats().get(phase).median();
+            engineNanos += engine.stats().get(phase).median();
+        }
+        return (double) referenceNanos / Math.max(engineNanos, 1);
+    }
+}
@@ -0,0 +1,141 @@
+package harness;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import common.Input;
+import common.Referenced;
+import common.Solver;
+import gen.Generators;
+
+/**
+ * Run each day's engines side by side with the reference code they replaced,
+ * on the same generated inputs of growing size, checking that they find the
+ * same answers and measuring how much faster they are.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Differential [options] [day[,day...]]
+ *   --input file       compare on an input file instead (single day only)
+ *   --sizes n[,n...]   sizes of the generated inputs (default 100,300,1000,3000)
+ *   --seed n           random seed for generated inputs (default 2025)
+ *   --warmup n         untimed runs of each before measuring (default 3)
+ *   --iterations n     measured runs of each (default 10)
+ *   --json file|-      also write the results as JSON
+ *
+ * Only {@link Referenced} days can be compared (5, 7 and 11); with no days
+ * named, all of them are. Both implementations are measured with the runner,
+ * reference first, and the report gives each phase's median times and the
+ * reference's median over the engines' (the speedup), then the size from
+ * which the engines stayed faster over a whole solve. The exit status is 1 if
+ * any answers differ.
+ */
+public final class Differential {
+    private Differential() {}
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> days = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>(List.of(100, 300, 1000, 3000));
+        String input = null;
+        long seed = Generators.DEFAULT_SEED;
+        int warmup = 3;
+        int iterations = 10;
+        String json = null;
+
+        // Parse the command line
+        boolean valid = true;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--input" -> input = args[++i];
+                    case "--sizes" -> {
+                        sizes.clear();
+                        for (String size : args[++i].split(",")) {
+                            sizes.add(Integer.parseInt(size));
+                        }
+                    }
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                    case "--json" -> json = args[++i];
+                    default -> {
+                        for (String day : args[i].split(",")) {
+                            days.add(Integer.parseInt(day));
+                        }
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            valid = false;
+        }
+
+        if (!valid || iterations < 1 || warmup < 0 || sizes.isEmpty() || sizes.stream().anyMatch(size -> size < 1)
+            || (input != null && days.size() != 1) || days.stream().anyMatch(day -> day < 1 || day > Solvers.DAYS)) {
+            System.err.println("Usage: java harness.Differential [--input file | --sizes n[,n...] [--seed n]] "
+                + "[--warmup n] [--iterations n] [--json file|-] [day[,day...]]");
+            System.exit(1);
+        }
+
+        // Every day with a reference, unless some were named
+        if (days.isEmpty()) {
+            for (int day = 1; day <= Solvers.DAYS; day++) {
+                try {
+                    if (Solvers.forDay(day) instanceof Referenced) {
+                        days.add(day);
+                    }
+                } catch (Exception | LinkageError e) {
+                    // a day that cannot be loaded has nothing to compare
+                }
+            }
+        }
+
+        List<Difference> differences = new ArrayList<>();
+        for (int day : days) {
+            Solver<?> solver = Solvers.forDay(day);
+            if (!(solver instanceof Referenced referenced)) {
+                System.err.println("Day " + day + " has no reference to compare with");
+                System.exit(1);
+                return;
+            }
+
+            if (input != null) {
+                differences.add(compare("day" + day, 0, input, referenced.reference(), solver,
+                    Runner.load(input), warmup, iterations));
+                continue;
+            }
+            for (int size : sizes) {
+                differences.add(compare("day" + day, size, "generated(size=%d, seed=%d)".formatted(size, seed),
+                    referenced.reference(), solver, Input.of(Generators.generate(day, size, seed)), warmup, iterations));
+            }
+        }
+
+        System.out.print(Report.differential(differences));
+        Runner.write(json, Report.differentialJson(differences));
+
+        if (differences.stream().anyMatch(difference -> !difference.matches())) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Measure the reference and the engines on the same input
+     * @param name the name of the day
+     * @param size the size of the generated input, or 0 for an input file
+     * @param file the name of the input
+     * @param reference the reference solver
+     * @param engine the current solver
+     * @param data the raw input data
+     * @param warmup the number of untimed runs of each
+     * @param iterations the number of timed runs of each
+     * @return both measurements
+     */
+    private static Difference compare(String name, int size, String file, Solver<?> reference, Solver<?> engine,
+        Input data, int warmup, int iterations) {
+
+        // Warm both first, so the code they share is no colder for whichever is measured first
+        Runner.measure(name, file, engine, data, warmup, 1);
+        Measurement before = Runner.measure(name + " reference", file, reference, data, warmup, iterations);
+        Measurement after = Runner.measure(name, file, engine, data, warmup, iterations);
+        return new Difference(name, size, before, after);
+    }
+}
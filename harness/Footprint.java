@@ -0,0 +1,149 @@
+package harness;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+
+import common.Input;
+import common.Solver;
+import common.Tokenizer;
+import gen.Generators;
+
+/**
+ * Measure how much heap each day's prepared data retains and how much each
+ * phase needs at its peak, to find which structures to make smaller.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Footprint [options] day[,day...]
+ *   --input file       input file to solve (single day only, default dayN.txt)
+ *   --size n           solve a generated input of n records instead of a file
+ *   --seed n           random seed for generated inputs (default 2025)
+ *   --top n            how many of the largest classes to list (default 10)
+ *
+ * Each day is prepared and solved once. A live class histogram is taken
+ * before preparation and after each phase, with the prepared data still
+ * referenced, so the difference is what the data (and anything the parts
+ * left attached to it) retains; the classes it is made of show which
+ * structure is responsible. The peak is the most live heap seen after any
+ * collection during the phase (see {@link PeakHeap}). Sizes are also given
+ * per line of input, to show how they will grow with larger inputs.
+ */
+public final class Footprint {
+    private Footprint() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<Integer> days = new ArrayList<>();
+        String input = null;
+        int size = 0;
+        long seed = Generators.DEFAULT_SEED;
+        int top = 10;
+
+        // Parse the command line
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--input" -> input = args[++i];
+                    case "--size" -> size = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--top" -> top = Integer.parseInt(args[++i]);
+                    default -> {
+                        for (String day : args[i].split(",")) {
+                            days.add(Integer.parseInt(day));
+                        }
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            days.clear();
+        }
+
+        if (days.isEmpty() || top < 0 || (input != null && days.size() > 1) || (input != null && size > 0)) {
+            System.err.println("Usage: java harness.Footprint [--input file | --size n [--seed n]] [--top n] "
+                + "day[,day...]");
+            System.exit(1);
+        }
+
+        for (int day : days) {
+            String file;
+            Input data;
+            if (size > 0) {
+                file = "generated(size=%d, seed=%d)".formatted(size, seed);
+                data = Input.of(Generators.generate(day, size, seed));
+            }
+            else {
+                file = input != null ? input : Solvers.defaultInput(day);
+                data = Runner.load(file);
+            }
+
+            List<HeapUse> uses = measure(Solvers.forDay(day), data);
+            System.out.print(Report.footprint("day" + day, file, lines(data), uses, top));
+        }
+    }
+
+    /**
+     * Prepare and solve an input once, measuring the heap after and during
+     * each phase
+     * @param solver the solver to run
+     * @param data the raw input data
+     * @return the heap used by each phase
+     */
+    public static <T> List<HeapUse> measure(Solver<T> solver, Input data) throws InterruptedException {
+        List<HeapUse> uses = new ArrayList<>();
+
+        HeapHistogram before = HeapHistogram.live();
+        long base = before.bytes();
+
+        T prepared;
+        long peak;
+        try (PeakHeap watcher = PeakHeap.watch()) {
+            prepared = solver.prepare(data);
+            peak = watcher.peak();
+        }
+        uses.add(new HeapUse(Phase.PREPARE, HeapHistogram.live().minus(before), above(peak, base)));
+
+        try (PeakHeap watcher = PeakHeap.watch()) {
+            solver.partOne(prepared);
+            peak = watcher.peak();
+        }
+        uses.add(new HeapUse(Phase.PART_ONE, HeapHistogram.live().minus(before), above(peak, base)));
+
+        try (PeakHeap watcher = PeakHeap.watch()) {
+            solver.partTwo(prepared);
+            peak = watcher.peak();
+        }
+        uses.add(new HeapUse(Phase.PART_TWO, HeapHistogram.live().minus(before), above(peak, base)));
+
+        // The prepared data has to survive every histogram to be counted in it
+        Reference.reachabilityFence(prepared);
+
+        return uses;
+    }
+
+    /**
+     * Find how far a peak rose above the heap in use before preparation
+     * @param peak the peak heap, or -1 if there was no collection to see it
+     * @param base the live heap before preparation
+     * @return the growth, or -1 if the peak was not seen
+     */
+    private static long above(long peak, long base) {
+        return peak < 0 ? -1 : Math.max(0, peak - base);
+    }
+
+    /**
+     * Count the lines of an input, including any after a blank line
+     * @param data the input
+     * @return the number of non-blank lines
+     */
+    private static long lines(Input data) {
+        long lines = 0;
+        Tokenizer tokens = Tokenizer.of(data);
+        while (!tokens.atEnd()) {
+            if (!tokens.atLineEnd()) {
+                lines++;
+            }
+            tokens.nextLine();
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,113 @@
+package harness;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The number and size of the live objects of each class on the heap, or the
+ * change in them between two points.
+ * @author Brian Dahlem
+ *
+ * A histogram is taken with the JVM's GC.class_histogram diagnostic command
+ * (the same as "jcmd pid GC.class_histogram"), which runs a full collection
+ * first so that only objects that are still reachable are counted. The
+ * difference between a histogram taken before building a structure and one
+ * taken after, while the structure is still referenced, is what the structure
+ * retains. The command is specific to HotSpot JVMs.
+ *
+ * @param types the objects and bytes of each class, by class name
+ */
+public record HeapHistogram(Map<String, Entry> types) {
+    /** Finds the count, size and class of each row of the command's output */
+    private static final Pattern ROW = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+)", Pattern.MULTILINE);
+
+    /**
+     * The live objects of one class
+     * @param type the class name, as the JVM prints it (e.g. [B for byte[])
+     * @param objects the number of objects
+     * @param bytes the shallow size of the objects together
+     */
+    public record Entry(String type, long objects, long bytes) {}
+
+    /**
+     * Collect garbage and count the live objects of every class
+     * @return the histogram of the heap
+     */
+    public static HeapHistogram live() {
+        String text;
+        try {
+            text = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                new Object[] { new String[0] }, new String[] { String[].class.getName() });
+        } catch (JMException e) {
+            throw new IllegalStateException("This JVM cannot take a class histogram", e);
+        }
+
+        Map<String, Entry> types = new HashMap<>();
+        Matcher row = ROW.matcher(text);
+        while (row.find()) {
+            // A class loaded by two loaders appears twice
+            String type = row.group(3);
+            Entry entry = types.getOrDefault(type, new Entry(type, 0, 0));
+            types.put(type, new Entry(type, entry.objects() + Long.parseLong(row.group(1)),
+                entry.bytes() + Long.parseLong(row.group(2))));
+        }
+
+        return new HeapHistogram(types);
+    }
+
+    /**
+     * Find what changed since an earlier histogram
+     * @param before the earlier histogram
+     * @return the growth (or shrinkage, as negative numbers) of each class
+     */
+    public HeapHistogram minus(HeapHistogram before) {
+        Map<String, Entry> change = new HashMap<>();
+        for (Entry entry : types.values()) {
+            Entry old = before.types.getOrDefault(entry.type(), new Entry(entry.type(), 0, 0));
+            change.put(entry.type(), new Entry(entry.type(), entry.objects() - old.objects(),
+                entry.bytes() - old.bytes()));
+        }
+        for (Entry old : before.types.values()) {
+            change.putIfAbsent(old.type(), new Entry(old.type(), -old.objects(), -old.bytes()));
+        }
+        return new HeapHistogram(change);
+    }
+
+    /**
+     * Get the total size of the objects
+     * @return the bytes of every class together
+     */
+    public long bytes() {
+        return types.values().stream().mapToLong(Entry::bytes).sum();
+    }
+
+    /**
+     * Get the total number of objects
+     * @return the objects of every class together
+     */
+    public long objects() {
+        return types.values().stream().mapToLong(Entry::objects).sum();
+    }
+
+    /**
+     * Find the classes taking the most space
+     * @param count the most classes to return
+     * @return the classes with the most bytes, largest first
+     */
+    public List<Entry> largest(int count) {
+        List<Entry> entries = new ArrayList<>(types.values());
+        entries.removeIf(entry -> entry.bytes() <= 0);
+        entries.sort(Comparator.comparingLong(Entry::bytes).reversed());
+        return entries.subList(0, Math.min(count, entries.size()));
+    }
+}
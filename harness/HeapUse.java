@@ -0,0 +1,13 @@
+package harness;
+
+/**
+ * How much heap one phase of a solve left in use and needed at its peak
+ * @author Brian Dahlem
+ *
+ * @param phase the phase
+ * @param retained the live objects held after the phase, compared with
+ *                 before preparation; for preparation this is the prepared data
+ * @param peakBytes the most live heap during the phase, compared with before
+ *                  preparation, or -1 if no collection happened during it
+ */
+public record HeapUse(Phase phase, HeapHistogram retained, long peakBytes) {}
@@ -0,0 +1,15 @@
+package harness;
+
+/**
+ * The outcome of one day scheduled alongside others
+ * @author Brian Dahlem
+ *
+ * @param name the name of the day
+ * @param measurement the day's answers and latency distributions, or null if it failed
+ * @param wallNanos the wall clock time from the start to the end of the day's runs
+ * @param cpuNanos the CPU time used by the thread that ran the day, or -1 if
+ *                 the JVM cannot measure it; approximate, as it leaves out
+ *                 work the day forked onto other threads of the pool
+ * @param error why the day failed, or null if it succeeded
+ */
+public record Job(String name, Measurement measurement, long wallNanos, long cpuNanos, String error) {}
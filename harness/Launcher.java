@@ -0,0 +1,269 @@
+package harness;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Start {@link Quick} in a fresh JVM that shares the classes of an earlier
+ * training run (AppCDS), and measure the time to the first answer.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Launcher [--dir dir] train [--size n]
+ *        java harness.Launcher [--dir dir] run [quick options] day[,day...]
+ *        java harness.Launcher [--dir dir] compare [--runs n] [quick options] day[,day...]
+ *
+ *   --dir dir          where the archive and application jar are kept (default .aoc-cds)
+ *   --size n           the size of the generated inputs trained on (default 300)
+ *   --runs n           the JVMs to start each way when comparing (default 5)
+ *
+ * train packs the class directories on the class path into dir/app.jar (the
+ * JVM only shares classes loaded from jars), then solves every day once on a
+ * generated input with -XX:ArchiveClassesAtExit, so dir/app.jsa holds every
+ * class a solve loads, already parsed and verified.
+ *
+ * run starts Quick with the archive and the same class path, passing the
+ * options on, and reports the time to its first and last answers on stderr.
+ *
+ * compare starts Quick a number of times without class sharing, with only the
+ * JDK's own archive and with the trained archive, and reports the time to the
+ * first answer each way. Train again after rebuilding, since the JVM ignores
+ * an archive whose jars have changed.
+ */
+public final class Launcher {
+    /** The directory the archive and application jar are kept in by default */
+    private static final String DEFAULT_DIR = ".aoc-cds";
+
+    private Launcher() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path dir = Path.of(DEFAULT_DIR);
+        int size = 300;
+        int runs = 5;
+        List<String> options = new ArrayList<>();
+        String mode = null;
+
+        // Parse the command line, leaving Quick's options for Quick
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (mode == null && args[i].equals("--dir")) {
+                    dir = Path.of(args[++i]);
+                }
+                else if (mode == null) {
+                    mode = args[i];
+                }
+                else if (mode.equals("train") && args[i].equals("--size")) {
+                    size = Integer.parseInt(args[++i]);
+                }
+                else if (mode.equals("compare") && args[i].equals("--runs")) {
+                    runs = Integer.parseInt(args[++i]);
+                }
+                else {
+                    options.add(args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            mode = null;
+        }
+
+        boolean valid = mode != null && size > 0 && runs > 0 && switch (mode) {
+            case "train" -> options.isEmpty();
+            case "run", "compare" -> !options.isEmpty();
+            default -> false;
+        };
+        if (!valid) {
+            System.err.println("Usage: java harness.Launcher [--dir dir] train [--size n]");
+            System.err.println("       java harness.Launcher [--dir dir] run [quick options] day[,day...]");
+            System.err.println("       java harness.Launcher [--dir dir] compare [--runs n] [quick options] day[,day...]");
+            System.exit(1);
+        }
+
+        Path archive = dir.resolve("app.jsa");
+        switch (mode) {
+            case "train" -> train(dir, archive, size);
+            case "run" -> {
+                List<String> jvm = new ArrayList<>();
+                if (Files.exists(archive)) {
+                    jvm.add("-XX:SharedArchiveFile=" + archive);
+                }
+                else {
+                    System.err.println("No archive in " + dir + "; run \"train\" first. Starting without it.");
+                }
+                long[] launch = launch(dir, jvm, options, true);
+                System.err.printf("First answer after %.1fms, all answers after %.1fms%n",
+                    launch[0] / 1e6, launch[1] / 1e6);
+                System.exit((int) launch[2]);
+            }
+            default -> {
+                if (!Files.exists(archive)) {
+                    System.err.println("No archive in " + dir + "; run \"train\" first");
+                    System.exit(1);
+                }
+                List<Startup> startups = new ArrayList<>();
+                startups.add(startup("no sharing", dir, List.of("-Xshare:off"), options, runs));
+                startups.add(startup("JDK archive", dir, List.of(), options, runs));
+                startups.add(startup("app archive", dir, List.of("-XX:SharedArchiveFile=" + archive), options, runs));
+                System.out.print(Report.startup(startups));
+            }
+        }
+    }
+
+    /**
+     * Pack the application into a jar and record the classes a solve of every
+     * day loads into an archive
+     * @param dir the directory to keep the jar and archive in
+     * @param archive the archive to write
+     * @param size the size of the generated inputs to solve
+     */
+    private static void train(Path dir, Path archive, int size) throws IOException, InterruptedException {
+        Files.createDirectories(dir);
+        int classes = pack(dir.resolve("app.jar"));
+        Files.deleteIfExists(archive);
+
+        // A day that cannot be solved here (such as day 10 without Z3) only
+        // leaves its classes out of the archive
+        StringBuilder days = new StringBuilder();
+        for (int day = 1; day <= Solvers.DAYS; day++) {
+            days.append(day == 1 ? "" : ",").append(day);
+        }
+        long[] launch = launch(dir, List.of("-XX:ArchiveClassesAtExit=" + archive),
+            List.of("--size", String.valueOf(size), days.toString()), false);
+
+        if (!Files.exists(archive)) {
+            System.err.println("The training run did not write " + archive);
+            System.exit(1);
+        }
+        System.out.printf("Packed %,d classes into %s; trained in %.1fms; wrote %s (%,d bytes)%n", classes,
+            dir.resolve("app.jar"), launch[1] / 1e6, archive, Files.size(archive));
+    }
+
+    /**
+     * Start JVMs one way a number of times and measure how quickly they answer
+     * @param name how the JVMs are started
+     * @param dir the directory holding the application jar
+     * @param jvm the JVM options
+     * @param options Quick's options
+     * @param runs the number of JVMs to start
+     * @return the times to the first answer and to exit
+     */
+    private static Startup startup(String name, Path dir, List<String> jvm, List<String> options, int runs)
+        throws IOException, InterruptedException {
+        long[] first = new long[runs];
+        long[] all = new long[runs];
+        int failures = 0;
+        for (int i = 0; i < runs; i++) {
+            long[] launch = launch(dir, jvm, options, false);
+            first[i] = launch[0];
+            all[i] = launch[1];
+            failures += launch[2] == 0 ? 0 : 1;
+        }
+        return new Startup(name, runs, Stats.of(first), Stats.of(all), failures);
+    }
+
+    /**
+     * Start Quick in a fresh JVM on the application jar and wait for it
+     * @param dir the directory holding the application jar
+     * @param jvm the JVM options
+     * @param options Quick's options
+     * @param echo whether to print what Quick prints
+     * @return the nanoseconds to the first answer (or to exit if there was
+     *         none), the nanoseconds to exit, and the exit status
+     */
+    private static long[] launch(Path dir, List<String> jvm, List<String> options, boolean echo)
+        throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvm);
+        command.add("-cp");
+        command.add(classPath(dir));
+        command.add(Quick.class.getName());
+        command.addAll(options);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        long first = -1;
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                // The JVM may print its own warnings before any answer
+                if (first < 0 && line.matches("day\\d+ part [12]: .*")) {
+                    first = System.nanoTime() - start;
+                }
+                if (echo) {
+                    System.out.println(line);
+                }
+            }
+        }
+        int status = process.waitFor();
+        long all = System.nanoTime() - start;
+
+        return new long[] { first < 0 ? all : first, all, status };
+    }
+
+    /**
+     * Find the class path to start Quick with: the application jar followed by
+     * the jars (such as Z3's) already on this JVM's class path
+     * @param dir the directory holding the application jar
+     * @return the class path
+     */
+    private static String classPath(Path dir) {
+        List<String> entries = new ArrayList<>();
+        entries.add(dir.resolve("app.jar").toAbsolutePath().toString());
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (Files.isRegularFile(Path.of(entry))) {
+                entries.add(Path.of(entry).toAbsolutePath().toString());
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * Pack the classes in the directories on this JVM's class path into a jar
+     * @param jar the jar to write
+     * @return the number of classes packed
+     */
+    private static int pack(Path jar) throws IOException {
+        Path partial = jar.resolveSibling(jar.getFileName() + ".tmp");
+        Set<String> packed = new HashSet<>();
+
+        try (OutputStream file = Files.newOutputStream(partial); JarOutputStream out = new JarOutputStream(file)) {
+            for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                Path root = Path.of(entry);
+                if (!Files.isDirectory(root)) {
+                    continue;
+                }
+
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(root)) {
+                    files = walk.filter(path -> path.toString().endsWith(".class")).sorted().toList();
+                }
+                for (Path path : files) {
+                    // As on the class path, the first directory holding a class wins
+                    String name = root.relativize(path).toString().replace(File.separatorChar, '/');
+                    if (packed.add(name)) {
+                        out.putNextEntry(new JarEntry(name));
+                        Files.copy(path, out);
+                        out.closeEntry();
+                    }
+                }
+            }
+        }
+
+        Files.move(partial, jar, StandardCopyOption.REPLACE_EXISTING);
+        return packed.size();
+    }
+}
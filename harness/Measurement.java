@@ -0,0 +1,32 @@
+package harness;
+
+import java.util.Map;
+
+/**
+ * The results of repeatedly solving one day's input
+ * @author Brian Dahlem
+ *
+ * @param name the name of the day that was solved
+ * @param input the input file that was solved
+ * @param warmup the number of untimed warmup runs
+ * @param iterations the number of measured runs
+ * @param partOne the answer to part one
+ * @param partTwo the answer to part two
+ * @param stats the latency distribution of each phase
+ */
+public record Measurement(String name, String input, int warmup, int iterations,
+    long partOne, long partTwo, Map<Phase, Stats> stats) {
+
+    /**
+     * Get the answer produced by a phase
+     * @param phase the phase
+     * @return the answer, or null for phases that produce no answer
+     */
+    public Long answer(Phase phase) {
+        return switch (phase) {
+            case PART_ONE -> partOne;
+            case PART_TWO -> partTwo;
+            default -> null;
+        };
+    }
+}
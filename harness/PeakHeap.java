@@ -0,0 +1,130 @@
+package harness;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Watch the garbage collector for the most heap still in use after any
+ * collection, which is the most live data the program held at once.
+ * @author Brian Dahlem
+ *
+ * The heap in use right after a collection is (nearly) all live data, so the
+ * largest such figure over a stretch of work is its peak footprint. It is only
+ * as exact as the collections are frequent: a peak that came and went between
+ * two collections is missed. A smaller young generation (e.g. -Xmn8m) makes
+ * collections, and so the figure, more frequent.
+ *
+ * The JVM reports collections on a thread of its own, so peak waits for the
+ * reports of every collection that has already happened before answering.
+ */
+public final class PeakHeap implements AutoCloseable, NotificationListener {
+    /** The collectors being watched */
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    /** The names of the memory pools that make up the heap */
+    private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .map(MemoryPoolMXBean::getName)
+        .collect(Collectors.toSet());
+    /** The number of collections before watching started */
+    private final long startCount;
+    /** The JVM's uptime in milliseconds when watching started */
+    private final long startTime;
+
+    /** The collections reported so far */
+    private long reported;
+    /** The most heap in use after a reported collection, or -1 if there has been none */
+    private long peak = -1;
+
+    private PeakHeap() {
+        startCount = collections();
+        startTime = ManagementFactory.getRuntimeMXBean().getUptime();
+        for (GarbageCollectorMXBean collector : collectors) {
+            ((NotificationEmitter) collector).addNotificationListener(this, null, null);
+        }
+    }
+
+    /**
+     * Start watching collections
+     * @return the watcher, which must be closed to stop watching
+     */
+    public static PeakHeap watch() {
+        return new PeakHeap();
+    }
+
+    /**
+     * Get the most heap in use after a collection since watching started
+     * @return the bytes in use, or -1 if there has not been a collection
+     */
+    public synchronized long peak() throws InterruptedException {
+        // Give the reports of collections that already happened time to arrive
+        long due = collections() - startCount;
+        long deadline = System.currentTimeMillis() + 1000;
+        while (reported < due && System.currentTimeMillis() < deadline) {
+            wait(10);
+        }
+        return peak;
+    }
+
+    @Override
+    public synchronized void handleNotification(Notification notification, Object handback) {
+        if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+            return;
+        }
+
+        // A late report of a collection from before watching started is not counted
+        GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (info.getGcInfo().getStartTime() < startTime) {
+            return;
+        }
+
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPools.contains(pool.getKey())) {
+                used += pool.getValue().getUsed();
+            }
+        }
+
+        peak = Math.max(peak, used);
+        reported++;
+        notifyAll();
+    }
+
+    @Override
+    public void close() {
+        for (GarbageCollectorMXBean collector : collectors) {
+            try {
+                ((NotificationEmitter) collector).removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+                // never added
+            }
+        }
+    }
+
+    /**
+     * Count the collections so far
+     * @return the number of collections by every collector
+     */
+    private long collections() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,33 @@
+package harness;
+
+/**
+ * The separately timed phases of solving a day
+ * @author Brian Dahlem
+ */
+public enum Phase {
+    PREPARE("Preparation"),
+    PART_ONE("Part 1"),
+    PART_TWO("Part 2");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Get the human readable name of the phase
+     * @return the label used in console output
+     */
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Get the machine readable name of the phase
+     * @return the key used in JSON and CSV output
+     */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,42 @@
+package harness;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event covering one phase of a solve.
+ * @author Brian Dahlem
+ *
+ * Record with -XX:StartFlightRecording (the events cost nothing when no
+ * recording is running) and look for aoc.Phase in the recording.
+ */
+@Name("aoc.Phase")
+@Label("Solver Phase")
+@Category({ "Advent of Code", "Harness" })
+@Description("Preparation or one part of a day's solve")
+class PhaseEvent extends Event {
+    @Label("Solver")
+    String solver;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the solving thread during the phase")
+    @DataAmount
+    long allocated;
+
+    @Label("GC Time")
+    @Description("Time the JVM spent collecting garbage during the phase")
+    @Timespan(Timespan.MILLISECONDS)
+    long gcTime;
+
+    @Label("GC Count")
+    @Description("Garbage collections during the phase")
+    long gcCount;
+}
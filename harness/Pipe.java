@@ -0,0 +1,74 @@
+package harness;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import common.Answers;
+import common.Solver;
+import common.Streaming;
+
+/**
+ * Solve a day by streaming its input from stdin (or a file) instead of
+ * loading all of it first.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Pipe day [file]
+ *
+ * Only the days whose solvers are {@link Streaming} can be piped (1, 2, 5, 10
+ * and 11). The answers are printed to stdout and the bytes read, the time
+ * taken and the throughput to stderr, e.g.
+ *
+ *   java gen.Generators 1 100000000 | java harness.Pipe 1
+ */
+public final class Pipe {
+    private Pipe() {}
+
+    public static void main(String[] args) throws IOException {
+        int day = 0;
+        if (args.length == 1 || args.length == 2) {
+            try {
+                day = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+        }
+
+        if (day < 1 || day > Solvers.DAYS) {
+            System.err.println("Usage: java harness.Pipe day [file]");
+            System.exit(1);
+        }
+
+        Solver<?> solver = Solvers.forDay(day);
+        if (!(solver instanceof Streaming streaming)) {
+            System.err.println("Day " + day + " cannot be streamed");
+            System.exit(1);
+            return;
+        }
+
+        long[] read = new long[1];
+        InputStream source = args.length == 2 ? Files.newInputStream(Path.of(args[1])) : System.in;
+        InputStream in = new FilterInputStream(source) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                read[0] += Math.max(n, 0);
+                return n;
+            }
+        };
+
+        long start = System.nanoTime();
+        Answers answers;
+        try (in) {
+            answers = streaming.stream(in);
+        }
+        long nanos = System.nanoTime() - start;
+
+        System.out.println("Part 1: {" + answers.partOne() + "}");
+        System.out.println("Part 2: {" + answers.partTwo() + "}");
+        System.err.printf("Streamed %,d bytes in %.3fms (%.1f MB/s)%n", read[0], nanos / 1e6,
+            read[0] / 1e6 / Math.max(nanos / 1e9, 1e-9));
+    }
+}
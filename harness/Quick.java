@@ -0,0 +1,102 @@
+package harness;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import common.Input;
+import common.Solver;
+import gen.Generators;
+
+/**
+ * Solve each day once, printing every answer as soon as it is found, for the
+ * quickest answer from a cold start.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Quick [options] day[,day...]
+ *   --input file       input file to solve (single day only, default dayN.txt)
+ *   --size n           solve a generated input of n records instead of a file
+ *   --seed n           random seed for generated inputs (default 2025)
+ *   --part 1|2|both    which answers to print (default both)
+ *
+ * Nothing is repeated, timed or cached, and only the classes a part needs
+ * are loaded: "--part 1" never loads day 10's Z3 libraries. Part two is
+ * always solved after part one, since some days carry on from where part
+ * one left off, so "--part 2" still solves part one without printing it.
+ * A day that fails is reported and the rest carry on; the exit status is 1
+ * if any failed. This is what {@link Launcher} starts in a fresh JVM.
+ */
+public final class Quick {
+    private Quick() {}
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> days = new ArrayList<>();
+        String input = null;
+        int size = 0;
+        long seed = Generators.DEFAULT_SEED;
+        String part = "both";
+
+        // Parse the command line
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--input" -> input = args[++i];
+                    case "--size" -> size = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--part" -> part = args[++i];
+                    default -> {
+                        for (String day : args[i].split(",")) {
+                            days.add(Integer.parseInt(day));
+                        }
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            days.clear();
+        }
+
+        if (days.isEmpty() || (input != null && days.size() > 1) || (input != null && size > 0)
+            || !List.of("1", "2", "both").contains(part)) {
+            System.err.println("Usage: java harness.Quick [--input file | --size n [--seed n]] [--part 1|2|both] "
+                + "day[,day...]");
+            System.exit(1);
+        }
+
+        boolean failed = false;
+        for (int day : days) {
+            try {
+                Input data = size > 0 ? Input.of(Generators.generate(day, size, seed))
+                    : Runner.load(input != null ? input : Solvers.defaultInput(day));
+                answer("day" + day, Solvers.forDay(day), data, part);
+            } catch (Exception | LinkageError e) {
+                System.err.println("day" + day + " failed: " + e);
+                failed = true;
+            }
+        }
+
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Solve an input once, printing each wanted answer as soon as it is found
+     * @param name the name to print the answers under
+     * @param solver the solver to run
+     * @param data the raw input data
+     * @param part which answers to print: 1, 2 or both
+     */
+    private static <T> void answer(String name, Solver<T> solver, Input data, String part) {
+        T prepared = solver.prepare(data);
+
+        String one = solver.partOne(prepared).toString();
+        if (!part.equals("2")) {
+            System.out.println(name + " part 1: " + one);
+            System.out.flush();
+        }
+        if (!part.equals("1")) {
+            System.out.println(name + " part 2: " + solver.partTwo(prepared));
+            System.out.flush();
+        }
+    }
+}
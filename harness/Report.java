@@ -0,0 +1,474 @@
+package harness;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Format measurements as a console table, JSON or CSV
+ * @author Brian Dahlem
+ */
+public final class Report {
+    private Report() {}
+
+    /**
+     * Format measurements as a human readable table
+     * @param measurements the measurements to format
+     * @return the table text
+     */
+    public static String table(List<Measurement> measurements) {
+        StringBuilder out = new StringBuilder();
+        String row = "%-12s %20s %14s %14s %14s %14s %14s%n";
+
+        for (Measurement m : measurements) {
+            out.append("%s (%s): %d warmup, %d measured%n"
+                .formatted(m.name(), m.input(), m.warmup(), m.iterations()));
+            out.append(row.formatted("Phase", "Answer", "min(ns)", "median(ns)",
+                "p90(ns)", "p99(ns)", "max(ns)"));
+
+            for (Phase phase : Phase.values()) {
+                Stats s = m.stats().get(phase);
+                Long answer = m.answer(phase);
+                out.append(row.formatted(phase.label(), answer == null ? "-" : answer,
+                    s.min(), s.median(), s.p90(), s.p99(), s.max()));
+            }
+            out.append(System.lineSeparator());
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Format measurements as a JSON array with one object per day
+     * @param measurements the measurements to format
+     * @return the JSON text
+     */
+    public static String json(List<Measurement> measurements) {
+        StringBuilder out = new StringBuilder("[\n");
+
+        for (int i = 0; i < measurements.size(); i++) {
+            json(out, measurements.get(i), "  ");
+            out.append(i < measurements.size() - 1 ? ",\n" : "\n");
+        }
+
+        return out.append("]\n").toString();
+    }
+
+    /**
+     * Format one measurement as a JSON object
+     * @param out where to append the JSON text
+     * @param m the measurement to format
+     * @param indent the indentation of the object
+     */
+    private static void json(StringBuilder out, Measurement m, String indent) {
+        out.append(indent).append("{\"name\": \"%s\", \"input\": \"%s\", \"warmup\": %d, \"iterations\": %d,\n"
+            .formatted(escape(m.name()), escape(m.input()), m.warmup(), m.iterations()));
+        out.append(indent).append(" \"phases\": {\n");
+
+        Phase[] phases = Phase.values();
+        for (int p = 0; p < phases.length; p++) {
+            Stats s = m.stats().get(phases[p]);
+            out.append(indent).append("   \"%s\": {\"answer\": %s, \"min\": %d, \"median\": %d, \"p90\": %d, \"p99\": %d, \"max\": %d}%s\n"
+                .formatted(phases[p].key(), m.answer(phases[p]), s.min(), s.median(),
+                    s.p90(), s.p99(), s.max(), p < phases.length - 1 ? "," : ""));
+        }
+
+        out.append(indent).append(" }}");
+    }
+
+    /**
+     * Format the results of running several days at once as a human readable
+     * summary followed by each day's table
+     * @param schedule the results to format
+     * @return the report text
+     */
+    public static String schedule(Schedule schedule) {
+        StringBuilder out = new StringBuilder();
+        String row = "%-12s %14s %14s  %s%n";
+
+        out.append("%d days on %d threads: wall %.3fms, process CPU %s%n".formatted(schedule.jobs().size(),
+            schedule.threads(), schedule.wallNanos() / 1e6, cpu(schedule.cpuNanos(), schedule.wallNanos())));
+        out.append(row.formatted("Day", "wall(ns)", "~cpu(ns)", "Status"));
+        for (Job job : schedule.jobs()) {
+            out.append(row.formatted(job.name(), job.wallNanos(), job.cpuNanos() < 0 ? "-" : job.cpuNanos(),
+                job.error() == null ? "ok" : job.error()));
+        }
+        out.append(System.lineSeparator());
+
+        return out.append(table(schedule.measurements())).toString();
+    }
+
+    /**
+     * Describe the CPU time used over a stretch of wall clock time
+     * @param cpuNanos the CPU time, or -1 if it was not measured
+     * @param wallNanos the wall clock time
+     * @return the CPU time and how many cores it kept busy on average
+     */
+    private static String cpu(long cpuNanos, long wallNanos) {
+        if (cpuNanos < 0) {
+            return "not measured";
+        }
+        return "%.3fms (%.2fx the wall time)".formatted(cpuNanos / 1e6, (double) cpuNanos / wallNanos);
+    }
+
+    /**
+     * Format the results of running several days at once as a JSON object
+     * @param schedule the results to format
+     * @return the JSON text
+     */
+    public static String json(Schedule schedule) {
+        StringBuilder out = new StringBuilder();
+        out.append("{\"threads\": %d, \"wall_ns\": %d, \"cpu_ns\": %d,\n \"days\": [\n"
+            .formatted(schedule.threads(), schedule.wallNanos(), schedule.cpuNanos()));
+
+        List<Job> jobs = schedule.jobs();
+        for (int i = 0; i < jobs.size(); i++) {
+            Job job = jobs.get(i);
+            out.append("  {\"name\": \"%s\", \"wall_ns\": %d, \"cpu_ns\": %d, \"error\": %s,\n"
+                .formatted(escape(job.name()), job.wallNanos(), job.cpuNanos(),
+                    job.error() == null ? "null" : "\"" + escape(job.error()) + "\""));
+            out.append("   \"measurement\":");
+            if (job.measurement() == null) {
+                out.append(" null}");
+            }
+            else {
+                out.append("\n");
+                json(out, job.measurement(), "    ");
+                out.append("}");
+            }
+            out.append(i < jobs.size() - 1 ? ",\n" : "\n");
+        }
+
+        return out.append(" ]}\n").toString();
+    }
+
+    /**
+     * Format the results of solving a batch of inputs as a human readable
+     * summary, latency table and list of the slowest and failed inputs
+     * @param batch the results to format
+     * @param slowest how many of the slowest inputs to list
+     * @return the report text
+     */
+    public static String batch(BatchRun batch, int slowest) {
+        StringBuilder out = new StringBuilder();
+        String row = "%-12s %14s %14s %14s %14s %14s%n";
+
+        out.append("day%d: %d inputs on %d threads in %.3fms, %.1f inputs/s, %d failed%n".formatted(batch.day(),
+            batch.items().size(), batch.threads(), batch.wallNanos() / 1e6, batch.throughput(),
+            batch.failures().size()));
+
+        if (batch.stats(null) != null) {
+            out.append(row.formatted("Phase", "min(ns)", "median(ns)", "p90(ns)", "p99(ns)", "max(ns)"));
+            for (Phase phase : Phase.values()) {
+                Stats s = batch.stats(phase);
+                out.append(row.formatted(phase.label(), s.min(), s.median(), s.p90(), s.p99(), s.max()));
+            }
+            Stats s = batch.stats(null);
+            out.append(row.formatted("Total", s.min(), s.median(), s.p90(), s.p99(), s.max()));
+        }
+
+        List<BatchItem> slow = batch.slowest(slowest);
+        if (!slow.isEmpty()) {
+            out.append("%nSlowest inputs:%n".formatted());
+            for (BatchItem item : slow) {
+                out.append("  %14d ns  %s (%d, %d)%n".formatted(item.nanos(), item.input(),
+                    item.run().partOne(), item.run().partTwo()));
+            }
+        }
+
+        List<BatchItem> failures = batch.failures();
+        if (!failures.isEmpty()) {
+            out.append("%nFailed inputs:%n".formatted());
+            for (BatchItem item : failures) {
+                out.append("  %s: %s%n".formatted(item.input(), item.error()));
+            }
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Format the results of solving a batch of inputs as a JSON object
+     * @param batch the results to format
+     * @param slowest how many of the slowest inputs to list
+     * @return the JSON text
+     */
+    public static String json(BatchRun batch, int slowest) {
+        StringBuilder out = new StringBuilder();
+        out.append("{\"day\": %d, \"threads\": %d, \"wall_ns\": %d, \"inputs_per_second\": %.3f,\n"
+            .formatted(batch.day(), batch.threads(), batch.wallNanos(), batch.throughput()));
+
+        out.append(" \"phases\": {");
+        String separator = "\n";
+        for (Phase phase : Phase.values()) {
+            out.append(separator).append("   \"%s\": %s".formatted(phase.key(), json(batch.stats(phase))));
+            separator = ",\n";
+        }
+        out.append(separator).append("   \"total\": %s\n },\n".formatted(json(batch.stats(null))));
+
+        out.append(" \"slowest\": [%s],\n".formatted(String.join(", ", batch.slowest(slowest).stream()
+            .map(item -> "\"" + escape(item.input()) + "\"").toList())));
+
+        out.append(" \"inputs\": [\n");
+        List<BatchItem> items = batch.items();
+        for (int i = 0; i < items.size(); i++) {
+            BatchItem item = items.get(i);
+            Run run = item.run();
+            out.append("  {\"input\": \"%s\", \"part_one\": %s, \"part_two\": %s, \"total_ns\": %d"
+                .formatted(escape(item.input()), run == null ? "null" : run.partOne(),
+                    run == null ? "null" : run.partTwo(), item.nanos()));
+            if (run != null) {
+                for (Phase phase : Phase.values()) {
+                    out.append(", \"%s_ns\": %d".formatted(phase.key(), run.nanos(phase)));
+                }
+            }
+            out.append(", \"error\": %s}%s\n".formatted(
+                item.error() == null ? "null" : "\"" + escape(item.error()) + "\"",
+                i < items.size() - 1 ? "," : ""));
+        }
+
+        return out.append(" ]}\n").toString();
+    }
+
+    /**
+     * Format a latency distribution as a JSON object
+     * @param s the distribution, or null if there is none
+     * @return the JSON text
+     */
+    private static String json(Stats s) {
+        if (s == null) {
+            return "null";
+        }
+        return "{\"min\": %d, \"median\": %d, \"p90\": %d, \"p99\": %d, \"max\": %d}"
+            .formatted(s.min(), s.median(), s.p90(), s.p99(), s.max());
+    }
+
+    /**
+     * Format the heap used by each phase of a day as a human readable table
+     * followed by the classes taking the most space
+     * @param name the name of the day
+     * @param input the name of the input that was solved
+     * @param lines the number of lines in the input
+     * @param uses the heap used by each phase
+     * @param top how many of the largest classes to list for each phase
+     * @return the report text
+     */
+    public static String footprint(String name, String input, long lines, List<HeapUse> uses, int top) {
+        StringBuilder out = new StringBuilder();
+        String row = "%-12s %16s %12s %16s %14s %14s%n";
+
+        out.append("%s (%s): %,d lines%n".formatted(name, input, lines));
+        out.append(row.formatted("Phase", "retained(B)", "objects", "peak(B)", "retained/line", "peak/line"));
+        for (HeapUse use : uses) {
+            long retained = use.retained().bytes();
+            out.append(row.formatted(use.phase().label(), "%,d".formatted(retained),
+                "%,d".formatted(use.retained().objects()),
+                use.peakBytes() < 0 ? "no GC" : "%,d".formatted(use.peakBytes()),
+                perLine(retained, lines), use.peakBytes() < 0 ? "-" : perLine(use.peakBytes(), lines)));
+        }
+
+        for (HeapUse use : uses) {
+            List<HeapHistogram.Entry> largest = use.retained().largest(top);
+            if (largest.isEmpty()) {
+                continue;
+            }
+            out.append("%nLargest classes retained after %s:%n".formatted(use.phase().label()));
+            for (HeapHistogram.Entry entry : largest) {
+                out.append("  %,16d B %,12d  %s%n".formatted(entry.bytes(), entry.objects(), entry.type()));
+            }
+        }
+
+        return out.append(System.lineSeparator()).toString();
+    }
+
+    /**
+     * Format the measured costs of each tradeoff as a human readable table
+     * @param calibrations the measured costs
+     * @return the report text
+     */
+    public static String calibration(List<Calibration> calibrations) {
+        StringBuilder out = new StringBuilder();
+        String row = "%-16s %14s %14s %14s %12s %10s%n";
+
+        out.append(row.formatted("Tradeoff", "brute(ns/u)", "scalable(ns/u)", "setup(ns)", "crossover", "largest"));
+        for (Calibration c : calibrations) {
+            out.append(row.formatted(c.name(), "%.3f".formatted(c.costs().bruteNanos()),
+                "%.3f".formatted(c.costs().scalableNanos()), "%.1f".formatted(c.costs().setupNanos()),
+                c.crossover() < 0 ? "never" : "%,d".formatted(c.crossover()), "%,d".formatted(c.largest())));
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Format the measured costs of each tradeoff as the properties the
+     * solvers read them from
+     * @param calibrations the measured costs
+     * @return the properties text
+     */
+    public static String costs(List<Calibration> calibrations) {
+        StringBuilder out = new StringBuilder("# Engine costs in nanoseconds, measured by java harness.Calibrate\n");
+        for (Calibration c : calibrations) {
+            out.append("%s.brute=%s%n".formatted(c.name(), c.costs().bruteNanos()));
+            out.append("%s.scalable=%s%n".formatted(c.name(), c.costs().scalableNanos()));
+            out.append("%s.setup=%s%n".formatted(c.name(), c.costs().setupNanos()));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Format the engines' and references' times as a human readable table,
+     * with the size from which each day's engines stayed faster
+     * @param differences the measurements of both, in order of size for each day
+     * @return the report text
+     */
+    public static String differential(List<Difference> differences) {
+        StringBuilder out = new StringBuilder();
+        String row = "%-8s %10s %-12s %20s %16s %16s %9s%n";
+
+        out.append(row.formatted("Day", "size", "Phase", "Answer", "reference(ns)", "engine(ns)", "speedup"));
+        for (Difference d : differences) {
+            for (Phase phase : Phase.values()) {
+                Long answer = d.engine().answer(phase);
+                Long expected = d.reference().answer(phase);
+                String shown = answer == null ? "-"
+                    : answer.equals(expected) ? answer.toString() : answer + " != " + expected;
+                out.append(row.formatted(d.name(), d.size() == 0 ? "file" : "%,d".formatted(d.size()), phase.label(),
+                    shown, d.reference().stats().get(phase).median(), d.engine().stats().get(phase).median(),
+                    "%.2fx".formatted(d.speedup(phase))));
+            }
+        }
+
+        // The engines pull ahead at the first size after which they are never slower
+        out.append(System.lineSeparator());
+        for (int i = 0; i < differences.size(); i++) {
+            String name = differences.get(i).name();
+            int ahead = -1;
+            for (; i < differences.size() && differences.get(i).name().equals(name); i++) {
+                Difference d = differences.get(i);
+                if (!d.matches()) {
+                    out.append("%s: ANSWERS DIFFER at size %,d%n".formatted(name, d.size()));
+                }
+                ahead = d.speedup() >= 1 ? (ahead < 0 ? d.size() : ahead) : -1;
+            }
+            i--;
+            out.append("%s: engines %s%n".formatted(name,
+                ahead < 0 ? "are not yet faster at the largest size" : "are faster from size %,d".formatted(ahead)));
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Format the engines' and references' times as JSON, one object per day and size
+     * @param differences the measurements of both
+     * @return the JSON text
+     */
+    public static String differentialJson(List<Difference> differences) {
+        StringBuilder out = new StringBuilder("[\n");
+
+        for (int i = 0; i < differences.size(); i++) {
+            Difference d = differences.get(i);
+            out.append("  {\"name\": \"%s\", \"size\": %d, \"matches\": %s, \"speedup\": %.3f, \"phases\": {\n"
+                .formatted(escape(d.name()), d.size(), d.matches(), d.speedup()));
+
+            Phase[] phases = Phase.values();
+            for (int p = 0; p < phases.length; p++) {
+                out.append("    \"%s\": {\"answer\": %s, \"reference_answer\": %s, \"reference_median\": %d, "
+                    .formatted(phases[p].key(), d.engine().answer(phases[p]), d.reference().answer(phases[p]),
+                        d.reference().stats().get(phases[p]).median())
+                    + "\"engine_median\": %d, \"speedup\": %.3f}%s\n"
+                    .formatted(d.engine().stats().get(phases[p]).median(), d.speedup(phases[p]),
+                        p < phases.length - 1 ? "," : ""));
+            }
+
+            out.append(i < differences.size() - 1 ? "  }},\n" : "  }}\n");
+        }
+
+        return out.append("]\n").toString();
+    }
+
+    /**
+     * Format each day's hot-path counters as a JSON array with one object per day
+     * @param runs the counts of each day
+     * @return the JSON text
+     */
+    public static String counters(List<CounterRun> runs) {
+        StringBuilder out = new StringBuilder("[\n");
+
+        for (int i = 0; i < runs.size(); i++) {
+            CounterRun run = runs.get(i);
+            out.append("  {\"name\": \"%s\", \"input\": \"%s\", \"runs\": %d, \"counters\": {"
+                .formatted(escape(run.name()), escape(run.input()), run.runs()));
+
+            String separator = "";
+            for (Map.Entry<String, Long> counter : run.counts().entrySet()) {
+                out.append(separator).append("\"%s\": %d".formatted(escape(counter.getKey()), counter.getValue()));
+                separator = ", ";
+            }
+
+            out.append(i < runs.size() - 1 ? "}},\n" : "}}\n");
+        }
+
+        return out.append("]\n").toString();
+    }
+
+    /**
+     * Format how quickly JVMs started each way answered as a human readable table
+     * @param startups the times of each way of starting
+     * @return the report text
+     */
+    public static String startup(List<Startup> startups) {
+        StringBuilder out = new StringBuilder();
+        String row = "%-14s %6s %14s %14s %14s %14s%n";
+
+        out.append(row.formatted("Start", "runs", "first(min)", "first(median)", "all(median)", "failed"));
+        for (Startup s : startups) {
+            out.append(row.formatted(s.name(), "%d".formatted(s.runs()),
+                "%.1fms".formatted(s.firstAnswer().min() / 1e6), "%.1fms".formatted(s.firstAnswer().median() / 1e6),
+                "%.1fms".formatted(s.allAnswers().median() / 1e6), "%d".formatted(s.failures())));
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Divide a size among the lines of an input
+     * @param bytes the size
+     * @param lines the number of lines
+     * @return the bytes per line
+     */
+    private static String perLine(long bytes, long lines) {
+        return lines == 0 ? "-" : "%.1f".formatted((double) bytes / lines);
+    }
+
+    /**
+     * Format measurements as CSV with one row per day and phase
+     * @param measurements the measurements to format
+     * @return the CSV text
+     */
+    public static String csv(List<Measurement> measurements) {
+        StringBuilder out = new StringBuilder(
+            "name,input,phase,answer,warmup,iterations,min_ns,median_ns,p90_ns,p99_ns,max_ns\n");
+
+        for (Measurement m : measurements) {
+            for (Phase phase : Phase.values()) {
+                Stats s = m.stats().get(phase);
+                Long answer = m.answer(phase);
+                out.append("%s,%s,%s,%s,%d,%d,%d,%d,%d,%d,%d\n".formatted(m.name(), m.input(),
+                    phase.key(), answer == null ? "" : answer, m.warmup(), m.iterations(),
+                    s.min(), s.median(), s.p90(), s.p99(), s.max()));
+            }
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Escape a string for use inside a JSON string literal
+     * @param s the string
+     * @return the escaped string
+     */
+    static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,59 @@
+package harness;
+
+import common.Result;
+
+/**
+ * The answers and phase durations of a single solve
+ * @author Brian Dahlem
+ *
+ * @param one the result of part one
+ * @param two the result of part two, or null if only part one was solved
+ * @param nanos the duration of each phase in nanoseconds, indexed by phase ordinal
+ *              (0 for a phase that did not run)
+ * @param usage the allocation and garbage collection during each phase, indexed
+ *              by phase ordinal, or null if it is not known (as for cached answers)
+ */
+public record Run(Result one, Result two, long[] nanos, Usage[] usage) {
+    /**
+     * Get the answer to part one
+     * @return the answer
+     */
+    public long partOne() {
+        return one.answer();
+    }
+
+    /**
+     * Get the answer to part two
+     * @return the answer
+     */
+    public long partTwo() {
+        return two.answer();
+    }
+
+    /**
+     * Check whether a phase ran
+     * @param phase the phase
+     * @return true unless it is part two and only part one was solved
+     */
+    public boolean ran(Phase phase) {
+        return phase != Phase.PART_TWO || two != null;
+    }
+
+    /**
+     * Get how long a phase took
+     * @param phase the phase
+     * @return the duration in nanoseconds
+     */
+    public long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Get the allocation and garbage collection during a phase
+     * @param phase the phase
+     * @return the usage, or null if it is not known
+     */
+    public Usage usage(Phase phase) {
+        return usage == null ? null : usage[phase.ordinal()];
+    }
+}
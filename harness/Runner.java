@@ -0,0 +1,439 @@
+package harness;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import common.Counters;
+import common.Input;
+import common.Result;
+import common.Snapshottable;
+import common.Solver;
+import gen.Generators;
+
+/**
+ * Run the solvers for one or more days repeatedly and report the latency
+ * distribution of each phase.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Runner [options] day[,day...]
+ *   --input file       input file to solve (single day only, default dayN.txt)
+ *   --size n           solve a generated input of n records instead of a file
+ *   --seed n           random seed for generated inputs (default 2025)
+ *   --warmup n         untimed runs before measuring (default 5)
+ *   --iterations n     measured runs (default 20)
+ *   --json file|-      also write the results as JSON
+ *   --csv file|-       also write the results as CSV
+ *   --record           store the results as the new baselines
+ *   --compare          compare the results with the stored baselines, exiting
+ *                      with status 1 if an answer changed or a phase regressed
+ *   --baselines dir    where baselines are stored (default baselines)
+ *   --threshold pct    how much slower a median or p99 may get before it is a
+ *                      regression (default 10)
+ *   --counters file|-  also write the hot-path counters of each day as JSON
+ *                      (needs -Daoc.counters=on)
+ *   --snapshot         prepare days that can from a binary snapshot of their
+ *                      prepared data, written by the first run, instead of
+ *                      parsing the text each time
+ */
+public final class Runner {
+    private Runner() {}
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> days = new ArrayList<>();
+        String input = null;
+        int size = 0;
+        long seed = Generators.DEFAULT_SEED;
+        int warmup = 5;
+        int iterations = 20;
+        String json = null;
+        String csv = null;
+        String counters = null;
+        boolean record = false;
+        boolean compare = false;
+        Path baselines = Path.of("baselines");
+        double threshold = 10;
+        boolean snapshot = false;
+
+        // Parse the command line
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--input" -> input = args[++i];
+                    case "--size" -> size = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                    case "--json" -> json = args[++i];
+                    case "--csv" -> csv = args[++i];
+                    case "--counters" -> counters = args[++i];
+                    case "--record" -> record = true;
+                    case "--compare" -> compare = true;
+                    case "--baselines" -> baselines = Path.of(args[++i]);
+                    case "--threshold" -> threshold = Double.parseDouble(args[++i]);
+                    case "--snapshot" -> snapshot = true;
+                    default -> {
+                        for (String day : args[i].split(",")) {
+                            days.add(Integer.parseInt(day));
+                        }
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            days.clear();
+        }
+
+        if (days.isEmpty() || iterations < 1 || warmup < 0 || (input != null && days.size() > 1)
+            || (input != null && size > 0) || (record && compare) || threshold < 0) {
+            System.err.println("Usage: java harness.Runner [--input file | --size n [--seed n]] [--warmup n] "
+                + "[--iterations n] [--json file|-] [--csv file|-] [--counters file|-] "
+                + "[--record | --compare [--threshold pct]] [--baselines dir] [--snapshot] day[,day...]");
+            System.exit(1);
+        }
+        if (counters != null && !Counters.ENABLED) {
+            System.err.println("--counters needs the counters switched on with -Daoc.counters=on");
+            System.exit(1);
+        }
+
+        // Measure each day
+        Snapshots snapshots = snapshot ? Snapshots.fromProperties() : null;
+        List<Measurement> results = new ArrayList<>();
+        List<CounterRun> counts = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        for (int day : days) {
+            String file;
+            Input data;
+            if (size > 0) {
+                file = "generated(size=%d, seed=%d)".formatted(size, seed);
+                data = Input.of(Generators.generate(day, size, seed));
+            }
+            else {
+                file = input != null ? input : Solvers.defaultInput(day);
+                data = load(file);
+            }
+            Counters.reset();
+            results.add(measure("day" + day, file, Solvers.forDay(day), data, warmup, iterations, snapshots));
+            counts.add(counted("day" + day, file, warmup + iterations));
+            hashes.add(data.sha256());
+        }
+
+        // Report the results
+        System.out.print(Report.table(results));
+        write(json, Report.json(results));
+        write(csv, Report.csv(results));
+        write(counters, Report.counters(counts));
+
+        // Store or check the baselines
+        if (record) {
+            for (int i = 0; i < results.size(); i++) {
+                Baselines.record(baselines, results.get(i), hashes.get(i));
+            }
+            System.out.println("Recorded baselines in " + baselines);
+        }
+        if (compare) {
+            StringBuilder comparison = new StringBuilder();
+            boolean failed = false;
+            for (int i = 0; i < results.size(); i++) {
+                failed |= Baselines.compare(baselines, results.get(i), hashes.get(i), threshold / 100, comparison);
+            }
+            System.out.print(comparison);
+            if (failed) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Solve a day once from its input file, printing the answers and how long
+     * each phase took. When the answer cache is switched on (-Daoc.cache=on),
+     * answers already in it are printed without solving again, along with the
+     * timings of the solve that found them (marked as cached).
+     * Otherwise the input is prepared from its snapshot when there is one.
+     * @param solver the day's solver
+     * @param filename the input file
+     * @return the answers and timings of the solve
+     */
+    public static Run solve(Solver<?> solver, String filename) throws IOException {
+        Input input = load(filename);
+        AnswerCache cache = AnswerCache.fromProperties(false);
+        String hash = cache == null ? null : input.sha256();
+
+        Run run = cache == null ? null : cache.get(hash, solver);
+        boolean cached = run != null;
+        if (cached) {
+            System.out.println("Part 1: {" + run.partOne() + "} (cached)");
+            System.out.println("Part 2: {" + run.partTwo() + "} (cached)");
+        }
+        else {
+            // The answers are printed once the timing is over
+            run = run(solver, input, Snapshots.fromProperties());
+            System.out.println("Part 1: " + run.one());
+            System.out.println("Part 2: " + run.two());
+            if (cache != null) {
+                cache.put(hash, solver, run);
+            }
+        }
+
+        for (Phase phase : Phase.values()) {
+            Usage usage = run.usage(phase);
+            if (cached) {
+                System.out.printf("%s duration: %.3fms (cached from an earlier solve)%n",
+                    phase.label(), run.nanos(phase) / 1e6);
+            }
+            else if (usage == null || usage.allocatedBytes() < 0) {
+                System.out.printf("%s duration: %.3fms%n", phase.label(), run.nanos(phase) / 1e6);
+            }
+            else {
+                System.out.printf("%s duration: %.3fms (%,d bytes allocated, %d GCs taking %dms)%n",
+                    phase.label(), run.nanos(phase) / 1e6, usage.allocatedBytes(),
+                    usage.gcCount(), usage.gcMillis());
+            }
+        }
+
+        return run;
+    }
+
+    /**
+     * Solve an input repeatedly, timing each phase of every run
+     * @param name the name to report the results under
+     * @param input the name of the input being solved
+     * @param solver the solver to run
+     * @param data the raw input data
+     * @param warmup the number of untimed runs to make first
+     * @param iterations the number of timed runs
+     * @return the answers and the latency distribution of each phase
+     */
+    public static Measurement measure(String name, String input, Solver<?> solver, Input data,
+        int warmup, int iterations) {
+        try {
+            return measure(name, input, solver, data, warmup, iterations, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreachable without snapshots", e);
+        }
+    }
+
+    /**
+     * Solve an input repeatedly, timing each phase of every run
+     * @param name the name to report the results under
+     * @param input the name of the input being solved
+     * @param solver the solver to run
+     * @param data the raw input data
+     * @param warmup the number of untimed runs to make first
+     * @param iterations the number of timed runs
+     * @param snapshots where to find or write the snapshot to prepare from, or
+     *        null to parse the text every time
+     * @return the answers and the latency distribution of each phase
+     */
+    public static <T> Measurement measure(String name, String input, Solver<T> solver, Input data,
+        int warmup, int iterations, Snapshots snapshots) throws IOException {
+
+        Supplier<T> preparer = preparer(solver, data, snapshots);
+        long[][] nanos = new long[Phase.values().length][iterations];
+        Run first = null;
+
+        for (int i = 0; i < warmup + iterations; i++) {
+            Run run = run(solver, preparer, true);
+
+            // Every run of the same input should come up with the same answers
+            if (first == null) {
+                first = run;
+            }
+            else if (run.partOne() != first.partOne() || run.partTwo() != first.partTwo()) {
+                throw new IllegalStateException(name + " answers changed between runs");
+            }
+
+            if (i >= warmup) {
+                for (Phase phase : Phase.values()) {
+                    nanos[phase.ordinal()][i - warmup] = run.nanos(phase);
+                }
+            }
+        }
+
+        Map<Phase, Stats> stats = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            stats.put(phase, Stats.of(nanos[phase.ordinal()]));
+        }
+
+        return new Measurement(name, input, warmup, iterations, first.partOne(), first.partTwo(), stats);
+    }
+
+    /**
+     * Prepare fresh data and solve both parts, timing each phase
+     * @param solver the solver to run
+     * @param data the raw input data
+     * @return the answers and timings of the solve
+     */
+    static <T> Run run(Solver<T> solver, Input data) {
+        return run(solver, () -> solver.prepare(data), true);
+    }
+
+    /**
+     * Prepare fresh data and solve part one, and part two only if it is
+     * wanted, timing each phase that runs
+     * @param solver the solver to run
+     * @param data the raw input data
+     * @param partTwo whether to solve part two after part one
+     * @return the answers and timings of the solve, without part two's unless it ran
+     */
+    static <T> Run run(Solver<T> solver, Input data, boolean partTwo) {
+        return run(solver, () -> solver.prepare(data), partTwo);
+    }
+
+    /**
+     * Prepare fresh data, from the input's snapshot when there is one, and
+     * solve both parts, timing each phase
+     * @param solver the solver to run
+     * @param data the raw input data
+     * @param snapshots where to find or write the snapshot, or null to parse the text
+     * @return the answers and timings of the solve
+     */
+    static <T> Run run(Solver<T> solver, Input data, Snapshots snapshots) throws IOException {
+        return run(solver, preparer(solver, data, snapshots), true);
+    }
+
+    /**
+     * Prepare fresh data and solve part one, then part two if it is wanted,
+     * timing each phase
+     * @param solver the solver to run
+     * @param preparer prepares the data for each run
+     * @param wantPartTwo whether to solve part two
+     * @return the answers and timings of the solve
+     */
+    private static <T> Run run(Solver<T> solver, Supplier<T> preparer, boolean wantPartTwo) {
+        Usage[] usage = new Usage[Phase.values().length];
+
+        // Usage is sampled and events are created outside the timed regions
+        PhaseEvent event = new PhaseEvent();
+        Usage before = Usage.now();
+        event.begin();
+        long start = System.nanoTime();
+        T input = preparer.get();
+        long prepped = System.nanoTime();
+        usage[Phase.PREPARE.ordinal()] = end(event, solver, Phase.PREPARE, before);
+
+        event = new PhaseEvent();
+        before = Usage.now();
+        event.begin();
+        long firstStart = System.nanoTime();
+        Result partOne = solver.partOne(input);
+        long first = System.nanoTime();
+        usage[Phase.PART_ONE.ordinal()] = end(event, solver, Phase.PART_ONE, before);
+
+        if (!wantPartTwo) {
+            return new Run(partOne, null, new long[] { prepped - start, first - firstStart, 0 }, usage);
+        }
+
+        event = new PhaseEvent();
+        before = Usage.now();
+        event.begin();
+        long secStart = System.nanoTime();
+        Result partTwo = solver.partTwo(input);
+        long sec = System.nanoTime();
+        usage[Phase.PART_TWO.ordinal()] = end(event, solver, Phase.PART_TWO, before);
+
+        return new Run(partOne, partTwo,
+            new long[] { prepped - start, first - firstStart, sec - secStart }, usage);
+    }
+
+    /**
+     * Find how to prepare an input for each run: by reading the snapshot of
+     * its prepared data, writing the snapshot first if there is none yet, or
+     * by parsing the text when the solver has no snapshots
+     * @param solver the solver to run
+     * @param data the raw input data
+     * @param snapshots where to find or write the snapshot, or null to parse the text
+     * @return prepares fresh data each time it is called
+     */
+    private static <T> Supplier<T> preparer(Solver<T> solver, Input data, Snapshots snapshots) throws IOException {
+        if (snapshots == null || !(solver instanceof Snapshottable<T> snapshottable)) {
+            return () -> solver.prepare(data);
+        }
+
+        String hash = data.sha256();
+        ByteBuffer snapshot = snapshots.get(hash, snapshottable);
+        if (snapshot == null && snapshots.put(hash, snapshottable, solver.prepare(data))) {
+            snapshot = snapshots.get(hash, snapshottable);
+        }
+        if (snapshot == null) {
+            return () -> solver.prepare(data);
+        }
+
+        // Every run reads the same mapped snapshot from the start
+        ByteBuffer mapped = snapshot;
+        return () -> snapshottable.load(mapped.duplicate());
+    }
+
+    /**
+     * Finish a phase, recording its JFR event if a recording wants it
+     * @param event the phase's event
+     * @param solver the solver that ran the phase
+     * @param phase the phase
+     * @param before the usage when the phase started
+     * @return the allocation and garbage collection during the phase
+     */
+    private static Usage end(PhaseEvent event, Solver<?> solver, Phase phase, Usage before) {
+        event.end();
+        Usage usage = Usage.now().since(before);
+
+        if (event.shouldCommit()) {
+            event.solver = solver.getClass().getName();
+            event.phase = phase.label();
+            event.allocated = usage.allocatedBytes();
+            event.gcTime = usage.gcMillis();
+            event.gcCount = usage.gcCount();
+            event.commit();
+        }
+
+        return usage;
+    }
+
+    /**
+     * Read the counters of a day, as counted since they were last reset
+     * @param name the name of the day, which starts the names of its counters
+     * @param input the name of the input that was solved
+     * @param runs the number of solves counted
+     * @return the day's counts
+     */
+    static CounterRun counted(String name, String input, int runs) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> counter : Counters.snapshot().entrySet()) {
+            if (counter.getKey().startsWith(name + ".")) {
+                counts.put(counter.getKey(), counter.getValue());
+            }
+        }
+        return new CounterRun(name, input, runs, counts);
+    }
+
+    /**
+     * Memory map an input file
+     * @param filename the input file
+     * @return the contents of the file
+     */
+    static Input load(String filename) throws IOException {
+        return Input.map(Path.of(filename));
+    }
+
+    /**
+     * Write report text to a file, or to the console when the name is "-"
+     * @param filename the file to write, or null to skip writing
+     * @param text the report text
+     */
+    static void write(String filename, String text) throws IOException {
+        if (filename == null) {
+            return;
+        }
+        if (filename.equals("-")) {
+            System.out.print(text);
+        }
+        else {
+            Files.writeString(Path.of(filename), text);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package harness;
+
+import java.util.List;
+
+/**
+ * The results of running several days at the same time
+ * @author Brian Dahlem
+ *
+ * @param threads the number of worker threads the days shared
+ * @param wallNanos the wall clock time from the first day starting to the last finishing
+ * @param cpuNanos the CPU time used by the whole process while the days ran,
+ *                 or -1 if the JVM cannot measure it
+ * @param jobs the outcome of each day, in the order they were requested
+ */
+public record Schedule(int threads, long wallNanos, long cpuNanos, List<Job> jobs) {
+
+    /**
+     * Get the measurements of the days that succeeded
+     * @return the measurements, in the order the days were requested
+     */
+    public List<Measurement> measurements() {
+        return jobs.stream()
+            .filter(job -> job.measurement() != null)
+            .map(Job::measurement)
+            .toList();
+    }
+}
@@ -0,0 +1,189 @@
+package harness;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import common.Input;
+import common.Solver;
+import gen.Generators;
+
+/**
+ * Run the solvers for many days at the same time and report the wall time and
+ * CPU time of the whole set along with each day's latency distribution.
+ * @author Brian Dahlem
+ *
+ * Each day is one task on a ForkJoinPool. The CPU time of the whole set is the
+ * CPU time of the process while the days ran, so it counts the work a day
+ * forks into the pool (ParallelParse, day 11's path counts) along with the
+ * JIT and garbage collector threads. A day's own CPU time is only approximate:
+ * it is the CPU time of the thread that picked up the day's task, which
+ * leaves out the work the day forks onto other threads and includes any other
+ * day's tasks that thread ran while waiting to join. A day that fails is
+ * reported and the rest carry on.
+ *
+ * Usage: java harness.Scheduler [options] [day[,day...]]
+ *   --threads n        worker threads (default: one per available processor)
+ *   --size n           solve generated inputs of n records instead of files
+ *   --seed n           random seed for generated inputs (default 2025)
+ *   --warmup n         untimed runs before measuring (default 5)
+ *   --iterations n     measured runs (default 20)
+ *   --json file|-      also write the results as JSON
+ * With no days given, every day is run.
+ */
+public final class Scheduler {
+    private Scheduler() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<Integer> days = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int size = 0;
+        long seed = Generators.DEFAULT_SEED;
+        int warmup = 5;
+        int iterations = 20;
+        String json = null;
+        boolean valid = true;
+
+        // Parse the command line
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--size" -> size = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                    case "--json" -> json = args[++i];
+                    default -> {
+                        for (String day : args[i].split(",")) {
+                            days.add(Integer.parseInt(day));
+                        }
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            valid = false;
+        }
+
+        if (!valid || threads < 1 || iterations < 1 || warmup < 0
+            || days.stream().anyMatch(d -> d < 1 || d > Solvers.DAYS)) {
+            System.err.println("Usage: java harness.Scheduler [--threads n] [--size n [--seed n]] "
+                + "[--warmup n] [--iterations n] [--json file|-] [day[,day...]]");
+            System.exit(1);
+        }
+
+        if (days.isEmpty()) {
+            for (int day = 1; day <= Solvers.DAYS; day++) {
+                days.add(day);
+            }
+        }
+
+        Schedule schedule = run(days, threads, size, seed, warmup, iterations);
+
+        // Report the results
+        System.out.print(Report.schedule(schedule));
+        Runner.write(json, Report.json(schedule));
+
+        if (schedule.jobs().stream().anyMatch(job -> job.error() != null)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Measure several days at once
+     * @param days the days to run
+     * @param threads the number of worker threads
+     * @param size the number of records in generated inputs, or 0 to solve each day's input file
+     * @param seed the random seed for generated inputs
+     * @param warmup the number of untimed runs of each day
+     * @param iterations the number of timed runs of each day
+     * @return the outcome of every day and the time taken by the whole set
+     */
+    public static Schedule run(List<Integer> days, int threads, int size, long seed,
+        int warmup, int iterations) throws InterruptedException {
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<Future<Job>> futures = new ArrayList<>();
+        List<Job> jobs = new ArrayList<>();
+
+        long cpuStart = processCpuTime();
+        long start = System.nanoTime();
+        try {
+            for (int day : days) {
+                futures.add(pool.submit(() -> job(day, size, seed, warmup, iterations)));
+            }
+            for (Future<Job> future : futures) {
+                try {
+                    jobs.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long wall = System.nanoTime() - start;
+        long cpu = cpuStart < 0 ? -1 : processCpuTime() - cpuStart;
+
+        return new Schedule(threads, wall, cpu, jobs);
+    }
+
+    /**
+     * Get the CPU time used by every thread of the process so far
+     * @return the CPU time, or -1 if the JVM cannot measure it
+     */
+    private static long processCpuTime() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean process) {
+            return process.getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * Measure one day on the current thread, counting only that thread's CPU time
+     * @param day the day to run
+     * @param size the number of records in a generated input, or 0 to solve the day's input file
+     * @param seed the random seed for a generated input
+     * @param warmup the number of untimed runs
+     * @param iterations the number of timed runs
+     * @return the outcome of the day
+     */
+    private static Job job(int day, int size, long seed, int warmup, int iterations) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        boolean measureCpu = threadBean.isCurrentThreadCpuTimeSupported();
+        String name = "day" + day;
+
+        long cpuStart = measureCpu ? threadBean.getCurrentThreadCpuTime() : 0;
+        long start = System.nanoTime();
+        Measurement measurement = null;
+        String error = null;
+        try {
+            String file;
+            Input data;
+            if (size > 0) {
+                file = "generated(size=%d, seed=%d)".formatted(size, seed);
+                data = Input.of(Generators.generate(day, size, seed));
+            }
+            else {
+                file = Solvers.defaultInput(day);
+                data = Runner.load(file);
+            }
+
+            Solver<?> solver = Solvers.forDay(day);
+            measurement = Runner.measure(name, file, solver, data, warmup, iterations);
+        } catch (Exception | LinkageError e) {
+            error = e.toString();
+        }
+        long wall = System.nanoTime() - start;
+        long cpu = measureCpu ? threadBean.getCurrentThreadCpuTime() - cpuStart : -1;
+
+        return new Job(name, measurement, wall, cpu, error);
+    }
+}
@@ -0,0 +1,370 @@
+package harness;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import common.Input;
+import common.Solver;
+
+/**
+ * A long-lived process that keeps every solver loaded (and, after a few
+ * requests, JIT compiled) and solves inputs sent to it over a local socket.
+ * @author Brian Dahlem
+ *
+ * Usage: java harness.Server [--socket path | --port n] [--warmup n] [--no-cache]
+ *   --socket path      listen on a Unix domain socket (the default is server.sock)
+ *   --port n           listen on a loopback TCP port instead
+ *   --warmup n         solve each day's dayN.txt n times before accepting requests
+ *   --no-cache         always solve, ignoring the answer cache
+ *
+ * Every solver is created at startup, so class loading is paid for once (the
+ * Z3 native libraries with the first solve of day 10's part two). Each
+ * connection is served on its own thread and may send any number of
+ * requests, one per line:
+ *
+ *   solve day part file      solve an input file the server can read
+ *   solve day part - length  solve the length bytes that follow the line
+ *   shutdown                 stop the server
+ *
+ * where part is 1, 2 or both. Each request gets a single line of JSON back
+ * holding the requested answers and how long the server spent loading the
+ * input and in each phase that ran, or an "error" message. A part always
+ * runs after the parts before it, since some days continue from earlier
+ * parts, but part two only runs when it is asked for. Answers found in the
+ * {@link AnswerCache} are returned without solving, with the timings of the
+ * solve that found them and "cached": true.
+ */
+public final class Server {
+    /** The socket used when neither --socket nor --port is given */
+    static final String DEFAULT_SOCKET = "server.sock";
+
+    /** A solver for each day, indexed by day number, or null if it could not be loaded */
+    private final Solver<?>[] solvers = new Solver<?>[Solvers.DAYS + 1];
+    /** Why each day's solver could not be loaded */
+    private final String[] errors = new String[Solvers.DAYS + 1];
+    /** The socket requests arrive on */
+    private final ServerSocketChannel listener;
+    /** Answers that have already been found, or null to always solve */
+    private final AnswerCache cache;
+
+    private Server(ServerSocketChannel listener, AnswerCache cache) {
+        this.listener = listener;
+        this.cache = cache;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String socket = null;
+        int port = 0;
+        int warmup = 0;
+        boolean useCache = true;
+        boolean valid = true;
+
+        // Parse the command line
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--socket" -> socket = args[++i];
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--no-cache" -> useCache = false;
+                    default -> valid = false;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            valid = false;
+        }
+
+        if (!valid || warmup < 0 || port < 0 || (socket != null && port > 0)) {
+            System.err.println("Usage: java harness.Server [--socket path | --port n] [--warmup n] [--no-cache]");
+            System.exit(1);
+        }
+
+        PrintStream log = System.err;
+
+        Server server = new Server(open(socket, port), useCache ? AnswerCache.fromProperties(true) : null);
+        server.load(log);
+        server.warm(warmup, log);
+
+        log.println("Listening on " + server.listener.getLocalAddress());
+        server.serve(log);
+    }
+
+    /**
+     * Get the address of a server
+     * @param socket the path of a Unix domain socket, or null for the default
+     * @param port a loopback TCP port, or 0 to use the socket
+     * @return the address to listen on or connect to
+     */
+    static SocketAddress address(String socket, int port) {
+        if (port > 0) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        }
+        return UnixDomainSocketAddress.of(socket != null ? socket : DEFAULT_SOCKET);
+    }
+
+    /**
+     * Start listening for connections
+     * @param socket the path of a Unix domain socket, or null for the default
+     * @param port a loopback TCP port, or 0 to use the socket
+     * @return the listening socket
+     */
+    private static ServerSocketChannel open(String socket, int port) throws IOException {
+        SocketAddress address = address(socket, port);
+        if (address instanceof UnixDomainSocketAddress unix) {
+            // A socket file left behind by an earlier server would block the bind
+            Files.deleteIfExists(unix.getPath());
+            ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.bind(unix);
+            unix.getPath().toFile().deleteOnExit();
+            return channel;
+        }
+        return ServerSocketChannel.open().bind(address);
+    }
+
+    /**
+     * Create every day's solver
+     * @param log where to report days that cannot be loaded
+     */
+    private void load(PrintStream log) {
+        for (int day = 1; day <= Solvers.DAYS; day++) {
+            try {
+                solvers[day] = Solvers.forDay(day);
+            } catch (Exception | LinkageError e) {
+                errors[day] = e.toString();
+                log.println("day" + day + " unavailable: " + e);
+            }
+        }
+    }
+
+    /**
+     * Solve each day's puzzle input a number of times so that the solvers are
+     * compiled before the first real request
+     * @param times the number of solves of each day
+     * @param log where to report progress
+     */
+    private void warm(int times, PrintStream log) {
+        if (times == 0) {
+            return;
+        }
+
+        for (int day = 1; day <= Solvers.DAYS; day++) {
+            Path file = Path.of(Solvers.defaultInput(day));
+            if (solvers[day] == null || !Files.exists(file)) {
+                continue;
+            }
+            try {
+                Input input = Input.map(file);
+                for (int i = 0; i < times; i++) {
+                    Runner.run(solvers[day], input);
+                }
+                log.println("Warmed day" + day);
+            } catch (Exception | LinkageError e) {
+                log.println("Unable to warm day" + day + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Accept connections until the server is shut down
+     * @param log where to report failed connections
+     */
+    private void serve(PrintStream log) throws IOException {
+        ExecutorService connections = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "aoc-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            while (true) {
+                SocketChannel channel = listener.accept();
+                connections.execute(() -> {
+                    try (channel) {
+                        converse(channel);
+                    } catch (IOException e) {
+                        log.println("Connection failed: " + e);
+                    }
+                });
+            }
+        } catch (ClosedChannelException e) {
+            // shut down by a request
+        } finally {
+            connections.shutdownNow();
+        }
+    }
+
+    /**
+     * Answer the requests sent over one connection
+     * @param channel the connection
+     */
+    private void converse(SocketChannel channel) throws IOException {
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+        OutputStream out = Channels.newOutputStream(channel);
+
+        String request;
+        while ((request = readLine(in)) != null) {
+            if (request.isBlank()) {
+                continue;
+            }
+            if (request.strip().equals("shutdown")) {
+                reply(out, "{\"shutdown\": true}");
+                listener.close();
+                return;
+            }
+            reply(out, handle(request.strip().split("\\s+", 4), in));
+        }
+    }
+
+    /**
+     * Solve one request
+     * @param request the first three words of the request line and the rest of it
+     * @param in the rest of the connection, holding any input bytes
+     * @return the JSON reply
+     */
+    private String handle(String[] request, InputStream in) throws IOException {
+        if (request.length < 4 || !request[0].equals("solve")) {
+            return error("expected: solve day 1|2|both file, or solve day 1|2|both - length");
+        }
+        String[] source = request[3].split("\\s+");
+        boolean inline = source.length == 2 && source[0].equals("-");
+
+        int day;
+        try {
+            day = Integer.parseInt(request[1]);
+        } catch (NumberFormatException e) {
+            return error("not a day: " + request[1]);
+        }
+        String part = request[2];
+        if (!part.equals("1") && !part.equals("2") && !part.equals("both")) {
+            return error("not a part: " + part);
+        }
+
+        // Read the input before anything else can fail, so that the bytes of a
+        // bad request are not mistaken for the next request
+        long start = System.nanoTime();
+        Input input;
+        String name;
+        if (inline) {
+            int length;
+            try {
+                length = Integer.parseInt(source[1]);
+            } catch (NumberFormatException e) {
+                return error("not a length: " + source[1]);
+            }
+            if (length < 0) {
+                return error("not a length: " + source[1]);
+            }
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                return error("connection closed after " + bytes.length + " of " + length + " bytes");
+            }
+            input = Input.of(bytes);
+            name = "-";
+        }
+        else {
+            name = request[3];
+            try {
+                input = Input.map(Path.of(name));
+            } catch (IOException e) {
+                return error("unable to read " + name + ": " + e.getMessage());
+            }
+        }
+        long loaded = System.nanoTime() - start;
+
+        if (day < 1 || day > Solvers.DAYS) {
+            return error("no solver for day " + day);
+        }
+        if (solvers[day] == null) {
+            return error("day " + day + " unavailable: " + errors[day]);
+        }
+
+        Run run;
+        boolean cached;
+        try {
+            String hash = cache == null ? null : input.sha256();
+            run = cache == null ? null : cache.get(hash, solvers[day]);
+            cached = run != null;
+            if (!cached) {
+                // Part two is left alone unless it is asked for, so that a part
+                // one request never pays for it (or for day 10's Z3 libraries)
+                run = Runner.run(solvers[day], input, !part.equals("1"));
+                if (cache != null && run.ran(Phase.PART_TWO)) {
+                    cache.put(hash, solvers[day], run);
+                }
+            }
+        } catch (Exception | LinkageError | StackOverflowError e) {
+            return error(e.toString());
+        }
+
+        StringBuilder reply = new StringBuilder("{\"day\": %d, \"part\": \"%s\", \"input\": \"%s\""
+            .formatted(day, part, Report.escape(name)));
+        if (!part.equals("2")) {
+            reply.append(", \"part_one\": ").append(run.partOne());
+        }
+        if (!part.equals("1")) {
+            reply.append(", \"part_two\": ").append(run.partTwo());
+        }
+        reply.append(", \"cached\": ").append(cached);
+        reply.append(", \"load_ns\": ").append(loaded);
+        for (Phase phase : Phase.values()) {
+            if (run.ran(phase) && (phase != Phase.PART_TWO || !part.equals("1"))) {
+                reply.append(", \"%s_ns\": %d".formatted(phase.key(), run.nanos(phase)));
+            }
+        }
+        return reply.append("}").toString();
+    }
+
+    /**
+     * Format an error reply
+     * @param message what went wrong
+     * @return the JSON reply
+     */
+    private static String error(String message) {
+        return "{\"error\": \"" + Report.escape(message) + "\"}";
+    }
+
+    /**
+     * Send one reply line
+     * @param out the connection
+     * @param json the reply
+     */
+    private static void reply(OutputStream out, String json) throws IOException {
+        out.write((json + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Read one line of a request
+     * @param in the connection
+     * @return the line without its terminator, or null at the end of the connection
+     */
+    static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.write(b);
+        }
+        if (b == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+}
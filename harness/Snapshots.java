@@ -0,0 +1,198 @@
+package harness;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import common.Snapshottable;
+
+/**
+ * Binary snapshots of prepared input data, stored on disk and looked up by
+ * the hash of the input they came from, so a later run can memory map the
+ * snapshot instead of parsing the text again.
+ * @author Brian Dahlem
+ *
+ * Each snapshot is a file at dir/inputHash/solver-vV-sS-code.snap, where
+ * solver is the solver's class, V its version, S its snapshot version and code
+ * the hash of its compiled classes that the {@link AnswerCache} uses, so a
+ * rebuilt prepare or save never loads a snapshot written by the old code. The
+ * file starts with a header (the magic number "AOCS", the format version, both
+ * solver versions, the code hash and the length of the data that follows) so
+ * that a file from another layout or cut short by a crash is ignored and
+ * written again. When the classes cannot be read snapshots are not used.
+ *
+ * Snapshots live in .aoc-snapshots unless the aoc.snapshot.dir system property
+ * says otherwise, and are not used at all when aoc.snapshots is set to "off".
+ *
+ * Usage: java harness.Snapshots clear [day...]
+ *        java harness.Snapshots list
+ */
+public final class Snapshots {
+    /** Marks the start of a snapshot file: "AOCS" */
+    private static final int MAGIC = 0x414F4353;
+    /** The version of the header */
+    private static final int FORMAT = 2;
+    /** The bytes in the header */
+    private static final int HEADER = 4 + 4 + 4 + 4 + 8 + 8;
+
+    /** The directory holding the snapshots */
+    private final Path dir;
+
+    /**
+     * Use a snapshot directory
+     * @param dir the directory holding the snapshots
+     */
+    public Snapshots(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Get the snapshots chosen by the system properties
+     * @return the snapshots, or null if they are switched off
+     */
+    public static Snapshots fromProperties() {
+        if ("off".equals(System.getProperty("aoc.snapshots"))) {
+            return null;
+        }
+        return new Snapshots(Path.of(System.getProperty("aoc.snapshot.dir", ".aoc-snapshots")));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Snapshots snapshots = new Snapshots(Path.of(System.getProperty("aoc.snapshot.dir", ".aoc-snapshots")));
+        List<Integer> days = new ArrayList<>();
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                days.add(Integer.parseInt(args[i]));
+            }
+        } catch (NumberFormatException e) {
+            args = new String[0];
+        }
+
+        if (args.length == 1 && args[0].equals("list")) {
+            for (Path entry : snapshots.entries()) {
+                System.out.printf("%s %,d bytes%n", snapshots.dir.relativize(entry), Files.size(entry));
+            }
+        }
+        else if (args.length >= 1 && args[0].equals("clear")) {
+            int removed = 0;
+            for (Path entry : snapshots.entries()) {
+                String name = entry.getFileName().toString();
+                if (days.isEmpty() || days.stream().anyMatch(day -> name.startsWith("day" + day + "."))) {
+                    Files.delete(entry);
+                    removed++;
+                }
+            }
+            System.out.println("Removed " + removed + " snapshots");
+        }
+        else {
+            System.err.println("Usage: java harness.Snapshots clear [day...]");
+            System.err.println("       java harness.Snapshots list");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Memory map the snapshot of an input
+     * @param inputHash the SHA-256 of the input
+     * @param solver the day's solver
+     * @return the snapshot's data, positioned after the header, or null if
+     *         there is no usable snapshot
+     */
+    public ByteBuffer get(String inputHash, Snapshottable<?> solver) throws IOException {
+        String code = AnswerCache.code(solver);
+        Path entry = entry(inputHash, solver);
+        if (code.isEmpty() || !Files.exists(entry)) {
+            return null;
+        }
+
+        ByteBuffer snapshot;
+        try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) {
+                return null;
+            }
+            snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        // A snapshot with another layout or cut short is treated as missing
+        boolean valid = snapshot.getInt() == MAGIC && snapshot.getInt() == FORMAT
+            && snapshot.getInt() == solver.version() && snapshot.getInt() == solver.snapshotVersion()
+            && snapshot.getLong() == Long.parseLong(code, 16) && snapshot.getLong() == snapshot.capacity() - HEADER;
+        return valid ? snapshot.slice() : null;
+    }
+
+    /**
+     * Store the snapshot of an input
+     * @param inputHash the SHA-256 of the input
+     * @param solver the day's solver
+     * @param prepared the data the solver just prepared from the input
+     * @return false if the solver could not store this data, or its classes
+     *         could not be read
+     */
+    public <T> boolean put(String inputHash, Snapshottable<T> solver, T prepared) throws IOException {
+        String code = AnswerCache.code(solver);
+        if (code.isEmpty()) {
+            return false;
+        }
+        Path entry = entry(inputHash, solver);
+        Files.createDirectories(entry.getParent());
+
+        // Write then move so a reader never sees half a snapshot
+        Path temp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeInt(solver.version());
+                out.writeInt(solver.snapshotVersion());
+                out.writeLong(Long.parseLong(code, 16));
+                out.writeLong(0);
+                solver.save(prepared, out);
+            }
+
+            // Now the length of the data is known
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(8).putLong(0, channel.size() - HEADER), HEADER - 8);
+            }
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Find every snapshot
+     * @return the snapshot files
+     */
+    private List<Path> entries() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(dir, 2)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".snap")).sorted().toList();
+        }
+    }
+
+    /**
+     * Find where a snapshot is stored
+     * @param inputHash the SHA-256 of the input
+     * @param solver the day's solver
+     * @return the file holding the snapshot
+     */
+    private Path entry(String inputHash, Snapshottable<?> solver) {
+        return dir.resolve(inputHash).resolve("%s-v%d-s%d-%s.snap".formatted(solver.getClass().getName(),
+            solver.version(), solver.snapshotVersion(), AnswerCache.code(solver)));
+    }
+}
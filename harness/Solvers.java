@@ -0,0 +1,44 @@
+package harness;
+
+import common.Solver;
+
+/**
+ * Locate the solver for each day by name so that a day's classes are only
+ * loaded when that day is run. (Day 10 goes further, loading the Z3 libraries
+ * only when its part two is solved.)
+ * @author Brian Dahlem
+ */
+public final class Solvers {
+    /** The number of days in this year's puzzles */
+    public static final int DAYS = 12;
+
+    private Solvers() {}
+
+    /**
+     * Create the solver for a day
+     * @param day the day number (1-12)
+     * @return a new instance of the day's solver
+     */
+    public static Solver<?> forDay(int day) {
+        if (day < 1 || day > DAYS) {
+            throw new IllegalArgumentException("No solver for day " + day);
+        }
+
+        String className = "day" + day + ".Aoc" + day;
+        try {
+            Class<?> type = Class.forName(className);
+            return (Solver<?>) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create solver " + className, e);
+        }
+    }
+
+    /**
+     * Get the puzzle input file a day reads by default
+     * @param day the day number (1-12)
+     * @return the input file name
+     */
+    public static String defaultInput(int day) {
+        return "day" + day + ".txt";
+    }
+}
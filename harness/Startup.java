@@ -0,0 +1,13 @@
+package harness;
+
+/**
+ * How quickly fresh JVMs started one way gave their answers
+ * @author Brian Dahlem
+ *
+ * @param name how the JVMs were started
+ * @param runs the number of JVMs started
+ * @param firstAnswer the time from starting each JVM to its first answer
+ * @param allAnswers the time from starting each JVM to its exit
+ * @param failures the number of JVMs that exited with an error
+ */
+public record Startup(String name, int runs, Stats firstAnswer, Stats allAnswers, int failures) {}
@@ -0,0 +1,43 @@
+package harness;
+
+import java.util.Arrays;
+
+/**
+ * Latency distribution of a set of timed runs, in nanoseconds
+ * @author Brian Dahlem
+ *
+ * @param min the fastest run
+ * @param median the 50th percentile run
+ * @param p90 the 90th percentile run
+ * @param p99 the 99th percentile run
+ * @param max the slowest run
+ */
+public record Stats(long min, long median, long p90, long p99, long max) {
+    /**
+     * Summarize a set of run durations
+     * @param nanos the duration of each run in nanoseconds
+     * @return the distribution of the durations
+     */
+    public static Stats of(long[] nanos) {
+        if (nanos.length == 0) {
+            throw new IllegalArgumentException("No runs to summarize");
+        }
+
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+
+        return new Stats(sorted[0], percentile(sorted, 50), percentile(sorted, 90),
+            percentile(sorted, 99), sorted[sorted.length - 1]);
+    }
+
+    /**
+     * Find a percentile of sorted values using the nearest-rank method
+     * @param sorted the values in ascending order
+     * @param pct the percentile to find (0-100)
+     * @return the smallest value that is at least pct percent of the values
+     */
+    static long percentile(long[] sorted, int pct) {
+        int rank = (int) Math.ceil(pct / 100.0 * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+}
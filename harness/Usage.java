@@ -0,0 +1,68 @@
+package harness;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * The memory allocated by the current thread and the garbage collection work
+ * done by the JVM, either in total so far or over some stretch of time.
+ * @author Brian Dahlem
+ *
+ * Allocation is counted per thread, so it belongs to the code that ran on the
+ * thread. Garbage collection is counted for the whole JVM, so when other
+ * threads are busy (as in the scheduler) some of it may have been caused by
+ * them.
+ *
+ * @param allocatedBytes the bytes allocated, or -1 if the JVM cannot count them
+ * @param gcMillis the milliseconds spent collecting garbage
+ * @param gcCount the number of garbage collections
+ */
+public record Usage(long allocatedBytes, long gcMillis, long gcCount) {
+    /** Counts allocation, if the JVM supports it */
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+    /** Counts garbage collection */
+    private static final List<GarbageCollectorMXBean> COLLECTORS =
+        ManagementFactory.getGarbageCollectorMXBeans();
+
+    /**
+     * Get the usage so far
+     * @return the totals for the current thread and the JVM
+     */
+    public static Usage now() {
+        long allocated = THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+        long gcMillis = 0;
+        long gcCount = 0;
+        for (GarbageCollectorMXBean collector : COLLECTORS) {
+            gcMillis += Math.max(0, collector.getCollectionTime());
+            gcCount += Math.max(0, collector.getCollectionCount());
+        }
+        return new Usage(allocated, gcMillis, gcCount);
+    }
+
+    /**
+     * Get the usage since an earlier point
+     * @param start the usage at the earlier point
+     * @return the usage in between
+     */
+    public Usage since(Usage start) {
+        long allocated = allocatedBytes < 0 || start.allocatedBytes < 0
+            ? -1 : allocatedBytes - start.allocatedBytes;
+        return new Usage(allocated, gcMillis - start.gcMillis, gcCount - start.gcCount);
+    }
+
+    /**
+     * Find the JVM's per-thread allocation counter
+     * @return the counter, or null if the JVM does not have one
+     */
+    private static com.sun.management.ThreadMXBean threads() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean counter
+            && counter.isThreadAllocatedMemorySupported()) {
+            counter.setThreadAllocatedMemoryEnabled(true);
+            return counter;
+        }
+        return null;
+    }
+}